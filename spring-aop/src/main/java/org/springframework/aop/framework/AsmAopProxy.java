@@ -0,0 +1,730 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.RawTargetAccess;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.core.SmartClassLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class-based {@link AopProxy} implementation for the Spring AOP framework,
+ * generating a subclass of the target class with ASM.
+ *
+ * <p>In contrast to {@link CglibAopProxy}, there are no callbacks and no
+ * callback filter, and no FastClass is generated for the target class:
+ * each overridden method passes its {@link Method} and its arguments straight
+ * to the {@link InvocationHandler} of the proxy instance, which is this class.
+ * A generated class only depends on the proxied class and interfaces, so it
+ * is shared by all proxies of the same type, whatever their advice.
+ *
+ * <p>Supports the same configuration as {@link CglibAopProxy}: exposing the
+ * proxy, introductions, and any {@link TargetSource}. If the configuration is
+ * frozen and the target static, the interceptor chain and the target of each
+ * method are resolved once, as for {@link JdkDynamicAopProxy}.
+ *
+ * <p>Proxy instances are created through Objenesis where possible, without
+ * invoking a constructor of the proxied class, and through the default
+ * constructor otherwise. Calls from that constructor are not intercepted.
+ * Final methods cannot be overridden and are therefore not proxied, and
+ * checked exceptions that a method does not declare are wrapped in an
+ * {@link UndeclaredThrowableException}.
+ *
+ * <p>Objects of this type should be obtained through proxy factories
+ * configured with an {@link AsmAopProxyFactory}.
+ *
+ * @since 5.1.1
+ * @see AsmAopProxyFactory
+ */
+@SuppressWarnings("serial")
+class AsmAopProxy implements AopProxy, InvocationHandler, Serializable {
+
+	/** Separates the name of the proxied class from the suffix of the proxy class name. */
+	static final String CLASS_NAME_INFIX = "$$AsmProxy$$";
+
+	private static final String HANDLER_FIELD_NAME = "$$handler";
+
+	private static final String METHODS_FIELD_NAME = "$$methods";
+
+	private static final String HANDLER_DESCRIPTOR = Type.getDescriptor(InvocationHandler.class);
+
+	private static final String METHODS_DESCRIPTOR = Type.getDescriptor(Method[].class);
+
+	/** We use a static Log to avoid serialization issues. */
+	private static final Log logger = LogFactory.getLog(AsmAopProxy.class);
+
+	private static final SpringObjenesis objenesis = new SpringObjenesis();
+
+	/**
+	 * Generated proxy classes per class loader, keyed by the names of the proxied
+	 * class and interfaces. Classes are only weakly referenced, since they are
+	 * held by their class loader anyway: an entry goes away with its class loader.
+	 */
+	private static final Map<ClassLoader, Map<ProxyClassKey, Reference<Class<?>>>> proxyClassCache =
+			new WeakHashMap<>();
+
+	private static final AtomicInteger proxyClassCounter = new AtomicInteger();
+
+
+	/** The configuration used to configure this proxy. */
+	private final AdvisedSupport advised;
+
+	/**
+	 * Dispatch information per proxied method, if the configuration is frozen
+	 * and the target is static: {@code null} otherwise, and after deserialization.
+	 */
+	@Nullable
+	private final transient Map<Method, FixedMethodDispatch> fixedDispatches;
+
+
+	/**
+	 * Create a new AsmAopProxy for the given AOP configuration.
+	 * @param config the AOP configuration as AdvisedSupport object
+	 * @throws AopConfigException if the config is invalid. We try to throw an informative
+	 * exception in this case, rather than let a mysterious failure happen later.
+	 */
+	public AsmAopProxy(AdvisedSupport config) throws AopConfigException {
+		Assert.notNull(config, "AdvisedSupport must not be null");
+		if (config.getAdvisors().length == 0 && config.getTargetSource() == AdvisedSupport.EMPTY_TARGET_SOURCE) {
+			throw new AopConfigException("No advisors and no TargetSource specified");
+		}
+		this.advised = config;
+		this.fixedDispatches = (config.isFrozen() && config.getTargetSource().isStatic() ?
+				new ConcurrentHashMap<>(32) : null);
+	}
+
+
+	@Override
+	public Object getProxy() {
+		return getProxy(null);
+	}
+
+	/**
+	 * Create a new proxy object.
+	 * <p>As for {@link CglibAopProxy}, the proxy class is defined for the given
+	 * class loader, or for the class loader of the proxied class if none is given.
+	 * Package-visible methods are only proxied if that is the class loader of the
+	 * proxied class.
+	 */
+	@Override
+	public Object getProxy(@Nullable ClassLoader classLoader) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Creating ASM proxy: " + this.advised.getTargetSource());
+		}
+
+		Class<?> rootClass = this.advised.getTargetClass();
+		Assert.state(rootClass != null, "Target class must be available for creating an ASM proxy");
+
+		Class<?> proxySuperClass = rootClass;
+		if (ClassUtils.isCglibProxyClass(rootClass)) {
+			proxySuperClass = rootClass.getSuperclass();
+			Class<?>[] additionalInterfaces = rootClass.getInterfaces();
+			for (Class<?> additionalInterface : additionalInterfaces) {
+				this.advised.addInterface(additionalInterface);
+			}
+		}
+		if (Modifier.isFinal(proxySuperClass.getModifiers())) {
+			throw new AopConfigException("Could not generate ASM subclass of final " + proxySuperClass);
+		}
+
+		try {
+			Class<?>[] interfaces = AopProxyUtils.completeProxiedInterfaces(this.advised);
+			return getProxyClass(proxySuperClass, interfaces, classLoader).newInstance(this);
+		} catch (AopConfigException ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new AopConfigException("Could not generate ASM subclass of " + proxySuperClass +
+					": Common causes of this problem include using a final class or a non-visible class", ex);
+		}
+	}
+
+
+	/**
+	 * Implementation of {@code InvocationHandler.invoke}, called by all
+	 * overridden methods of the proxy class.
+	 * <p>Callers will see exactly the exception thrown by the target, unless
+	 * it is a checked exception that the method does not declare.
+	 */
+	@Override
+	@Nullable
+	public Object invoke(Object proxy, Method method, @Nullable Object[] args) throws Throwable {
+		try {
+			if (this.fixedDispatches != null) {
+				FixedMethodDispatch dispatch = getFixedDispatch(method);
+				if (dispatch.toTarget) {
+					return dispatch.invoke(proxy, args, this.advised.exposeProxy);
+				}
+			}
+			return doInvoke(proxy, method, args);
+		} catch (RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			if (ReflectionUtils.declaresException(method, ex.getClass())) {
+				throw ex;
+			}
+			throw new UndeclaredThrowableException(ex);
+		}
+	}
+
+	@Nullable
+	private Object doInvoke(Object proxy, Method method, @Nullable Object[] args) throws Throwable {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (AopUtils.isEqualsMethod(method)) {
+			return equalsInProxy(proxy, args[0]);
+		} else if (AopUtils.isHashCodeMethod(method)) {
+			return hashCode();
+		} else if (!this.advised.opaque && declaringClass.isInterface() &&
+				declaringClass.isAssignableFrom(Advised.class)) {
+			// Service invocations on ProxyConfig with the proxy config...
+			return AopUtils.invokeJoinpointUsingReflection(this.advised, method, args);
+		}
+
+		Object oldProxy = null;
+		boolean setProxyContext = false;
+		TargetSource targetSource = this.advised.getTargetSource();
+		Object target = null;
+
+		try {
+			if (this.advised.exposeProxy) {
+				// Make invocation available if necessary.
+				oldProxy = AopContext.setCurrentProxy(proxy);
+				setProxyContext = true;
+			}
+
+			// Get as late as possible to minimize the time we "own" the target,
+			// in case it comes from a pool.
+			target = targetSource.getTarget();
+			Class<?> targetClass = (target != null ? target.getClass() : null);
+			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+
+			Object retVal;
+			if (chain.isEmpty()) {
+				// We can skip creating a MethodInvocation: just invoke the target directly.
+				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
+				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+			} else {
+				// We need to create a method invocation...
+				retVal = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain).proceed();
+			}
+			return processReturnType(proxy, target, method, retVal);
+		} finally {
+			if (target != null && !targetSource.isStatic()) {
+				// Must have come from TargetSource.
+				targetSource.releaseTarget(target);
+			}
+			if (setProxyContext) {
+				// Restore old proxy.
+				AopContext.setCurrentProxy(oldProxy);
+			}
+		}
+	}
+
+	/**
+	 * Return the dispatch information for the given method, resolving it on
+	 * first invocation of the method.
+	 */
+	private FixedMethodDispatch getFixedDispatch(Method method) throws Exception {
+		FixedMethodDispatch dispatch = this.fixedDispatches.get(method);
+		if (dispatch == null) {
+			dispatch = createFixedDispatch(method);
+			this.fixedDispatches.put(method, dispatch);
+		}
+		return dispatch;
+	}
+
+	private FixedMethodDispatch createFixedDispatch(Method method) throws Exception {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (AopUtils.isEqualsMethod(method) || AopUtils.isHashCodeMethod(method) ||
+				(!this.advised.opaque && declaringClass.isInterface() && declaringClass.isAssignableFrom(Advised.class))) {
+			// Dispatched to the proxy itself or to its configuration
+			return new FixedMethodDispatch(method);
+		}
+		Object target = this.advised.getTargetSource().getTarget();
+		Class<?> targetClass = (target != null ? target.getClass() : null);
+		List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+		return new FixedMethodDispatch(method, target, targetClass, chain, true);
+	}
+
+	/**
+	 * Process a return value. Wraps a return of {@code this} if necessary to be the
+	 * {@code proxy} and also verifies that {@code null} is not returned as a primitive.
+	 */
+	@Nullable
+	private static Object processReturnType(
+			Object proxy, @Nullable Object target, Method method, @Nullable Object returnValue) {
+
+		// Massage return value if necessary
+		if (returnValue != null && returnValue == target &&
+				!RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass())) {
+			// Special case: it returned "this". Note that we can't help
+			// if the target sets a reference to itself in another returned object.
+			returnValue = proxy;
+		}
+		Class<?> returnType = method.getReturnType();
+		if (returnValue == null && returnType != Void.TYPE && returnType.isPrimitive()) {
+			throw new AopInvocationException(
+					"Null return value from advice does not match primitive return type for: " + method);
+		}
+		return returnValue;
+	}
+
+	/**
+	 * Implementation of {@code equals} on the proxy: equal to other ASM proxies
+	 * with equal interfaces, advisors and TargetSource.
+	 */
+	private boolean equalsInProxy(Object proxy, @Nullable Object other) {
+		if (proxy == other) {
+			return true;
+		}
+		InvocationHandler otherHandler = (other != null ? getInvocationHandler(other) : null);
+		return (otherHandler instanceof AsmAopProxy &&
+				AopProxyUtils.equalsInProxy(this.advised, ((AsmAopProxy) otherHandler).advised));
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || (other instanceof AsmAopProxy &&
+				AopProxyUtils.equalsInProxy(this.advised, ((AsmAopProxy) other).advised)));
+	}
+
+	@Override
+	public int hashCode() {
+		return AsmAopProxy.class.hashCode() * 13 + this.advised.getTargetSource().hashCode();
+	}
+
+
+	/**
+	 * Return the invocation handler of the given ASM proxy.
+	 * @param proxy the object to check
+	 * @return the handler, or {@code null} if the object is not an ASM proxy
+	 */
+	@Nullable
+	static InvocationHandler getInvocationHandler(Object proxy) {
+		Class<?> proxyClass = proxy.getClass();
+		if (!proxyClass.getName().contains(CLASS_NAME_INFIX)) {
+			return null;
+		}
+		Field handlerField = ReflectionUtils.findField(proxyClass, HANDLER_FIELD_NAME, InvocationHandler.class);
+		if (handlerField == null) {
+			return null;
+		}
+		ReflectionUtils.makeAccessible(handlerField);
+		return (InvocationHandler) ReflectionUtils.getField(handlerField, proxy);
+	}
+
+	private static ProxyClass getProxyClass(Class<?> superclass, Class<?>[] interfaces,
+			@Nullable ClassLoader classLoader) throws Exception {
+
+		// Classes cannot be defined in java.* packages: use this package instead
+		Class<?> contextClass = (superclass.getName().startsWith("java.") ? AsmAopProxy.class : superclass);
+		ClassLoader loader = (classLoader != null ? classLoader : contextClass.getClassLoader());
+		if (loader instanceof SmartClassLoader && ((SmartClassLoader) loader).isClassReloadable(superclass)) {
+			return new ProxyClass(generateProxyClass(superclass, interfaces, contextClass, loader));
+		}
+
+		ProxyClassKey key = new ProxyClassKey(superclass, interfaces);
+		synchronized (proxyClassCache) {
+			Map<ProxyClassKey, Reference<Class<?>>> proxyClasses =
+					proxyClassCache.computeIfAbsent(loader, cl -> new HashMap<>());
+			Reference<Class<?>> proxyClassRef = proxyClasses.get(key);
+			Class<?> proxyClass = (proxyClassRef != null ? proxyClassRef.get() : null);
+			// Same names may denote different classes, e.g. after a class has been reloaded
+			if (proxyClass == null || proxyClass.getSuperclass() != superclass ||
+					!Arrays.equals(proxyClass.getInterfaces(), interfaces)) {
+				proxyClass = generateProxyClass(superclass, interfaces, contextClass, loader);
+				proxyClasses.put(key, new WeakReference<>(proxyClass));
+			}
+			return new ProxyClass(proxyClass);
+		}
+	}
+
+	private static Class<?> generateProxyClass(Class<?> superclass, Class<?>[] interfaces,
+			Class<?> contextClass, ClassLoader loader) throws Exception {
+
+		String className = (contextClass == superclass ? superclass.getName() :
+				ClassUtils.getPackageName(contextClass) + "." + superclass.getName().replace('.', '_'));
+		className = className + CLASS_NAME_INFIX + proxyClassCounter.incrementAndGet();
+		boolean samePackage = (contextClass == superclass && loader == superclass.getClassLoader());
+
+		List<Method> methods = getProxiedMethods(superclass, interfaces, samePackage);
+		byte[] bytes = new ProxyClassGenerator(className, superclass, interfaces, methods, samePackage).generate();
+		Class<?> proxyClass = ReflectUtils.defineClass(className, bytes, loader, null, contextClass);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Generated ASM proxy class [" + className + "] with " + methods.size() + " methods");
+		}
+
+		Field methodsField = proxyClass.getDeclaredField(METHODS_FIELD_NAME);
+		ReflectionUtils.makeAccessible(methodsField);
+		methodsField.set(null, methods.toArray(new Method[0]));
+		return proxyClass;
+	}
+
+	/**
+	 * Determine the methods to override in the proxy class: all non-final
+	 * methods that the proxy class can override, except for the methods
+	 * inherited from {@code Object} other than {@code equals}, {@code hashCode}
+	 * and {@code toString}, plus all methods of the proxied interfaces.
+	 */
+	private static List<Method> getProxiedMethods(Class<?> superclass, Class<?>[] interfaces, boolean samePackage) {
+		List<Method> methods = new ArrayList<>();
+		Set<String> signatures = new HashSet<>();
+		String packageName = ClassUtils.getPackageName(superclass);
+		for (Class<?> clazz = superclass; clazz != null; clazz = clazz.getSuperclass()) {
+			for (Method method : clazz.getDeclaredMethods()) {
+				int modifiers = method.getModifiers();
+				// Skip bridge methods before claiming their signature: a visibility bridge
+				// in a public subclass has the same signature as the method it bridges to
+				if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers) ||
+						method.isBridge() || method.isSynthetic() ||
+						!signatures.add(method.getName() + Type.getMethodDescriptor(method))) {
+					continue;
+				}
+				if (Modifier.isFinal(modifiers)) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Final method [" + method + "] cannot get proxied via ASM: " +
+								"Calls to this method will NOT be routed to the target instance and " +
+								"might lead to NPEs against uninitialized fields in the proxy instance.");
+					}
+					continue;
+				}
+				boolean packageVisible = (!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers));
+				if (packageVisible && !(samePackage && packageName.equals(ClassUtils.getPackageName(clazz)) &&
+						clazz.getClassLoader() == superclass.getClassLoader())) {
+					continue;
+				}
+				if (clazz == Object.class && !AopUtils.isEqualsMethod(method) &&
+						!AopUtils.isHashCodeMethod(method) && !AopUtils.isToStringMethod(method)) {
+					continue;
+				}
+				methods.add(method);
+			}
+		}
+		for (Class<?> ifc : interfaces) {
+			for (Method method : ifc.getMethods()) {
+				if (!Modifier.isStatic(method.getModifiers()) &&
+						signatures.add(method.getName() + Type.getMethodDescriptor(method))) {
+					methods.add(method);
+				}
+			}
+		}
+		return methods;
+	}
+
+
+	/**
+	 * Key for a generated proxy class. Only holds class names, so that a cache
+	 * entry does not keep the class loader of the proxied class alive.
+	 */
+	private static final class ProxyClassKey {
+
+		private final String superclassName;
+
+		private final String[] interfaceNames;
+
+		ProxyClassKey(Class<?> superclass, Class<?>[] interfaces) {
+			this.superclassName = superclass.getName();
+			this.interfaceNames = new String[interfaces.length];
+			for (int i = 0; i < interfaces.length; i++) {
+				this.interfaceNames[i] = interfaces[i].getName();
+			}
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ProxyClassKey)) {
+				return false;
+			}
+			ProxyClassKey otherKey = (ProxyClassKey) other;
+			return (this.superclassName.equals(otherKey.superclassName) &&
+					Arrays.equals(this.interfaceNames, otherKey.interfaceNames));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.superclassName.hashCode() * 31 + Arrays.hashCode(this.interfaceNames);
+		}
+	}
+
+
+	/**
+	 * A generated proxy class, creating instances bound to a given handler.
+	 */
+	private static final class ProxyClass {
+
+		private final Class<?> proxyClass;
+
+		private final Field handlerField;
+
+		ProxyClass(Class<?> proxyClass) throws NoSuchFieldException {
+			this.proxyClass = proxyClass;
+			this.handlerField = proxyClass.getDeclaredField(HANDLER_FIELD_NAME);
+			ReflectionUtils.makeAccessible(this.handlerField);
+		}
+
+		Object newInstance(InvocationHandler handler) {
+			Object proxyInstance = null;
+
+			if (objenesis.isWorthTrying()) {
+				try {
+					proxyInstance = objenesis.newInstance(this.proxyClass, true);
+				} catch (Throwable ex) {
+					logger.debug("Unable to instantiate proxy using Objenesis, " +
+							"falling back to regular proxy construction", ex);
+				}
+			}
+
+			if (proxyInstance == null) {
+				// Regular instantiation via default constructor...
+				try {
+					Constructor<?> ctor = this.proxyClass.getDeclaredConstructor();
+					ReflectionUtils.makeAccessible(ctor);
+					proxyInstance = ctor.newInstance();
+				} catch (Throwable ex) {
+					throw new AopConfigException("Unable to instantiate proxy using Objenesis, " +
+							"and regular proxy instantiation via default constructor fails as well", ex);
+				}
+			}
+
+			ReflectionUtils.setField(this.handlerField, proxyInstance, handler);
+			return proxyInstance;
+		}
+	}
+
+
+	/**
+	 * Generates the bytecode of a proxy class. Each proxied method is overridden
+	 * to pass its {@link Method} and its boxed arguments to the handler, and to
+	 * unbox the result. As long as no handler is set, methods with an
+	 * implementation in the superclass call that implementation instead.
+	 */
+	private static final class ProxyClassGenerator implements Opcodes {
+
+		private final String internalName;
+
+		private final Class<?> superclass;
+
+		private final String superName;
+
+		private final Class<?>[] interfaces;
+
+		private final List<Method> methods;
+
+		private final boolean samePackage;
+
+		ProxyClassGenerator(String className, Class<?> superclass, Class<?>[] interfaces,
+				List<Method> methods, boolean samePackage) {
+
+			this.internalName = className.replace('.', '/');
+			this.superclass = superclass;
+			this.superName = Type.getInternalName(superclass);
+			this.interfaces = interfaces;
+			this.methods = methods;
+			this.samePackage = samePackage;
+		}
+
+		byte[] generate() {
+			ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+			String[] interfaceNames = new String[this.interfaces.length];
+			for (int i = 0; i < this.interfaces.length; i++) {
+				interfaceNames[i] = Type.getInternalName(this.interfaces[i]);
+			}
+			cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER | ACC_SYNTHETIC, this.internalName, null, this.superName, interfaceNames);
+			cw.visitField(ACC_PRIVATE, HANDLER_FIELD_NAME, HANDLER_DESCRIPTOR, null, null).visitEnd();
+			cw.visitField(ACC_PRIVATE | ACC_STATIC, METHODS_FIELD_NAME, METHODS_DESCRIPTOR, null, null).visitEnd();
+			generateDefaultConstructor(cw);
+			for (int i = 0; i < this.methods.size(); i++) {
+				generateMethod(cw, this.methods.get(i), i);
+			}
+			cw.visitEnd();
+			return cw.toByteArray();
+		}
+
+		private void generateDefaultConstructor(ClassWriter cw) {
+			Constructor<?> ctor;
+			try {
+				ctor = this.superclass.getDeclaredConstructor();
+			} catch (NoSuchMethodException ex) {
+				// Only instantiable through Objenesis
+				return;
+			}
+			int modifiers = ctor.getModifiers();
+			if (Modifier.isPrivate(modifiers) ||
+					(!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers) && !this.samePackage)) {
+				return;
+			}
+			MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+			mv.visitCode();
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitMethodInsn(INVOKESPECIAL, this.superName, "<init>", "()V", false);
+			mv.visitInsn(RETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+
+		private void generateMethod(ClassWriter cw, Method method, int index) {
+			int access = method.getModifiers() & (ACC_PUBLIC | ACC_PROTECTED);
+			if (method.isVarArgs()) {
+				access |= ACC_VARARGS;
+			}
+			String descriptor = Type.getMethodDescriptor(method);
+			Class<?>[] exceptionTypes = method.getExceptionTypes();
+			String[] exceptions = new String[exceptionTypes.length];
+			for (int i = 0; i < exceptionTypes.length; i++) {
+				exceptions[i] = Type.getInternalName(exceptionTypes[i]);
+			}
+			Type[] argumentTypes = Type.getArgumentTypes(method);
+			Type returnType = Type.getReturnType(method);
+
+			MethodVisitor mv = cw.visitMethod(access, method.getName(), descriptor, null, exceptions);
+			mv.visitCode();
+
+			if (!method.getDeclaringClass().isInterface() && !Modifier.isAbstract(method.getModifiers())) {
+				// No handler yet, e.g. during construction: call the superclass implementation
+				Label bound = new Label();
+				mv.visitVarInsn(ALOAD, 0);
+				mv.visitFieldInsn(GETFIELD, this.internalName, HANDLER_FIELD_NAME, HANDLER_DESCRIPTOR);
+				mv.visitJumpInsn(IFNONNULL, bound);
+				mv.visitVarInsn(ALOAD, 0);
+				int slot = 1;
+				for (Type argumentType : argumentTypes) {
+					mv.visitVarInsn(argumentType.getOpcode(ILOAD), slot);
+					slot += argumentType.getSize();
+				}
+				mv.visitMethodInsn(INVOKESPECIAL, this.superName, method.getName(), descriptor, false);
+				mv.visitInsn(returnType.getOpcode(IRETURN));
+				mv.visitLabel(bound);
+			}
+
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETFIELD, this.internalName, HANDLER_FIELD_NAME, HANDLER_DESCRIPTOR);
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETSTATIC, this.internalName, METHODS_FIELD_NAME, METHODS_DESCRIPTOR);
+			pushInt(mv, index);
+			mv.visitInsn(AALOAD);
+			if (argumentTypes.length == 0) {
+				mv.visitInsn(ACONST_NULL);
+			} else {
+				pushInt(mv, argumentTypes.length);
+				mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+				int slot = 1;
+				for (int i = 0; i < argumentTypes.length; i++) {
+					Type argumentType = argumentTypes[i];
+					mv.visitInsn(DUP);
+					pushInt(mv, i);
+					mv.visitVarInsn(argumentType.getOpcode(ILOAD), slot);
+					box(mv, argumentType);
+					mv.visitInsn(AASTORE);
+					slot += argumentType.getSize();
+				}
+			}
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/reflect/InvocationHandler", "invoke",
+					"(Ljava/lang/Object;Ljava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;", true);
+			unboxOrCast(mv, returnType);
+			mv.visitInsn(returnType.getOpcode(IRETURN));
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+
+		private static void pushInt(MethodVisitor mv, int value) {
+			if (value <= 5) {
+				mv.visitInsn(ICONST_0 + value);
+			} else if (value <= Byte.MAX_VALUE) {
+				mv.visitIntInsn(BIPUSH, value);
+			} else if (value <= Short.MAX_VALUE) {
+				mv.visitIntInsn(SIPUSH, value);
+			} else {
+				mv.visitLdcInsn(value);
+			}
+		}
+
+		private static void box(MethodVisitor mv, Type type) {
+			String wrapper = getWrapperInternalName(type);
+			if (wrapper != null) {
+				mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf",
+						"(" + type.getDescriptor() + ")L" + wrapper + ";", false);
+			}
+		}
+
+		private static void unboxOrCast(MethodVisitor mv, Type type) {
+			if (type.getSort() == Type.VOID) {
+				mv.visitInsn(POP);
+				return;
+			}
+			String wrapper = getWrapperInternalName(type);
+			if (wrapper != null) {
+				mv.visitTypeInsn(CHECKCAST, wrapper);
+				mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getClassName() + "Value",
+						"()" + type.getDescriptor(), false);
+			} else if (!"java/lang/Object".equals(type.getInternalName())) {
+				mv.visitTypeInsn(CHECKCAST, type.getInternalName());
+			}
+		}
+
+		@Nullable
+		private static String getWrapperInternalName(Type type) {
+			switch (type.getSort()) {
+				case Type.BOOLEAN: return "java/lang/Boolean";
+				case Type.CHAR: return "java/lang/Character";
+				case Type.BYTE: return "java/lang/Byte";
+				case Type.SHORT: return "java/lang/Short";
+				case Type.INT: return "java/lang/Integer";
+				case Type.FLOAT: return "java/lang/Float";
+				case Type.LONG: return "java/lang/Long";
+				case Type.DOUBLE: return "java/lang/Double";
+				default: return null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+/**
+ * {@link AopProxyFactory} implementation which creates class-based proxies
+ * by generating subclasses with ASM directly, rather than through CGLIB.
+ * Chooses between class-based proxies and JDK dynamic proxies in the same
+ * way as {@link DefaultAopProxyFactory}.
+ *
+ * <p>Generated proxy classes do not dispatch through CGLIB callbacks and
+ * do not require a FastClass per proxied class, and they are shared by all
+ * proxies of the same type, which reduces the number of generated classes
+ * when many beans are proxied.
+ *
+ * <p>To be set on a {@link ProxyCreatorSupport}, for example:
+ *
+ * <pre class="code">
+ * ProxyFactory proxyFactory = new ProxyFactory(target);
+ * proxyFactory.setProxyTargetClass(true);
+ * proxyFactory.setAopProxyFactory(new AsmAopProxyFactory());
+ * Object proxy = proxyFactory.getProxy();</pre>
+ *
+ * @since 5.1.1
+ * @see ProxyCreatorSupport#setAopProxyFactory
+ */
+@SuppressWarnings("serial")
+public class AsmAopProxyFactory extends DefaultAopProxyFactory {
+
+	@Override
+	protected AopProxy createClassBasedProxy(AdvisedSupport config) {
+		return new AsmAopProxy(config);
+	}
+
+}
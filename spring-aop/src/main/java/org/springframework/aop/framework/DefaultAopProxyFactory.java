@@ -63,13 +63,24 @@ public class DefaultAopProxyFactory implements AopProxyFactory, Serializable {
 				return new JdkDynamicAopProxy(config);
 			}
             // 使用 CGLIB 代理策略
-            return new ObjenesisCglibAopProxy(config);
+            return createClassBasedProxy(config);
 		} else {
             // 使用 JDK 代理策略
             return new JdkDynamicAopProxy(config);
 		}
 	}
 
+	/**
+	 * Create a proxy which is a subclass of the target class.
+	 * <p>The default implementation creates a CGLIB proxy.
+	 * @param config the AOP configuration
+	 * @return the AopProxy object
+	 * @since 5.1.1
+	 */
+	protected AopProxy createClassBasedProxy(AdvisedSupport config) {
+		return new ObjenesisCglibAopProxy(config);
+	}
+
 	/**
 	 * Determine whether the supplied {@link AdvisedSupport} has only the
 	 * {@link org.springframework.aop.SpringProxy} interface specified
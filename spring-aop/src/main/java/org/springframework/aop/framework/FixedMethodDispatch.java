@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.RawTargetAccess;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Interceptor chain and target of a proxied method, resolved once for a
+ * frozen configuration with a static target. Used by AOP proxies which
+ * do not need to look up the chain and obtain the target on each call.
+ *
+ * <p>The target itself is still invoked through reflection, as by
+ * {@link ReflectiveMethodInvocation}: a call saves the chain lookup in the
+ * {@link AdvisedSupport} method cache and the
+ * {@link org.springframework.aop.TargetSource#getTarget()} call.
+ *
+ * @since 5.1.1
+ * @see JdkDynamicAopProxy
+ * @see AsmAopProxy
+ */
+final class FixedMethodDispatch {
+
+	final Method method;
+
+	/** Whether the method is dispatched to the target at all. */
+	final boolean toTarget;
+
+	@Nullable
+	final Object target;
+
+	@Nullable
+	final Class<?> targetClass;
+
+	final List<Object> chain;
+
+	private final boolean mayReturnProxy;
+
+	private final boolean primitiveReturnType;
+
+
+	/**
+	 * Create a dispatch for a method which is not dispatched to the target,
+	 * but to the proxy itself or to its configuration.
+	 * @param method the proxied method
+	 */
+	FixedMethodDispatch(Method method) {
+		this.method = method;
+		this.toTarget = false;
+		this.target = null;
+		this.targetClass = null;
+		this.chain = Collections.emptyList();
+		this.mayReturnProxy = false;
+		this.primitiveReturnType = false;
+	}
+
+	/**
+	 * Create a dispatch for a method invoked on the given target.
+	 * @param method the proxied method
+	 * @param target the target of the proxy
+	 * @param targetClass the target class, for MethodMatcher invocations
+	 * @param chain the interceptors for the method
+	 * @param classProxy whether the proxy is a subclass of the target class,
+	 * in which case a target returned as {@code Object} is replaced by the proxy
+	 */
+	FixedMethodDispatch(Method method, @Nullable Object target, @Nullable Class<?> targetClass,
+			List<Object> chain, boolean classProxy) {
+
+		this.method = method;
+		this.toTarget = true;
+		this.target = target;
+		this.targetClass = targetClass;
+		this.chain = chain;
+		Class<?> returnType = method.getReturnType();
+		this.mayReturnProxy = ((classProxy || returnType != Object.class) && !returnType.isPrimitive() &&
+				!RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass()));
+		this.primitiveReturnType = (returnType != Void.TYPE && returnType.isPrimitive());
+	}
+
+	/**
+	 * Invoke the method on the given proxy, through the interceptor chain
+	 * if there is any advice, or directly on the target otherwise.
+	 * @param proxy the proxy instance
+	 * @param args the arguments of the invocation
+	 * @param exposeProxy whether to expose the proxy through {@link AopContext}
+	 * @return the return value of the invocation
+	 * @throws Throwable as thrown by the interceptors or by the target
+	 */
+	@Nullable
+	Object invoke(Object proxy, @Nullable Object[] args, boolean exposeProxy) throws Throwable {
+		Object oldProxy = null;
+		boolean setProxyContext = false;
+
+		try {
+			if (exposeProxy) {
+				// Make invocation available if necessary.
+				oldProxy = AopContext.setCurrentProxy(proxy);
+				setProxyContext = true;
+			}
+
+			Object retVal;
+			if (this.chain.isEmpty()) {
+				// No advice: invoke the target directly, without creating a MethodInvocation.
+				retVal = invokeTarget(AopProxyUtils.adaptArgumentsIfNecessary(this.method, args));
+			} else {
+				retVal = new ReflectiveMethodInvocation(
+						proxy, this.target, this.method, args, this.targetClass, this.chain).proceed();
+			}
+
+			// Massage return value if necessary.
+			if (retVal != null && retVal == this.target && this.mayReturnProxy &&
+					this.method.getReturnType().isInstance(proxy)) {
+				retVal = proxy;
+			} else if (retVal == null && this.primitiveReturnType) {
+				throw new AopInvocationException(
+						"Null return value from advice does not match primitive return type for: " + this.method);
+			}
+			return retVal;
+		} finally {
+			if (setProxyContext) {
+				// Restore old proxy.
+				AopContext.setCurrentProxy(oldProxy);
+			}
+		}
+	}
+
+	/**
+	 * Invoke the target with the given arguments. Exceptions thrown
+	 * by the target are propagated as-is.
+	 */
+	@Nullable
+	Object invokeTarget(Object[] args) throws Throwable {
+		return AopUtils.invokeJoinpointUsingReflection(this.target, this.method, args);
+	}
+
+}
@@ -33,6 +33,8 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JDK-based {@link AopProxy} implementation for the Spring AOP framework,
@@ -52,6 +54,10 @@ import java.util.List;
  * <p>Proxies are serializable so long as all Advisors (including Advices
  * and Pointcuts) and the TargetSource are serializable.
  *
+ * <p>If the configuration is frozen and the TargetSource is static when the
+ * proxy is created, the interceptor chain and the target of each method are
+ * resolved once, on first invocation of the method.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Rob Harrop
@@ -101,6 +107,13 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler /* 重要
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Dispatch information per proxied method, if the configuration is frozen
+	 * and the target is static: {@code null} otherwise, and after deserialization.
+	 */
+	@Nullable
+	private final transient Map<Method, FixedMethodDispatch> fixedDispatches;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -114,6 +127,9 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler /* 重要
 			throw new AopConfigException("No advisors and no TargetSource specified");
 		}
 		this.advised = config;
+		// Same optimization choice as for the fixed chains of CGLIB proxies
+		this.fixedDispatches = (config.isFrozen() && config.getTargetSource().isStatic() ?
+				new ConcurrentHashMap<>(32) : null);
 	}
 
 
@@ -168,6 +184,13 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler /* 重要
 	@Override
 	@Nullable
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (this.fixedDispatches != null) {
+			FixedMethodDispatch dispatch = getFixedDispatch(method);
+			if (dispatch.toTarget) {
+				return dispatch.invoke(proxy, args, this.advised.exposeProxy);
+			}
+		}
+
 		MethodInvocation invocation;
 		Object oldProxy = null;
 		boolean setProxyContext = false;
@@ -268,6 +291,35 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler /* 重要
 	}
 
 
+	/**
+	 * Return the dispatch information for the given method, resolving it on
+	 * first invocation of the method.
+	 */
+	private FixedMethodDispatch getFixedDispatch(Method method) throws Exception {
+		FixedMethodDispatch dispatch = this.fixedDispatches.get(method);
+		if (dispatch == null) {
+			dispatch = createFixedDispatch(method);
+			this.fixedDispatches.put(method, dispatch);
+		}
+		return dispatch;
+	}
+
+	private FixedMethodDispatch createFixedDispatch(Method method) throws Exception {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if ((!this.equalsDefined && AopUtils.isEqualsMethod(method)) ||
+				(!this.hashCodeDefined && AopUtils.isHashCodeMethod(method)) ||
+				declaringClass == DecoratingProxy.class ||
+				(!this.advised.opaque && declaringClass.isInterface() && declaringClass.isAssignableFrom(Advised.class))) {
+			// Dispatched to the proxy itself or to its configuration
+			return new FixedMethodDispatch(method);
+		}
+		Object target = this.advised.targetSource.getTarget();
+		Class<?> targetClass = (target != null ? target.getClass() : null);
+		List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+		return new FixedMethodDispatch(method, target, targetClass, chain, false);
+	}
+
+
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
 	 * <p>The compared object may be a JdkDynamicAopProxy instance itself
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.junit.Test;
+
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.StopWatch;
+
+/**
+ * Benchmarks for class-based proxies generated by {@link AsmAopProxy},
+ * compared to CGLIB proxies: proxy creation and invocation latency.
+ * Invocations are also timed on JDK proxies, which dispatch frozen
+ * configurations through {@link FixedMethodDispatch}.
+ *
+ * NOTE: No assertions!
+ *
+ * @since 5.1.1
+ */
+public class AsmAopProxyBenchmarkTests {
+
+	/** Increase this if you want meaningful results! */
+	private static final int PROXIES = 1000;
+
+	/** Increase this if you want meaningful results! */
+	private static final int INVOCATIONS = 100000;
+
+
+	@Test
+	public void timeProxyCreation() {
+		StopWatch sw = new StopWatch();
+
+		sw.start(PROXIES + " CGLIB proxies");
+		for (int i = 0; i < PROXIES; i++) {
+			createProxy(new DefaultAopProxyFactory(), true, false);
+		}
+		sw.stop();
+
+		sw.start(PROXIES + " ASM proxies");
+		for (int i = 0; i < PROXIES; i++) {
+			createProxy(new AsmAopProxyFactory(), true, false);
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+	}
+
+	@Test
+	public void timeManyInvocations() {
+		StopWatch sw = new StopWatch();
+		TestBean target = new TestBean("tb", 42);
+
+		timeInvocations(sw, "JDK proxy", createProxy(new DefaultAopProxyFactory(), false, false));
+		timeInvocations(sw, "frozen JDK proxy", createProxy(new DefaultAopProxyFactory(), false, true));
+		timeInvocations(sw, "CGLIB proxy", createProxy(new DefaultAopProxyFactory(), true, false));
+		timeInvocations(sw, "frozen CGLIB proxy", createProxy(new DefaultAopProxyFactory(), true, true));
+		timeInvocations(sw, "ASM proxy", createProxy(new AsmAopProxyFactory(), true, false));
+		timeInvocations(sw, "frozen ASM proxy", createProxy(new AsmAopProxyFactory(), true, true));
+
+		sw.start(INVOCATIONS + " invocations on target");
+		for (int i = 0; i < INVOCATIONS; i++) {
+			target.getName();
+			target.getAge();
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+	}
+
+	private void timeInvocations(StopWatch sw, String description, ITestBean proxy) {
+		sw.start(INVOCATIONS + " invocations on " + description + ", advised");
+		for (int i = 0; i < INVOCATIONS; i++) {
+			proxy.getName();
+		}
+		sw.stop();
+
+		sw.start(INVOCATIONS + " invocations on " + description + ", not advised");
+		for (int i = 0; i < INVOCATIONS; i++) {
+			proxy.getAge();
+		}
+		sw.stop();
+	}
+
+	private ITestBean createProxy(AopProxyFactory aopProxyFactory, boolean proxyTargetClass, boolean frozen) {
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(new NopInterceptor());
+		advisor.setMappedName("getName");
+		ProxyFactory pf = new ProxyFactory(new TestBean("tb", 42));
+		pf.setProxyTargetClass(proxyTargetClass);
+		pf.setAopProxyFactory(aopProxyFactory);
+		pf.addAdvisor(advisor);
+		pf.setFrozen(frozen);
+		return (ITestBean) pf.getProxy();
+	}
+
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.Test;
+
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DelegatingIntroductionInterceptor;
+import org.springframework.core.SmartClassLoader;
+import org.springframework.tests.TimeStamped;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AsmAopProxy}, created through {@link AsmAopProxyFactory}.
+ *
+ * @since 5.1.1
+ */
+public class AsmAopProxyTests {
+
+	@Test
+	public void testClassProxyWithAdvice() {
+		TestBean target = new TestBean("tb", 42);
+		NopInterceptor nop = new NopInterceptor();
+		ProxyFactory pf = createProxyFactory(target);
+		pf.addAdvice(nop);
+		TestBean proxy = (TestBean) pf.getProxy();
+
+		assertTrue(AopUtils.isAopProxy(proxy));
+		assertTrue(AopUtils.isCglibProxy(proxy));
+		assertTrue(proxy.getClass().getName().contains(AsmAopProxy.CLASS_NAME_INFIX));
+		assertSame(TestBean.class, AopUtils.getTargetClass(proxy));
+		assertEquals("tb", proxy.getName());
+		assertEquals(42, proxy.getAge());
+		proxy.setName("other");
+		assertEquals("other", target.getName());
+		assertEquals(3, nop.getCount());
+		assertEquals(1, ((Advised) proxy).getAdvisors().length);
+	}
+
+	@Test
+	public void testProxyClassIsSharedBetweenConfigurations() {
+		ProxyFactory pf1 = createProxyFactory(new TestBean());
+		pf1.addAdvice(new NopInterceptor());
+		ProxyFactory pf2 = createProxyFactory(new TestBean());
+		ProxyFactory pf3 = createProxyFactory(new TestBean());
+		pf3.addAdvice(new NopInterceptor());
+		pf3.setFrozen(true);
+		assertSame(pf1.getProxy().getClass(), pf2.getProxy().getClass());
+		assertSame(pf1.getProxy().getClass(), pf3.getProxy().getClass());
+	}
+
+	@Test
+	public void testProxyClassIsCachedPerClassLoader() throws Exception {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		ProxyFactory pf = createProxyFactory(new TestBean("tb"));
+		pf.addAdvice(new NopInterceptor());
+		TestBean proxy = (TestBean) pf.getProxy(classLoader);
+
+		assertEquals("tb", proxy.getName());
+		assertSame(proxy.getClass(), Class.forName(proxy.getClass().getName(), false, classLoader));
+		assertSame(proxy.getClass(), pf.getProxy(classLoader).getClass());
+		assertNotSame(proxy.getClass(), pf.getProxy().getClass());
+	}
+
+	@Test
+	public void testProxyClassIsNotCachedForReloadableClass() {
+		ClassLoader classLoader = new ReloadingClassLoader(getClass().getClassLoader());
+		ProxyFactory pf = createProxyFactory(new TestBean("tb"));
+		pf.addAdvice(new NopInterceptor());
+		TestBean proxy = (TestBean) pf.getProxy(classLoader);
+
+		assertEquals("tb", proxy.getName());
+		assertNotSame(proxy.getClass(), pf.getProxy(classLoader).getClass());
+	}
+
+	@Test
+	public void testMethodSignatures() throws Exception {
+		NopInterceptor nop = new NopInterceptor();
+		ProxyFactory pf = createProxyFactory(new SignatureBean());
+		pf.addAdvice(nop);
+		SignatureBean proxy = (SignatureBean) pf.getProxy();
+
+		assertEquals(7L, proxy.add(3, 4L));
+		assertEquals(1.5d, proxy.half(3.0f), 0d);
+		assertEquals('b', proxy.next('a'));
+		assertEquals("a,b", proxy.join(",", "a", "b"));
+		assertEquals("", proxy.join(","));
+		assertArrayEquals(new int[] {1, 2}, proxy.array(1, 2));
+		proxy.run();
+		assertEquals("protected", proxy.callProtected());
+		assertEquals("protected", proxy.protectedMethod());
+		assertEquals("final", proxy.finalMethod());
+		assertEquals(9, nop.getCount());
+		IOException ex = new IOException();
+		try {
+			proxy.fail(ex);
+			fail("Should have thrown IOException");
+		}
+		catch (IOException actual) {
+			assertSame(ex, actual);
+		}
+	}
+
+	@Test
+	public void testPublicMethodInheritedFromPackagePrivateClass() throws Exception {
+		NopInterceptor nop = new NopInterceptor();
+		ProxyFactory pf = createProxyFactory(new PublicSubBean());
+		pf.addAdvice(nop);
+		PublicSubBean proxy = (PublicSubBean) pf.getProxy();
+
+		// javac generates a visibility bridge for hello() in the public subclass
+		assertTrue(PublicSubBean.class.getDeclaredMethod("hello").isBridge());
+		assertEquals("hello", proxy.hello());
+		assertEquals(1, nop.getCount());
+	}
+
+	@Test
+	public void testUndeclaredCheckedExceptionIsWrapped() {
+		Exception ex = new Exception();
+		ProxyFactory pf = createProxyFactory(new SignatureBean());
+		pf.addAdvice((MethodInterceptor) invocation -> {
+			throw ex;
+		});
+		SignatureBean proxy = (SignatureBean) pf.getProxy();
+		try {
+			proxy.run();
+			fail("Should have thrown UndeclaredThrowableException");
+		}
+		catch (UndeclaredThrowableException actual) {
+			assertSame(ex, actual.getUndeclaredThrowable());
+		}
+	}
+
+	@Test
+	public void testReturnsThis() {
+		TestBean target = new TestBean();
+		ProxyFactory pf = createProxyFactory(target);
+		pf.addAdvice(new NopInterceptor());
+		TestBean proxy = (TestBean) pf.getProxy();
+		assertSame(proxy, proxy.returnsThis());
+	}
+
+	@Test
+	public void testExposeProxy() {
+		ProxyFactory pf = createProxyFactory(new TestBean("tb"));
+		pf.addAdvice((MethodInterceptor) invocation -> {
+			assertSame(((ProxyMethodInvocation) invocation).getProxy(), AopContext.currentProxy());
+			return invocation.proceed();
+		});
+		pf.setExposeProxy(true);
+		TestBean proxy = (TestBean) pf.getProxy();
+		assertEquals("tb", proxy.getName());
+	}
+
+	@Test
+	public void testIntroduction() {
+		ProxyFactory pf = createProxyFactory(new TestBean("tb"));
+		pf.addAdvice(new TimestampIntroductionInterceptor());
+		TestBean proxy = (TestBean) pf.getProxy();
+		assertEquals(42L, ((TimeStamped) proxy).getTimeStamp());
+		assertEquals("tb", proxy.getName());
+	}
+
+	@Test
+	public void testDynamicTargetSource() {
+		CountingTargetSource targetSource = new CountingTargetSource();
+		ProxyFactory pf = new ProxyFactory();
+		pf.setTargetSource(targetSource);
+		pf.setProxyTargetClass(true);
+		pf.setAopProxyFactory(new AsmAopProxyFactory());
+		pf.addAdvice(new NopInterceptor());
+		TestBean proxy = (TestBean) pf.getProxy();
+		assertEquals("1", proxy.getName());
+		assertEquals("2", proxy.getName());
+		assertEquals(2, targetSource.released);
+	}
+
+	@Test
+	public void testFrozenConfigurationWithStaticTarget() {
+		TestBean target = new TestBean("tb");
+		NopInterceptor nop = new NopInterceptor();
+		ProxyFactory pf = createProxyFactory(target);
+		pf.addAdvice(nop);
+		pf.addAdvice(new TimestampIntroductionInterceptor());
+		pf.setExposeProxy(true);
+		pf.setFrozen(true);
+		TestBean proxy = (TestBean) pf.getProxy();
+		assertEquals("tb", proxy.getName());
+		assertEquals("tb", proxy.getName());
+		assertEquals(42L, ((TimeStamped) proxy).getTimeStamp());
+		assertSame(proxy, proxy.returnsThis());
+		assertEquals(4, nop.getCount());
+		assertTrue(((Advised) proxy).isFrozen());
+	}
+
+	@Test
+	public void testEqualsAndHashCode() {
+		TestBean target = new TestBean();
+		ProxyFactory pf1 = createProxyFactory(target);
+		ProxyFactory pf2 = createProxyFactory(target);
+		Object proxy1 = pf1.getProxy();
+		Object proxy2 = pf2.getProxy();
+		assertEquals(proxy1, proxy1);
+		assertEquals(proxy1, proxy2);
+		assertEquals(proxy1.hashCode(), proxy2.hashCode());
+		assertNotEquals(proxy1, target);
+		assertNotEquals(proxy1, createProxyFactory(new TestBean("other")).getProxy());
+	}
+
+	@Test
+	public void testInterfaceProxyWithoutProxyTargetClass() {
+		ProxyFactory pf = new ProxyFactory(new TestBean("tb"));
+		pf.setAopProxyFactory(new AsmAopProxyFactory());
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		assertTrue(AopUtils.isJdkDynamicProxy(proxy));
+		assertEquals("tb", proxy.getName());
+	}
+
+	@Test(expected = AopConfigException.class)
+	public void testFinalClassCannotBeProxied() {
+		createProxyFactory(new FinalBean()).getProxy();
+	}
+
+
+	private static ProxyFactory createProxyFactory(Object target) {
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(true);
+		pf.setAopProxyFactory(new AsmAopProxyFactory());
+		return pf;
+	}
+
+
+	public static class SignatureBean {
+
+		public long add(int a, long b) {
+			return a + b;
+		}
+
+		public double half(float value) {
+			return value / 2;
+		}
+
+		public char next(char c) {
+			return (char) (c + 1);
+		}
+
+		public String join(String delimiter, String... elements) {
+			return String.join(delimiter, elements);
+		}
+
+		public int[] array(int... values) {
+			return values;
+		}
+
+		public void run() {
+		}
+
+		public void fail(Exception ex) throws IOException {
+			throw (IOException) ex;
+		}
+
+		public String callProtected() {
+			return protectedMethod();
+		}
+
+		protected String protectedMethod() {
+			return "protected";
+		}
+
+		public final String finalMethod() {
+			return "final";
+		}
+	}
+
+
+	static class PackagePrivateBaseBean {
+
+		public String hello() {
+			return "hello";
+		}
+	}
+
+
+	public static class PublicSubBean extends PackagePrivateBaseBean {
+	}
+
+
+	public static final class FinalBean {
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class TimestampIntroductionInterceptor extends DelegatingIntroductionInterceptor
+			implements TimeStamped {
+
+		@Override
+		public long getTimeStamp() {
+			return 42L;
+		}
+	}
+
+
+	private static class ReloadingClassLoader extends ClassLoader implements SmartClassLoader {
+
+		ReloadingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		public boolean isClassReloadable(Class<?> clazz) {
+			return true;
+		}
+	}
+
+
+	private static class CountingTargetSource implements TargetSource {
+
+		private int count;
+
+		private int released;
+
+		@Override
+		public Class<?> getTargetClass() {
+			return TestBean.class;
+		}
+
+		@Override
+		public boolean isStatic() {
+			return false;
+		}
+
+		@Override
+		public Object getTarget() {
+			return new TestBean(Integer.toString(++this.count));
+		}
+
+		@Override
+		public void releaseTarget(Object target) {
+			this.released++;
+		}
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.aop.framework;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import javax.accessibility.Accessible;
@@ -28,11 +29,13 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import org.springframework.aop.Advisor;
+import org.springframework.aop.ProxyMethodInvocation;
 import org.springframework.aop.interceptor.DebugInterceptor;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultIntroductionAdvisor;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.DelegatingIntroductionInterceptor;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.Order;
 import org.springframework.tests.TimeStamped;
@@ -380,6 +383,48 @@ public class ProxyFactoryTests {
 	}
 
 
+	@Test
+	public void testFrozenInterfaceProxyWithStaticTarget() throws Throwable {
+		TestBean target = new TestBean("tb");
+		NopInterceptor nop = new NopInterceptor();
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(nop);
+		advisor.setMappedName("getName");
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvisor(advisor);
+		pf.addAdvice((MethodInterceptor) invocation -> {
+			assertSame(((ProxyMethodInvocation) invocation).getProxy(), AopContext.currentProxy());
+			return invocation.proceed();
+		});
+		pf.setExposeProxy(true);
+		pf.setFrozen(true);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		assertTrue(AopUtils.isJdkDynamicProxy(proxy));
+
+		assertEquals("tb", proxy.getName());
+		assertEquals("tb", proxy.getName());
+		assertEquals(2, nop.getCount());
+		proxy.setName("other");
+		assertEquals("other", target.getName());
+		assertEquals(2, nop.getCount());
+		assertEquals(0, proxy.haveBirthday());
+		assertSame(target, proxy.returnsThis());
+		target.setSpouse(target);
+		assertSame(proxy, proxy.getSpouse());
+		IOException ex = new IOException();
+		try {
+			proxy.exceptional(ex);
+			fail("Should have thrown IOException");
+		}
+		catch (IOException actual) {
+			assertSame(ex, actual);
+		}
+
+		assertEquals(proxy, pf.getProxy());
+		assertEquals(proxy.hashCode(), pf.getProxy().hashCode());
+		assertTrue(((Advised) proxy).isFrozen());
+		assertSame(target, ((Advised) proxy).getTargetSource().getTarget());
+	}
+
 	@SuppressWarnings("serial")
 	private static class TimestampIntroductionInterceptor extends DelegatingIntroductionInterceptor
 			implements TimeStamped {
@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -137,6 +138,12 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 	private final Map<String, InjectionMetadata> injectionMetadataCache = new ConcurrentHashMap<>(256);
 
+	/**
+	 * Generation of cached injection arguments, incremented whenever a bean definition
+	 * gets registered or reset since pre-resolved target beans may not apply anymore.
+	 */
+	private final AtomicInteger cachedArgumentsGeneration = new AtomicInteger();
+
 
 	/**
 	 * Create a new AutowiredAnnotationBeanPostProcessor
@@ -237,6 +244,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 	public void resetBeanDefinition(String beanName) {
 		this.lookupMethodsChecked.remove(beanName);
 		this.injectionMetadataCache.remove(beanName);
+		this.cachedArgumentsGeneration.incrementAndGet();
 	}
 
 	@Override
@@ -550,7 +558,13 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 	 */
 	@Nullable
 	private Object resolvedCachedArgument(@Nullable String beanName, @Nullable Object cachedArgument) {
-		if (cachedArgument instanceof DependencyDescriptor) {
+		if (cachedArgument instanceof ShortcutDependencyDescriptor &&
+				((ShortcutDependencyDescriptor) cachedArgument).isSingletonShortcut()) {
+			// Pre-resolved singleton target: no need to go through full dependency resolution
+			Assert.state(this.beanFactory != null, "No BeanFactory available");
+			return ((ShortcutDependencyDescriptor) cachedArgument).resolveShortcut(this.beanFactory);
+		}
+		else if (cachedArgument instanceof DependencyDescriptor) {
 			DependencyDescriptor descriptor = (DependencyDescriptor) cachedArgument;
 			Assert.state(this.beanFactory != null, "No BeanFactory available");
 			return this.beanFactory.resolveDependency(descriptor, beanName, null, null);
@@ -570,6 +584,8 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 		private volatile boolean cached = false;
 
+		private volatile int cachedGeneration;
+
 		@Nullable
 		private volatile Object cachedFieldValue;
 
@@ -581,11 +597,22 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		@Override
 		protected void inject(Object bean, @Nullable String beanName, @Nullable PropertyValues pvs) throws Throwable {
 			Field field = (Field) this.member;
-			Object value;
-			if (this.cached) {
-				value = resolvedCachedArgument(beanName, this.cachedFieldValue);
+			Object value = null;
+			boolean resolved = false;
+			if (this.cached && this.cachedGeneration == cachedArgumentsGeneration.get()) {
+				try {
+					value = resolvedCachedArgument(beanName, this.cachedFieldValue);
+					resolved = true;
+				}
+				catch (NoSuchBeanDefinitionException ex) {
+					// Unexpected removal of target bean for cached argument -> re-resolve
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to resolve cached argument for field '" + field.getName() + "'", ex);
+					}
+				}
 			}
-			else {
+			if (!resolved) {
+				int generation = cachedArgumentsGeneration.get();
 				DependencyDescriptor desc = new DependencyDescriptor(field, this.required);
 				desc.setContainingClass(bean.getClass());
 				Set<String> autowiredBeanNames = new LinkedHashSet<>(1);
@@ -598,7 +625,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 					throw new UnsatisfiedDependencyException(null, beanName, new InjectionPoint(field), ex);
 				}
 				synchronized (this) {
-					if (!this.cached) {
+					if (!this.cached || this.cachedGeneration != generation) {
 						if (value != null || this.required) {
 							this.cachedFieldValue = desc;
 							registerDependentBeans(beanName, autowiredBeanNames);
@@ -606,14 +633,15 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 								String autowiredBeanName = autowiredBeanNames.iterator().next();
 								if (beanFactory.containsBean(autowiredBeanName) &&
 										beanFactory.isTypeMatch(autowiredBeanName, field.getType())) {
-									this.cachedFieldValue = new ShortcutDependencyDescriptor(
-											desc, autowiredBeanName, field.getType());
+									this.cachedFieldValue = new ShortcutDependencyDescriptor(desc, autowiredBeanName,
+											field.getType(), beanFactory.isSingleton(autowiredBeanName));
 								}
 							}
 						}
 						else {
 							this.cachedFieldValue = null;
 						}
+						this.cachedGeneration = generation;
 						this.cached = true;
 					}
 				}
@@ -635,6 +663,8 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 		private volatile boolean cached = false;
 
+		private volatile int cachedGeneration;
+
 		@Nullable
 		private volatile Object[] cachedMethodArguments;
 
@@ -649,12 +679,23 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 				return;
 			}
 			Method method = (Method) this.member;
-			Object[] arguments;
-			if (this.cached) {
+			Object[] arguments = null;
+			boolean resolved = false;
+			if (this.cached && this.cachedGeneration == cachedArgumentsGeneration.get()) {
 				// Shortcut for avoiding synchronization...
-				arguments = resolveCachedArguments(beanName);
+				try {
+					arguments = resolveCachedArguments(beanName);
+					resolved = true;
+				}
+				catch (NoSuchBeanDefinitionException ex) {
+					// Unexpected removal of target bean for cached argument -> re-resolve
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to resolve cached arguments for method '" + method.getName() + "'", ex);
+					}
+				}
 			}
-			else {
+			if (!resolved) {
+				int generation = cachedArgumentsGeneration.get();
 				Class<?>[] paramTypes = method.getParameterTypes();
 				arguments = new Object[paramTypes.length];
 				DependencyDescriptor[] descriptors = new DependencyDescriptor[paramTypes.length];
@@ -679,7 +720,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 					}
 				}
 				synchronized (this) {
-					if (!this.cached) {
+					if (!this.cached || this.cachedGeneration != generation) {
 						if (arguments != null) {
 							Object[] cachedMethodArguments = new Object[paramTypes.length];
 							System.arraycopy(descriptors, 0, cachedMethodArguments, 0, arguments.length);
@@ -690,8 +731,8 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 									String autowiredBeanName = it.next();
 									if (beanFactory.containsBean(autowiredBeanName) &&
 											beanFactory.isTypeMatch(autowiredBeanName, paramTypes[i])) {
-										cachedMethodArguments[i] = new ShortcutDependencyDescriptor(
-												descriptors[i], autowiredBeanName, paramTypes[i]);
+										cachedMethodArguments[i] = new ShortcutDependencyDescriptor(descriptors[i],
+												autowiredBeanName, paramTypes[i], beanFactory.isSingleton(autowiredBeanName));
 									}
 								}
 							}
@@ -700,6 +741,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 						else {
 							this.cachedMethodArguments = null;
 						}
+						this.cachedGeneration = generation;
 						this.cached = true;
 					}
 				}
@@ -732,6 +774,8 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 	/**
 	 * DependencyDescriptor variant with a pre-resolved target bean name.
+	 * <p>For singleton targets, the shortcut may be resolved directly against
+	 * the BeanFactory, bypassing the regular dependency resolution algorithm.
 	 */
 	@SuppressWarnings("serial")
 	private static class ShortcutDependencyDescriptor extends DependencyDescriptor {
@@ -740,10 +784,19 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 		private final Class<?> requiredType;
 
-		public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut, Class<?> requiredType) {
+		private final boolean singletonShortcut;
+
+		public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut,
+				Class<?> requiredType, boolean singletonShortcut) {
+
 			super(original);
 			this.shortcut = shortcut;
 			this.requiredType = requiredType;
+			this.singletonShortcut = singletonShortcut;
+		}
+
+		public boolean isSingletonShortcut() {
+			return this.singletonShortcut;
 		}
 
 		@Override
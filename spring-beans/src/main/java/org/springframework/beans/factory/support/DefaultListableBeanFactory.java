@@ -122,6 +122,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type. */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/** Map of singleton and non-singleton bean names, keyed by generically typed dependency type. */
+	private final Map<ResolvableType, String[]> allBeanNamesByGenericType = new ConcurrentHashMap<>(64);
+
 	/** List of bean definition names, in registration order. */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
@@ -414,11 +417,69 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		if (resolved != null && !type.hasGenerics()) {
 			return getBeanNamesForType(resolved, true, true);
 		}
+		else if (resolved != null && isConfigurationFrozen()) {
+			return getBeanNamesForGenericType(type, resolved);
+		}
 		else {
 			return doGetBeanNamesForType(type, true, true);
 		}
 	}
 
+	/**
+	 * Determine the names of beans matching the given generically typed
+	 * {@code ResolvableType}, checking the generic signature against the
+	 * candidates for the raw type only (which are cached in case of frozen
+	 * configuration) rather than against all bean definitions.
+	 * @param type the generically typed class or interface to match
+	 * @param rawType the raw class that the given type resolves to
+	 * @return the names of beans (or objects created by FactoryBeans) matching
+	 * the given object type
+	 * @see #getBeanNamesForType(Class, boolean, boolean)
+	 */
+	private String[] getBeanNamesForGenericType(ResolvableType type, Class<?> rawType) {
+		String[] resolvedBeanNames = this.allBeanNamesByGenericType.get(type);
+		if (resolvedBeanNames != null) {
+			return resolvedBeanNames;
+		}
+		String[] candidateNames = getBeanNamesForType(rawType, true, true);
+		List<String> result = new ArrayList<>(candidateNames.length);
+		for (String candidateName : candidateNames) {
+			if (isTypeMatch(candidateName, type)) {
+				result.add(candidateName);
+			}
+			else if (!BeanFactoryUtils.isFactoryDereference(candidateName) && isFactoryBean(candidateName)) {
+				// The raw type matched the object created by the FactoryBean:
+				// try to match the FactoryBean instance itself against the generic type.
+				String factoryBeanName = FACTORY_BEAN_PREFIX + candidateName;
+				if (isTypeMatch(factoryBeanName, type)) {
+					result.add(factoryBeanName);
+				}
+			}
+		}
+		resolvedBeanNames = StringUtils.toStringArray(result);
+		if (isCacheSafe(type)) {
+			this.allBeanNamesByGenericType.put(type, resolvedBeanNames);
+		}
+		return resolvedBeanNames;
+	}
+
+	/**
+	 * Check whether the given generic type and all of its generics are cache-safe
+	 * in the context of this bean factory's class loader.
+	 */
+	private boolean isCacheSafe(ResolvableType type) {
+		Class<?> resolved = type.resolve();
+		if (resolved != null && !ClassUtils.isCacheSafe(resolved, getBeanClassLoader())) {
+			return false;
+		}
+		for (ResolvableType generic : type.getGenerics()) {
+			if (!isCacheSafe(generic)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public String[] getBeanNamesForType(@Nullable Class<?> type) {
 		return getBeanNamesForType(type, true, true);
@@ -928,6 +989,20 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         // 重新设置 beanName 对应的缓存
 		if (existingDefinition != null || containsSingleton(beanName)) {
 			resetBeanDefinition(beanName);
+		} else {
+			// 新的 BeanDefinition 可能匹配已缓存的类型查找结果
+			if (isConfigurationFrozen()) {
+				clearByTypeCache();
+			}
+			// 新的 BeanDefinition 可能成为已缓存依赖的候选者，通知 post-processors
+			// A new autowire candidate might invalidate dependencies pre-resolved by post-processors.
+			if (hasBeanCreationStarted()) {
+				for (BeanPostProcessor processor : getBeanPostProcessors()) {
+					if (processor instanceof MergedBeanDefinitionPostProcessor) {
+						((MergedBeanDefinitionPostProcessor) processor).resetBeanDefinition(beanName);
+					}
+				}
+			}
 		}
 	}
 
@@ -1010,6 +1085,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		super.registerSingleton(beanName, singletonObject);
 
+		boolean manualSingleton = false;
 		if (hasBeanCreationStarted()) {
 			// Cannot modify startup-time collection elements anymore (for stable iteration)
 			synchronized (this.beanDefinitionMap) {
@@ -1018,6 +1094,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 					updatedSingletons.addAll(this.manualSingletonNames);
 					updatedSingletons.add(beanName);
 					this.manualSingletonNames = updatedSingletons;
+					manualSingleton = true;
 				}
 			}
 		}
@@ -1025,17 +1102,32 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			// Still in startup registration phase
 			if (!this.beanDefinitionMap.containsKey(beanName)) {
 				this.manualSingletonNames.add(beanName);
+				manualSingleton = true;
 			}
 		}
 
-		clearByTypeCache();
+		if (manualSingleton && !(singletonObject instanceof FactoryBean) && !(singletonObject instanceof NullBean)) {
+			// A plain manual singleton only affects by-type results for types it is an instance of.
+			addToByTypeCache(beanName, singletonObject);
+		}
+		else {
+			clearByTypeCache();
+		}
 	}
 
 	@Override
 	public void destroySingleton(String beanName) {
+		boolean manualSingleton = (this.manualSingletonNames.contains(beanName) &&
+				!containsBeanDefinition(beanName) && !hasDependentBean(beanName));
 		super.destroySingleton(beanName);
 		this.manualSingletonNames.remove(beanName);
-		clearByTypeCache();
+		if (manualSingleton) {
+			// No other bean's type match depends on a standalone manual singleton.
+			removeFromByTypeCache(beanName);
+		}
+		else {
+			clearByTypeCache();
+		}
 	}
 
 	@Override
@@ -1051,6 +1143,60 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private void clearByTypeCache() {
 		this.allBeanNamesByType.clear();
 		this.singletonBeanNamesByType.clear();
+		this.allBeanNamesByGenericType.clear();
+	}
+
+	/**
+	 * Append the given manually registered singleton to all cached by-type
+	 * mappings that it matches, keeping the remaining mappings intact.
+	 * <p>Manual singletons come last in by-type results, so appending
+	 * preserves the order of a full lookup.
+	 * @param beanName the name of the manual singleton
+	 * @param singletonObject the singleton instance (not a FactoryBean)
+	 */
+	private void addToByTypeCache(String beanName, Object singletonObject) {
+		this.allBeanNamesByType.replaceAll((type, beanNames) ->
+				(ResolvableType.forRawClass(type).isInstance(singletonObject) ?
+						addBeanName(beanNames, beanName) : beanNames));
+		this.singletonBeanNamesByType.replaceAll((type, beanNames) ->
+				(ResolvableType.forRawClass(type).isInstance(singletonObject) ?
+						addBeanName(beanNames, beanName) : beanNames));
+		this.allBeanNamesByGenericType.replaceAll((type, beanNames) ->
+				(type.isInstance(singletonObject) ? addBeanName(beanNames, beanName) : beanNames));
+	}
+
+	/**
+	 * Remove the given manually registered singleton (and its FactoryBean
+	 * reference, if any) from all cached by-type mappings.
+	 * @param beanName the name of the manual singleton
+	 */
+	private void removeFromByTypeCache(String beanName) {
+		this.allBeanNamesByType.replaceAll((type, beanNames) -> removeBeanName(beanNames, beanName));
+		this.singletonBeanNamesByType.replaceAll((type, beanNames) -> removeBeanName(beanNames, beanName));
+		this.allBeanNamesByGenericType.replaceAll((type, beanNames) -> removeBeanName(beanNames, beanName));
+	}
+
+	private static String[] addBeanName(String[] beanNames, String beanName) {
+		String[] result = Arrays.copyOf(beanNames, beanNames.length + 1);
+		result[beanNames.length] = beanName;
+		return result;
+	}
+
+	private static String[] removeBeanName(String[] beanNames, String beanName) {
+		String factoryBeanName = FACTORY_BEAN_PREFIX + beanName;
+		List<String> result = null;
+		for (int i = 0; i < beanNames.length; i++) {
+			String candidate = beanNames[i];
+			if (candidate.equals(beanName) || candidate.equals(factoryBeanName)) {
+				if (result == null) {
+					result = new ArrayList<>(Arrays.asList(beanNames).subList(0, i));
+				}
+			}
+			else if (result != null) {
+				result.add(candidate);
+			}
+		}
+		return (result != null ? StringUtils.toStringArray(result) : beanNames);
 	}
 
 
@@ -90,7 +90,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
      *
      * 对应关系是 bean name --> ObjectFactory
      */
-	private final Map<String, Object> earlySingletonObjects = new HashMap<>(16);
+	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
 
 	/**
      * Set of registered singletons, containing the bean names in registration order.
@@ -207,21 +207,28 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	    Object singletonObject = this.singletonObjects.get(beanName);
         // 缓存中的 bean 为空，且当前 bean 正在创建
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-            // 加锁
-            synchronized (this.singletonObjects) {
-                // 从 earlySingletonObjects 获取
-                singletonObject = this.earlySingletonObjects.get(beanName);
-                // earlySingletonObjects 中没有，且允许提前创建
-                if (singletonObject == null && allowEarlyReference) {
-                    // 从 singletonFactories 中获取对应的 ObjectFactory
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-					    // 获得 bean
-						singletonObject = singletonFactory.getObject();
-						// 添加 bean 到 earlySingletonObjects 中
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						// 从 singletonFactories 中移除对应的 ObjectFactory
-						this.singletonFactories.remove(beanName);
+            // 无锁读取 earlySingletonObjects（ConcurrentHashMap），已暴露的早期引用无需竞争单例锁
+			singletonObject = this.earlySingletonObjects.get(beanName);
+            // earlySingletonObjects 中没有，且允许提前创建
+			if (singletonObject == null && allowEarlyReference) {
+                // 加锁：保证 ObjectFactory 只被调用一次
+				synchronized (this.singletonObjects) {
+					// Consistent creation of early reference within full singleton lock
+					singletonObject = this.singletonObjects.get(beanName);
+					if (singletonObject == null) {
+						singletonObject = this.earlySingletonObjects.get(beanName);
+						if (singletonObject == null) {
+                            // 从 singletonFactories 中获取对应的 ObjectFactory
+							ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+							if (singletonFactory != null) {
+                                // 获得 bean
+								singletonObject = singletonFactory.getObject();
+                                // 添加 bean 到 earlySingletonObjects 中
+								this.earlySingletonObjects.put(beanName, singletonObject);
+                                // 从 singletonFactories 中移除对应的 ObjectFactory
+								this.singletonFactories.remove(beanName);
+							}
+						}
 					}
 				}
 			}
@@ -239,6 +246,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		// Lock-free fast path for singletons that have been fully created in the meantime
+		Object existingObject = this.singletonObjects.get(beanName);
+		if (existingObject != null) {
+			return existingObject;
+		}
         // 全局加锁
         synchronized (this.singletonObjects) {
             // 从缓存中检查一遍
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Instantiation strategy which invokes frequently used bean constructors through
+ * generated bytecode instead of reflection, e.g. for prototype beans or request
+ * scoped beans that get instantiated over and over again.
+ *
+ * <p>Once a constructor has been invoked more often than the configured
+ * {@link #setGenerationThreshold generation threshold}, a small instantiator
+ * class gets generated for it which calls the constructor directly. Until then,
+ * and for any constructor that cannot be invoked from generated code (non-public
+ * classes and constructors, non-public parameter types, Kotlin types, classes
+ * from the bootstrap class loader), instantiation falls back to the regular
+ * reflective {@link BeanUtils#instantiateClass} path.
+ *
+ * <p>Invocation statistics and generated instantiators are kept on the merged
+ * bean definition. Instantiator classes are named after their constructor, so
+ * a re-merged bean definition, or another bean definition for the same
+ * constructor, reuses an instantiator class that has already been defined.
+ *
+ * <p>Method Injection is supported through the CGLIB-based
+ * {@link CglibSubclassingInstantiationStrategy} superclass.
+ *
+ * @since 5.1.1
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ */
+public class GeneratedInstantiationStrategy extends CglibSubclassingInstantiationStrategy implements Opcodes {
+
+	/**
+	 * Default number of invocations of a constructor before an instantiator
+	 * gets generated for it.
+	 */
+	public static final int DEFAULT_GENERATION_THRESHOLD = 16;
+
+	private static final String FUNCTION_TYPE = Type.getInternalName(Function.class);
+
+	private static final String APPLY_DESCRIPTOR = "(Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final String CLASS_NAME_INFIX = "$$SpringInstantiator$$";
+
+	private static final String DESCRIPTOR_FIELD_NAME = "CONSTRUCTOR_DESCRIPTOR";
+
+	private static final Log logger = LogFactory.getLog(GeneratedInstantiationStrategy.class);
+
+
+	// A child class loader per bean class loader, used to define the generated instantiators
+	private final Map<ClassLoader, ChildClassLoader> classLoaders = new ConcurrentReferenceHashMap<>(16);
+
+	private int generationThreshold = DEFAULT_GENERATION_THRESHOLD;
+
+
+	/**
+	 * Set the number of reflective invocations of a constructor after which an
+	 * instantiator gets generated for it. Default is 16.
+	 * <p>Specify 0 in order to generate instantiators on first use.
+	 */
+	public void setGenerationThreshold(int generationThreshold) {
+		Assert.isTrue(generationThreshold >= 0, "Generation threshold must not be negative");
+		this.generationThreshold = generationThreshold;
+	}
+
+	/**
+	 * Return the number of reflective invocations of a constructor after which
+	 * an instantiator gets generated for it.
+	 */
+	public int getGenerationThreshold() {
+		return this.generationThreshold;
+	}
+
+
+	@Override
+	protected Object instantiateClass(RootBeanDefinition bd, Constructor<?> ctor, Object... args)
+			throws BeanInstantiationException {
+
+		ConstructorInstantiator instantiator = getInstantiator(bd, ctor);
+		Function<Object[], Object> function = instantiator.getFunction(this.generationThreshold);
+		if (function == null || !instantiator.isApplicable(args)) {
+			return BeanUtils.instantiateClass(ctor, args);
+		}
+		try {
+			return function.apply(args);
+		}
+		catch (Throwable ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex);
+		}
+	}
+
+	/**
+	 * Obtain the instantiator for the given constructor from the bean definition,
+	 * creating a new one if the bean definition does not hold one for it yet.
+	 */
+	private ConstructorInstantiator getInstantiator(RootBeanDefinition bd, Constructor<?> ctor) {
+		Object cached = bd.resolvedInstantiator;
+		if (cached instanceof ConstructorInstantiator &&
+				((ConstructorInstantiator) cached).getOwner() == this &&
+				((ConstructorInstantiator) cached).constructor == ctor) {
+			return (ConstructorInstantiator) cached;
+		}
+		ConstructorInstantiator instantiator = new ConstructorInstantiator(ctor);
+		bd.resolvedInstantiator = instantiator;
+		return instantiator;
+	}
+
+	/**
+	 * Determine whether the given constructor can be invoked from a generated
+	 * instantiator, i.e. whether it is visible from a child class loader of
+	 * its declaring class's class loader.
+	 * @param ctor the constructor to check
+	 * @return {@code true} if an instantiator may be generated for it
+	 */
+	protected boolean isGenerationCandidate(Constructor<?> ctor) {
+		Class<?> clazz = ctor.getDeclaringClass();
+		if (clazz.getClassLoader() == null || Modifier.isAbstract(clazz.getModifiers()) ||
+				!Modifier.isPublic(ctor.getModifiers()) || !isPublic(clazz)) {
+			return false;
+		}
+		if (KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(clazz)) {
+			// Kotlin constructors need to go through BeanUtils for optional parameter handling
+			return false;
+		}
+		for (Class<?> paramType : ctor.getParameterTypes()) {
+			if (!paramType.isPrimitive() && !isPublic(paramType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isPublic(Class<?> clazz) {
+		while (clazz.isArray()) {
+			clazz = clazz.getComponentType();
+		}
+		for (Class<?> current = clazz; current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private Function<Object[], Object> generateInstantiator(Constructor<?> ctor) {
+		Class<?> clazz = ctor.getDeclaringClass();
+		String descriptor = Type.getConstructorDescriptor(ctor);
+		String className = clazz.getName() + CLASS_NAME_INFIX + Integer.toHexString(descriptor.hashCode());
+		try {
+			ClassLoader beanClassLoader = clazz.getClassLoader();
+			ChildClassLoader ccl = this.classLoaders.computeIfAbsent(beanClassLoader, ChildClassLoader::new);
+			Class<?> instantiatorClass = ccl.defineClassIfNecessary(className, ctor);
+			if (!descriptor.equals(instantiatorClass.getField(DESCRIPTOR_FIELD_NAME).get(null))) {
+				// Another constructor of the same class with the same descriptor hash
+				return null;
+			}
+			Function<Object[], Object> function =
+					(Function<Object[], Object>) instantiatorClass.getDeclaredConstructor().newInstance();
+			if (logger.isTraceEnabled()) {
+				logger.trace("Generated instantiator for constructor " + ctor);
+			}
+			return function;
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate instantiator for constructor " + ctor +
+						" - falling back to reflection", ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Generate a {@code Function<Object[], Object>} implementation which
+	 * unpacks the argument array and invokes the given constructor directly.
+	 */
+	private static byte[] generateInstantiatorClass(String className, Constructor<?> ctor) {
+		String owner = Type.getInternalName(ctor.getDeclaringClass());
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, "java/lang/Object",
+				new String[] {FUNCTION_TYPE});
+
+		// Descriptor of the invoked constructor, for identifying an existing instantiator class
+		cw.visitField(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, DESCRIPTOR_FIELD_NAME, "Ljava/lang/String;",
+				null, Type.getConstructorDescriptor(ctor)).visitEnd();
+
+		// Default constructor
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);  // not supplied due to COMPUTE_MAXS
+		mv.visitEnd();
+
+		// apply(Object) -> new Bean((T1) args[0], (T2) args[1], ...)
+		mv = cw.visitMethod(ACC_PUBLIC, "apply", APPLY_DESCRIPTOR, null, null);
+		mv.visitCode();
+		mv.visitTypeInsn(NEW, owner);
+		mv.visitInsn(DUP);
+		Class<?>[] paramTypes = ctor.getParameterTypes();
+		if (paramTypes.length > 0) {
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, "[Ljava/lang/Object;");
+			mv.visitVarInsn(ASTORE, 2);
+		}
+		for (int i = 0; i < paramTypes.length; i++) {
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(AALOAD);
+			loadArgument(mv, paramTypes[i]);
+		}
+		mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", Type.getConstructorDescriptor(ctor), false);
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);  // not supplied due to COMPUTE_MAXS
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	/**
+	 * Cast or unbox the {@code Object} on top of the stack to the given parameter type.
+	 */
+	private static void loadArgument(MethodVisitor mv, Class<?> paramType) {
+		if (!paramType.isPrimitive()) {
+			if (paramType != Object.class) {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(paramType));
+			}
+			return;
+		}
+		Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(paramType);
+		String wrapper = Type.getInternalName(wrapperType);
+		mv.visitTypeInsn(CHECKCAST, wrapper);
+		mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, paramType.getName() + "Value",
+				"()" + Type.getDescriptor(paramType), false);
+	}
+
+
+	/**
+	 * Invocation statistics and generated instantiator for a specific constructor.
+	 */
+	private class ConstructorInstantiator {
+
+		private final Constructor<?> constructor;
+
+		private final Class<?>[] parameterTypes;
+
+		private final AtomicInteger invocationCount = new AtomicInteger();
+
+		private volatile boolean candidate;
+
+		@Nullable
+		private volatile Function<Object[], Object> function;
+
+		public ConstructorInstantiator(Constructor<?> constructor) {
+			this.constructor = constructor;
+			this.parameterTypes = constructor.getParameterTypes();
+			this.candidate = isGenerationCandidate(constructor);
+		}
+
+		public GeneratedInstantiationStrategy getOwner() {
+			return GeneratedInstantiationStrategy.this;
+		}
+
+		@Nullable
+		public Function<Object[], Object> getFunction(int threshold) {
+			Function<Object[], Object> function = this.function;
+			if (function != null || !this.candidate) {
+				return function;
+			}
+			if (this.invocationCount.incrementAndGet() <= threshold) {
+				return null;
+			}
+			synchronized (this) {
+				function = this.function;
+				if (function == null && this.candidate) {
+					function = generateInstantiator(this.constructor);
+					if (function != null) {
+						this.function = function;
+					}
+					else {
+						this.candidate = false;
+					}
+				}
+			}
+			return function;
+		}
+
+		/**
+		 * Check whether the given arguments can be passed to the generated
+		 * instantiator as-is. Arguments that need widening or would fail to
+		 * unbox are left to reflection for consistent exception messages.
+		 */
+		public boolean isApplicable(Object[] args) {
+			if (args.length != this.parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < args.length; i++) {
+				Class<?> paramType = this.parameterTypes[i];
+				Object arg = args[i];
+				if (arg == null ? paramType.isPrimitive() :
+						!ClassUtils.resolvePrimitiveIfNecessary(paramType).isInstance(arg)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * A ChildClassLoader will load the generated instantiator classes.
+	 */
+	private static class ChildClassLoader extends URLClassLoader {
+
+		private static final URL[] NO_URLS = new URL[0];
+
+		public ChildClassLoader(@Nullable ClassLoader classLoader) {
+			super(NO_URLS, classLoader);
+		}
+
+		public synchronized Class<?> defineClassIfNecessary(String name, Constructor<?> ctor) {
+			Class<?> clazz = findLoadedClass(name);
+			if (clazz == null) {
+				byte[] bytes = generateInstantiatorClass(name.replace('.', '/'), ctor);
+				clazz = defineClass(name, bytes, 0, bytes.length);
+			}
+			return clazz;
+		}
+	}
+
+}
@@ -71,6 +71,10 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 	@Nullable
 	volatile ResolvableType factoryMethodReturnType;
 
+	/** Package-visible field for caching a generated instantiator for the resolved constructor. */
+	@Nullable
+	volatile Object resolvedInstantiator;
+
 	/** Common lock for the four constructor fields below. */
 	final Object constructorArgumentLock = new Object(); // 构造函数的缓存锁
 
@@ -89,8 +89,8 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				}
 			}
-            // 通过 BeanUtils 直接使用构造器对象实例化 Bean 对象
-            return BeanUtils.instantiateClass(constructorToUse);
+            // 通过构造器对象实例化 Bean 对象
+            return instantiateClass(bd, constructorToUse);
 		} else {
 			// Must generate CGLIB subclass.
             // 生成 CGLIB 创建的子类对象
@@ -98,6 +98,24 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Instantiate a bean through the given constructor, for bean definitions
+	 * without Method Injection.
+	 * <p>The default implementation delegates to {@link BeanUtils#instantiateClass}.
+	 * Subclasses may override this to invoke the constructor differently.
+	 * @param bd the bean definition
+	 * @param ctor the constructor to invoke
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the bean cannot be instantiated
+	 * @since 5.1.1
+	 */
+	protected Object instantiateClass(RootBeanDefinition bd, Constructor<?> ctor, Object... args)
+			throws BeanInstantiationException {
+
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
 	/**
 	 * Subclasses can override this method, which is implemented to throw
 	 * UnsupportedOperationException, if they can instantiate an object with
@@ -121,8 +139,8 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					return null;
 				});
 			}
-            // 通过 BeanUtils 直接使用构造器对象实例化 Bean 对象
-			return BeanUtils.instantiateClass(ctor, args);
+            // 通过构造器对象实例化 Bean 对象
+			return instantiateClass(bd, ctor, args);
 		} else {
             // 生成 CGLIB 创建的子类对象
 			return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
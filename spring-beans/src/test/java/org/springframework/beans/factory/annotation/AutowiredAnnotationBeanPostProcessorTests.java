@@ -36,6 +36,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.junit.After;
@@ -134,6 +135,62 @@ public class AutowiredAnnotationBeanPostProcessorTests {
 		assertSame(tb, bean.getTestBean2());
 	}
 
+	@Test
+	public void testResourceInjectionWithCachedArgumentsInvalidated() {
+		RootBeanDefinition bd = new RootBeanDefinition(ResourceInjectionBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		bf.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+
+		ResourceInjectionBean bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		TestBean tb = bf.getBean("testBean", TestBean.class);
+		assertSame(tb, bean.getTestBean());
+		assertSame(tb, bean.getTestBean2());
+		bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		assertSame(tb, bean.getTestBean());
+		assertSame(tb, bean.getTestBean2());
+
+		RootBeanDefinition primary = new RootBeanDefinition(TestBean.class);
+		primary.setPrimary(true);
+		bf.registerBeanDefinition("primaryTestBean", primary);
+		TestBean ptb = bf.getBean("primaryTestBean", TestBean.class);
+		bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		assertSame(ptb, bean.getTestBean());
+		assertSame(ptb, bean.getTestBean2());
+
+		bf.removeBeanDefinition("primaryTestBean");
+		bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		assertSame(tb, bean.getTestBean());
+		assertSame(tb, bean.getTestBean2());
+	}
+
+	@Test
+	public void testResourceInjectionWithCachedArgumentsAndFailingTarget() {
+		RootBeanDefinition bd = new RootBeanDefinition(ResourceInjectionBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		AtomicInteger attempts = new AtomicInteger();
+		RootBeanDefinition tbd = new RootBeanDefinition(TestBean.class, () -> {
+			if (attempts.incrementAndGet() > 2) {
+				throw new IllegalStateException("Target creation failed");
+			}
+			return new TestBean();
+		});
+		tbd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("testBean", tbd);
+
+		bf.getBean("annotatedBean");
+		assertEquals(2, attempts.get());
+		try {
+			bf.getBean("annotatedBean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			// Cached argument must not be re-resolved, creating the target again
+			assertEquals(3, attempts.get());
+		}
+	}
+
 	@Test
 	public void testExtendedResourceInjection() {
 		RootBeanDefinition bd = new RootBeanDefinition(TypedExtendedResourceInjectionBean.class);
@@ -948,6 +948,39 @@ public class BeanFactoryGenericsTests {
 		assertTrue(resolved.contains(bf.getBean("store2")));
 	}
 
+	@Test
+	public void testGenericMatchingWithFrozenConfiguration() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd1 = new RootBeanDefinition(NumberStoreFactory.class);
+		bd1.setFactoryMethodName("newDoubleStore");
+		bf.registerBeanDefinition("store1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(NumberStoreFactory.class);
+		bd2.setFactoryMethodName("newFloatStore");
+		bf.registerBeanDefinition("store2", bd2);
+		bf.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		bf.freezeConfiguration();
+
+		ResolvableType doubleStoreType = ResolvableType.forClassWithGenerics(NumberStore.class, Double.class);
+		ResolvableType floatStoreType = ResolvableType.forClassWithGenerics(NumberStore.class, Float.class);
+		assertArrayEquals(new String[] {"store1"}, bf.getBeanNamesForType(doubleStoreType));
+		assertArrayEquals(new String[] {"store2"}, bf.getBeanNamesForType(floatStoreType));
+		assertSame(bf.getBeanNamesForType(doubleStoreType), bf.getBeanNamesForType(doubleStoreType));
+
+		bf.registerSingleton("store3", new FloatStore());
+		assertArrayEquals(new String[] {"store1"}, bf.getBeanNamesForType(doubleStoreType));
+		assertArrayEquals(new String[] {"store2", "store3"}, bf.getBeanNamesForType(floatStoreType));
+		assertArrayEquals(new String[] {"store1", "store2", "store3"}, bf.getBeanNamesForType(NumberStore.class));
+		assertArrayEquals(new String[] {"testBean"}, bf.getBeanNamesForType(TestBean.class));
+
+		bf.destroySingleton("store3");
+		assertArrayEquals(new String[] {"store2"}, bf.getBeanNamesForType(floatStoreType));
+		assertArrayEquals(new String[] {"store1", "store2"}, bf.getBeanNamesForType(NumberStore.class));
+
+		bf.registerBeanDefinition("store4", new RootBeanDefinition(DoubleStore.class));
+		assertArrayEquals(new String[] {"store1", "store4"}, bf.getBeanNamesForType(doubleStoreType));
+		assertArrayEquals(new String[] {"store1", "store2", "store4"}, bf.getBeanNamesForType(NumberStore.class));
+	}
+
 	@Test
 	public void testGenericMatchingWithUnresolvedOrderedStream() {
 		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
@@ -16,6 +16,15 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
@@ -83,6 +92,62 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(tb.wasDestroyed());
 	}
 
+	@Test
+	public void testEarlySingletonReference() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		AtomicInteger factoryCalls = new AtomicInteger();
+		TestBean early = new TestBean();
+
+		TestBean tb = (TestBean) beanRegistry.getSingleton("tb", () -> {
+			beanRegistry.addSingletonFactory("tb", () -> {
+				factoryCalls.incrementAndGet();
+				return early;
+			});
+			assertNull(beanRegistry.getSingleton("tb", false));
+			assertSame(early, beanRegistry.getSingleton("tb"));
+			assertSame(early, beanRegistry.getSingleton("tb", false));
+			assertSame(early, beanRegistry.getSingleton("tb"));
+			return early;
+		});
+		assertSame(early, tb);
+		assertEquals(1, factoryCalls.get());
+		assertSame(early, beanRegistry.getSingleton("tb", false));
+		assertSame(early, beanRegistry.getSingleton("tb", () -> new TestBean()));
+	}
+
+	@Test
+	public void testConcurrentEarlySingletonReference() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		AtomicInteger factoryCalls = new AtomicInteger();
+		int threadCount = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			beanRegistry.beforeSingletonCreation("tb");
+			beanRegistry.addSingletonFactory("tb", () -> {
+				factoryCalls.incrementAndGet();
+				return new TestBean();
+			});
+			CountDownLatch startLatch = new CountDownLatch(1);
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit(() -> {
+					startLatch.await();
+					return beanRegistry.getSingleton("tb");
+				}));
+			}
+			startLatch.countDown();
+			Object early = futures.get(0).get(10, TimeUnit.SECONDS);
+			assertNotNull(early);
+			for (Future<Object> future : futures) {
+				assertSame(early, future.get(10, TimeUnit.SECONDS));
+			}
+			assertEquals(1, factoryCalls.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	public void testDependentRegistration() {
 		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedInstantiationStrategy}.
+ *
+ * @since 5.1.1
+ */
+public class GeneratedInstantiationStrategyTests {
+
+	@Test
+	public void instantiateWithDefaultConstructor() {
+		DefaultListableBeanFactory bf = createBeanFactory(new GeneratedInstantiationStrategy());
+		bf.registerBeanDefinition("tb", prototype(TestBean.class));
+
+		for (int i = 0; i < GeneratedInstantiationStrategy.DEFAULT_GENERATION_THRESHOLD * 2; i++) {
+			TestBean tb = bf.getBean("tb", TestBean.class);
+			assertEquals(TestBean.class, tb.getClass());
+		}
+		assertNotSame(bf.getBean("tb"), bf.getBean("tb"));
+	}
+
+	@Test
+	public void instantiateWithConstructorArguments() {
+		RecordingInstantiationStrategy strategy = new RecordingInstantiationStrategy();
+		strategy.setGenerationThreshold(0);
+		DefaultListableBeanFactory bf = createBeanFactory(strategy);
+		RootBeanDefinition bd = prototype(TestBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		bf.registerBeanDefinition("tb", bd);
+
+		for (int i = 0; i < 3; i++) {
+			TestBean tb = bf.getBean("tb", TestBean.class);
+			assertEquals("juergen", tb.getName());
+			assertEquals(42, tb.getAge());
+		}
+		assertTrue(strategy.candidates.contains(TestBean.class));
+	}
+
+	@Test
+	public void generatedInstantiatorIsUsedAfterThreshold() {
+		GeneratedInstantiationStrategy strategy = new GeneratedInstantiationStrategy();
+		strategy.setGenerationThreshold(2);
+		DefaultListableBeanFactory bf = createBeanFactory(strategy);
+		bf.registerBeanDefinition("bean", prototype(CallerRecordingBean.class));
+
+		for (int i = 0; i < 2; i++) {
+			bf.getBean("bean");
+			assertFalse(CallerRecordingBean.caller.contains("$$SpringInstantiator$$"));
+		}
+		bf.getBean("bean");
+		String instantiatorClassName = CallerRecordingBean.caller;
+		assertTrue(instantiatorClassName.contains("$$SpringInstantiator$$"));
+		bf.getBean("bean");
+		assertEquals(instantiatorClassName, CallerRecordingBean.caller);
+	}
+
+	@Test
+	public void generatedInstantiatorClassIsReusedForOtherBeanDefinitions() {
+		GeneratedInstantiationStrategy strategy = new GeneratedInstantiationStrategy();
+		strategy.setGenerationThreshold(0);
+		DefaultListableBeanFactory bf = createBeanFactory(strategy);
+		bf.registerBeanDefinition("bean", prototype(CallerRecordingBean.class));
+		bf.registerBeanDefinition("other", prototype(CallerRecordingBean.class));
+
+		bf.getBean("bean");
+		String instantiatorClassName = CallerRecordingBean.caller;
+		assertTrue(instantiatorClassName.contains("$$SpringInstantiator$$"));
+		bf.getBean("other");
+		assertEquals(instantiatorClassName, CallerRecordingBean.caller);
+		bf.registerBeanDefinition("bean", prototype(CallerRecordingBean.class));
+		bf.getBean("bean");
+		assertEquals(instantiatorClassName, CallerRecordingBean.caller);
+	}
+
+	@Test
+	public void instantiateWithMethodInjection() {
+		DefaultListableBeanFactory bf = createBeanFactory(new GeneratedInstantiationStrategy());
+		RootBeanDefinition bd = prototype(TestBean.class);
+		bd.getMethodOverrides().addOverride(new LookupOverride("getSpouse", "spouse"));
+		bf.registerBeanDefinition("tb", bd);
+		bf.registerBeanDefinition("spouse", prototype(TestBean.class));
+
+		TestBean tb = bf.getBean("tb", TestBean.class);
+		assertNotEquals(TestBean.class, tb.getClass());
+		assertNotNull(tb.getSpouse());
+	}
+
+	@Test
+	public void instantiateNonPublicClassThroughReflection() {
+		RecordingInstantiationStrategy strategy = new RecordingInstantiationStrategy();
+		strategy.setGenerationThreshold(0);
+		DefaultListableBeanFactory bf = createBeanFactory(strategy);
+		bf.registerBeanDefinition("bean", prototype(PackagePrivateBean.class));
+
+		assertNotNull(bf.getBean("bean"));
+		assertNotNull(bf.getBean("bean"));
+		assertTrue(strategy.candidates.isEmpty());
+	}
+
+	@Test
+	public void constructorExceptionFromGeneratedInstantiator() {
+		GeneratedInstantiationStrategy strategy = new GeneratedInstantiationStrategy();
+		strategy.setGenerationThreshold(0);
+		DefaultListableBeanFactory bf = createBeanFactory(strategy);
+		bf.registerBeanDefinition("bean", prototype(FailingBean.class));
+
+		try {
+			bf.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void nullPrimitiveArgumentFallsBackToReflection() throws Exception {
+		GeneratedInstantiationStrategy strategy = new GeneratedInstantiationStrategy();
+		strategy.setGenerationThreshold(0);
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		Constructor<TestBean> ctor = TestBean.class.getConstructor(String.class, int.class);
+
+		TestBean tb = (TestBean) strategy.instantiateClass(bd, ctor, "juergen", 42);
+		assertEquals(42, tb.getAge());
+		try {
+			strategy.instantiateClass(bd, ctor, "juergen", null);
+			fail("Should have thrown BeanInstantiationException");
+		}
+		catch (BeanInstantiationException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+
+	private static DefaultListableBeanFactory createBeanFactory(GeneratedInstantiationStrategy strategy) {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setInstantiationStrategy(strategy);
+		return bf;
+	}
+
+	private static RootBeanDefinition prototype(Class<?> beanClass) {
+		RootBeanDefinition bd = new RootBeanDefinition(beanClass);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		return bd;
+	}
+
+
+	private static class RecordingInstantiationStrategy extends GeneratedInstantiationStrategy {
+
+		final Set<Class<?>> candidates = new HashSet<>();
+
+		@Override
+		protected boolean isGenerationCandidate(Constructor<?> ctor) {
+			boolean candidate = super.isGenerationCandidate(ctor);
+			if (candidate) {
+				this.candidates.add(ctor.getDeclaringClass());
+			}
+			return candidate;
+		}
+	}
+
+
+	static class PackagePrivateBean {
+	}
+
+
+	public static class CallerRecordingBean {
+
+		static volatile String caller;
+
+		public CallerRecordingBean() {
+			caller = new Throwable().getStackTrace()[1].getClassName();
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Expected");
+		}
+	}
+
+}
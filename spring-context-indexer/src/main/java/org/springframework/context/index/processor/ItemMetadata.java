@@ -34,10 +34,17 @@ class ItemMetadata {
 
 	private final Set<String> stereotypes;
 
+	private final String typeMetadata;
+
 
 	public ItemMetadata(String type, Set<String> stereotypes) {
+		this(type, stereotypes, null);
+	}
+
+	public ItemMetadata(String type, Set<String> stereotypes, String typeMetadata) {
 		this.type = type;
 		this.stereotypes = new HashSet<>(stereotypes);
+		this.typeMetadata = typeMetadata;
 	}
 
 
@@ -49,4 +56,12 @@ class ItemMetadata {
 		return this.stereotypes;
 	}
 
+	/**
+	 * Return the encoded annotation metadata of the type, if any.
+	 * @see TypeMetadataEncoder
+	 */
+	public String getTypeMetadata() {
+		return this.typeMetadata;
+	}
+
 }
@@ -38,13 +38,28 @@ abstract class PropertiesMarshaller {
 		props.store(out, "");
 	}
 
+	public static void writeTypeMetadata(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
+		Properties props = new Properties();
+		metadata.getItems().stream().filter(m -> m.getTypeMetadata() != null)
+				.forEach(m -> props.put(m.getType(), m.getTypeMetadata()));
+		props.store(out, "");
+	}
+
 	public static CandidateComponentsMetadata read(InputStream in) throws IOException {
+		return read(in, null);
+	}
+
+	public static CandidateComponentsMetadata read(InputStream in, InputStream typeMetadataIn) throws IOException {
 		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
 		Properties props = new Properties();
 		props.load(in);
+		Properties typeMetadata = new Properties();
+		if (typeMetadataIn != null) {
+			typeMetadata.load(typeMetadataIn);
+		}
 		props.forEach((type, value) -> {
 			Set<String> candidates = new HashSet<>(Arrays.asList(((String) value).split(",")));
-			result.add(new ItemMetadata((String) type, candidates));
+			result.add(new ItemMetadata((String) type, candidates, typeMetadata.getProperty((String) type)));
 		});
 		return result;
 	}
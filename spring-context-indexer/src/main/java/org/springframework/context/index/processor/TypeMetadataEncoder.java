@@ -0,0 +1,415 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Encode the class-level facts and the annotations of a candidate type the
+ * way a class file reader would report them, so that the runtime can build
+ * the annotation metadata of the candidate without reading its class file.
+ *
+ * <p>The result is a single line of space separated tokens: a format version,
+ * the class header (access flags, internal name, super class, interfaces,
+ * enclosing class, inner class access flags and member classes), the type-level
+ * annotations and finally the methods that carry at least one annotation. Only
+ * annotations with {@code CLASS} or {@code RUNTIME} retention are recorded and
+ * only the attributes that are explicitly declared are written, defaults being
+ * resolved at runtime against the annotation type.
+ *
+ * @since 5.1.1
+ */
+class TypeMetadataEncoder {
+
+	static final String FORMAT_VERSION = "1";
+
+	private static final String NONE = "-";
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_ENUM = 0x4000;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	TypeMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Encode the metadata of the specified type.
+	 * @param element the candidate type
+	 * @return the encoded metadata or {@code null} if the element is not a
+	 * class or an interface or if it refers to a type that could not be resolved
+	 */
+	public String encode(Element element) {
+		if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE) {
+			return null;
+		}
+		try {
+			return doEncode((TypeElement) element);
+		}
+		catch (UnresolvableTypeException ex) {
+			// Incomplete classpath -> let the runtime read the class file instead.
+			return null;
+		}
+	}
+
+	private String doEncode(TypeElement type) {
+		StringJoiner out = new StringJoiner(" ");
+		out.add(FORMAT_VERSION);
+		out.add(Integer.toString(getAccess(type)));
+		out.add(getInternalName(type));
+		TypeMirror superclass = type.getSuperclass();
+		out.add(superclass.getKind() == TypeKind.NONE ? NONE : getInternalName(superclass));
+		List<String> interfaces = new ArrayList<>();
+		for (TypeMirror ifc : type.getInterfaces()) {
+			interfaces.add(getInternalName(ifc));
+		}
+		out.add(join(interfaces));
+		if (type.getNestingKind() == NestingKind.MEMBER) {
+			out.add(getInternalName((TypeElement) type.getEnclosingElement()));
+			out.add(Integer.toString(getInnerAccess(type)));
+		}
+		else {
+			out.add(NONE);
+			out.add(NONE);
+		}
+		List<String> memberTypes = new ArrayList<>();
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+				memberTypes.add(getInternalName((TypeElement) enclosed));
+			}
+		}
+		out.add(join(memberTypes));
+		writeAnnotations(type, out);
+
+		List<ExecutableElement> methods = new ArrayList<>();
+		for (Element enclosed : type.getEnclosedElements()) {
+			if ((enclosed.getKind() == ElementKind.METHOD || enclosed.getKind() == ElementKind.CONSTRUCTOR) &&
+					!getRecordedAnnotations(enclosed).isEmpty()) {
+				methods.add((ExecutableElement) enclosed);
+			}
+		}
+		out.add(Integer.toString(methods.size()));
+		for (ExecutableElement method : methods) {
+			out.add(Integer.toString(getAccess(method)));
+			out.add(method.getSimpleName().toString());
+			out.add(getDescriptor(method));
+			writeAnnotations(method, out);
+		}
+		return out.toString();
+	}
+
+	private void writeAnnotations(Element element, StringJoiner out) {
+		List<AnnotationMirror> annotations = getRecordedAnnotations(element);
+		out.add(Integer.toString(annotations.size()));
+		for (AnnotationMirror annotation : annotations) {
+			out.add(getDescriptor(annotation.getAnnotationType()));
+			writeAttributes(annotation, out);
+		}
+	}
+
+	private void writeAttributes(AnnotationMirror annotation, StringJoiner out) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				annotation.getElementValues().entrySet()) {
+			out.add(entry.getKey().getSimpleName().toString());
+			writeValue(entry.getKey().getReturnType(), entry.getValue(), out);
+		}
+		out.add(")");
+	}
+
+	@SuppressWarnings("unchecked")
+	private void writeValue(TypeMirror valueType, AnnotationValue annotationValue, StringJoiner out) {
+		Object value = annotationValue.getValue();
+		if (value instanceof List) {
+			List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) value;
+			TypeMirror componentType = (valueType.getKind() == TypeKind.ARRAY ?
+					((ArrayType) valueType).getComponentType() : valueType);
+			if (componentType.getKind().isPrimitive() && !values.isEmpty()) {
+				// Non-empty primitive arrays are reported as a single value
+				StringJoiner elements = new StringJoiner(",", "p" + getDescriptor(componentType), "");
+				for (AnnotationValue element : values) {
+					elements.add(getPrimitive(element.getValue()));
+				}
+				out.add(elements.toString());
+			}
+			else {
+				out.add("[");
+				for (AnnotationValue element : values) {
+					writeValue(componentType, element, out);
+				}
+				out.add("]");
+			}
+		}
+		else if (value instanceof String) {
+			out.add("s" + urlEncode((String) value));
+		}
+		else if (value instanceof TypeMirror) {
+			out.add("c" + getDescriptor((TypeMirror) value));
+		}
+		else if (value instanceof VariableElement) {
+			VariableElement enumConstant = (VariableElement) value;
+			out.add("e" + getDescriptor(enumConstant.asType()) + "#" + enumConstant.getSimpleName());
+		}
+		else if (value instanceof AnnotationMirror) {
+			AnnotationMirror nested = (AnnotationMirror) value;
+			out.add("@" + getDescriptor(nested.getAnnotationType()));
+			writeAttributes(nested, out);
+		}
+		else if (value != null) {
+			out.add(getPrimitiveDescriptor(value) + getPrimitive(value));
+		}
+		else {
+			throw new UnresolvableTypeException();
+		}
+	}
+
+	private List<AnnotationMirror> getRecordedAnnotations(Element element) {
+		// Runtime visible annotations are reported before the invisible ones
+		List<AnnotationMirror> visible = new ArrayList<>();
+		List<AnnotationMirror> invisible = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			DeclaredType annotationType = annotation.getAnnotationType();
+			if (annotationType.getKind() == TypeKind.ERROR) {
+				throw new UnresolvableTypeException();
+			}
+			Retention retention = annotationType.asElement().getAnnotation(Retention.class);
+			RetentionPolicy policy = (retention != null ? retention.value() : RetentionPolicy.CLASS);
+			if (policy == RetentionPolicy.RUNTIME) {
+				visible.add(annotation);
+			}
+			else if (policy == RetentionPolicy.CLASS) {
+				invisible.add(annotation);
+			}
+		}
+		visible.addAll(invisible);
+		return visible;
+	}
+
+	private int getAccess(TypeElement type) {
+		int access = getAccess(type.getModifiers());
+		switch (type.getKind()) {
+			case ANNOTATION_TYPE:
+				return access | ACC_ANNOTATION | ACC_INTERFACE | ACC_ABSTRACT;
+			case INTERFACE:
+				return access | ACC_INTERFACE | ACC_ABSTRACT;
+			case ENUM:
+				return access | ACC_ENUM;
+			default:
+				return access;
+		}
+	}
+
+	private int getInnerAccess(TypeElement type) {
+		int access = getAccess(type);
+		if (type.getKind() != ElementKind.CLASS) {
+			// member interfaces, enums and annotations are implicitly static
+			access |= ACC_STATIC;
+		}
+		return access;
+	}
+
+	private int getAccess(ExecutableElement method) {
+		int access = getAccess(method.getModifiers());
+		Element owner = method.getEnclosingElement();
+		if (owner.getKind().isInterface() && method.getKind() == ElementKind.METHOD &&
+				!method.isDefault() && !method.getModifiers().contains(Modifier.STATIC)) {
+			access |= ACC_ABSTRACT;
+		}
+		return access;
+	}
+
+	private int getAccess(Set<Modifier> modifiers) {
+		int access = 0;
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			access |= ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.PROTECTED)) {
+			access |= ACC_PROTECTED;
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			access |= ACC_PRIVATE;
+		}
+		if (modifiers.contains(Modifier.STATIC)) {
+			access |= ACC_STATIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		return access;
+	}
+
+	private String getDescriptor(ExecutableElement method) {
+		StringBuilder sb = new StringBuilder("(");
+		for (VariableElement parameter : method.getParameters()) {
+			sb.append(getDescriptor(parameter.asType()));
+		}
+		return sb.append(')').append(getDescriptor(method.getReturnType())).toString();
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case CHAR:
+				return "C";
+			case SHORT:
+				return "S";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case VOID:
+				return "V";
+			case ARRAY:
+				return "[" + getDescriptor(((ArrayType) type).getComponentType());
+			case DECLARED:
+				return "L" + getInternalName(type) + ";";
+			case TYPEVAR:
+				return getDescriptor(this.types.erasure(type));
+			default:
+				throw new UnresolvableTypeException();
+		}
+	}
+
+	private String getInternalName(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			throw new UnresolvableTypeException();
+		}
+		return getInternalName((TypeElement) ((DeclaredType) type).asElement());
+	}
+
+	private String getInternalName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString().replace('.', '/');
+	}
+
+	private static String getPrimitiveDescriptor(Object value) {
+		if (value instanceof Boolean) {
+			return "Z";
+		}
+		if (value instanceof Byte) {
+			return "B";
+		}
+		if (value instanceof Character) {
+			return "C";
+		}
+		if (value instanceof Short) {
+			return "S";
+		}
+		if (value instanceof Integer) {
+			return "I";
+		}
+		if (value instanceof Long) {
+			return "J";
+		}
+		if (value instanceof Float) {
+			return "F";
+		}
+		if (value instanceof Double) {
+			return "D";
+		}
+		throw new UnresolvableTypeException();
+	}
+
+	private static String getPrimitive(Object value) {
+		if (value instanceof Boolean) {
+			return ((Boolean) value ? "1" : "0");
+		}
+		if (value instanceof Character) {
+			return Integer.toString((Character) value);
+		}
+		if (value instanceof Number) {
+			return value.toString();
+		}
+		throw new UnresolvableTypeException();
+	}
+
+	private static String join(List<String> values) {
+		return (values.isEmpty() ? NONE : String.join(",", values));
+	}
+
+	private static String urlEncode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	/**
+	 * Thrown when the type to encode refers to a type that is not available.
+	 */
+	@SuppressWarnings("serial")
+	private static class UnresolvableTypeException extends RuntimeException {
+	}
+
+}
@@ -19,6 +19,10 @@ package org.springframework.context.index.processor;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.ManagedBean;
 import javax.inject.Named;
 import javax.persistence.Converter;
@@ -32,9 +36,19 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
 import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleConfiguration;
 import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleMetaController;
 import org.springframework.context.index.sample.SampleMetaIndexedController;
@@ -56,6 +70,11 @@ import org.springframework.context.index.sample.type.SampleSpecializedRepo;
 import org.springframework.context.index.sample.type.SmartRepo;
 import org.springframework.context.index.sample.type.SpecializedRepo;
 import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
@@ -222,6 +241,67 @@ public class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems(), hasSize(0));
 	}
 
+	@Test
+	public void typeMetadataIsRecorded() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleConfiguration.class);
+		assertThat(metadata, hasComponent(SampleConfiguration.class, Component.class));
+		assertThat(metadata.getItems().get(0).getTypeMetadata(), notNullValue());
+	}
+
+	@Test
+	public void typeMetadataMatchesClassFile() throws IOException {
+		compile(SampleConfiguration.class);
+		File outputLocation = this.compiler.getOutputLocation();
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {outputLocation.toURI().toURL()}, getClass().getClassLoader())) {
+			CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(classLoader);
+			assertNotNull(index);
+			String type = SampleConfiguration.class.getName();
+			MetadataReader indexed = index.getMetadataReader(type, classLoader);
+			assertNotNull(indexed);
+			MetadataReader scanned = new SimpleMetadataReaderFactory(classLoader).getMetadataReader(
+					new FileSystemResource(new File(outputLocation, type.replace('.', '/') + ".class")));
+
+			AnnotationMetadata expected = scanned.getAnnotationMetadata();
+			AnnotationMetadata actual = indexed.getAnnotationMetadata();
+			assertEquals(expected.getClassName(), actual.getClassName());
+			assertEquals(expected.getSuperClassName(), actual.getSuperClassName());
+			assertEquals(expected.isConcrete(), actual.isConcrete());
+			assertEquals(expected.isIndependent(), actual.isIndependent());
+			assertEquals(expected.getAnnotationTypes(), actual.getAnnotationTypes());
+			for (String annotationType : expected.getAnnotationTypes()) {
+				assertEquals(expected.getMetaAnnotationTypes(annotationType),
+						actual.getMetaAnnotationTypes(annotationType));
+			}
+			for (Class<?> annotationType : new Class<?>[] {Configuration.class, Component.class, Lazy.class,
+					Profile.class, Scope.class, ComponentScan.class}) {
+				assertSameAttributes(expected.getAnnotationAttributes(annotationType.getName()),
+						actual.getAnnotationAttributes(annotationType.getName()));
+				assertSameAttributes(expected.getAnnotationAttributes(annotationType.getName(), true),
+						actual.getAnnotationAttributes(annotationType.getName(), true));
+			}
+			Set<MethodMetadata> beanMethods = actual.getAnnotatedMethods(Bean.class.getName());
+			assertThat(beanMethods, hasSize(2));
+			for (MethodMetadata beanMethod : beanMethods) {
+				MethodMetadata expectedMethod = expected.getAnnotatedMethods(Bean.class.getName()).stream()
+						.filter(m -> m.getMethodName().equals(beanMethod.getMethodName())).findFirst().get();
+				assertEquals(expectedMethod.isStatic(), beanMethod.isStatic());
+				assertEquals(expectedMethod.getReturnTypeName(), beanMethod.getReturnTypeName());
+				assertEquals(expectedMethod.isAnnotated(Primary.class.getName()),
+						beanMethod.isAnnotated(Primary.class.getName()));
+				assertSameAttributes(expectedMethod.getAnnotationAttributes(Bean.class.getName()),
+						beanMethod.getAnnotationAttributes(Bean.class.getName()));
+			}
+		}
+	}
+
+	private static void assertSameAttributes(Map<String, Object> expected, Map<String, Object> actual) {
+		assertNotNull(expected);
+		assertNotNull(actual);
+		// AnnotationAttributes renders array values, unlike equals
+		assertEquals(expected.toString(), actual.toString());
+	}
+
 	private void testComponent(Class<?>... classes) throws IOException {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -252,8 +332,11 @@ public class CandidateComponentsIndexerTests {
 		try {
 			File metadataFile = new File(outputLocation,
 					MetadataStore.METADATA_PATH);
+			File typeMetadataFile = new File(outputLocation,
+					MetadataStore.TYPE_METADATA_PATH);
 			if (metadataFile.isFile()) {
-				return PropertiesMarshaller.read(new FileInputStream(metadataFile));
+				return PropertiesMarshaller.read(new FileInputStream(metadataFile),
+						(typeMetadataFile.isFile() ? new FileInputStream(typeMetadataFile) : null));
 			}
 			else {
 				return new CandidateComponentsMetadata();
@@ -50,6 +50,30 @@ public class PropertiesMarshallerTests {
 		assertThat(readMetadata.getItems(), hasSize(2));
 	}
 
+	@Test
+	public void readWriteTypeMetadata() throws IOException {
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		metadata.add(new ItemMetadata("com.foo", new HashSet<>(Arrays.asList("first")), "1 1 com/foo -"));
+		metadata.add(createItem("com.bar", "first"));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.write(metadata, outputStream);
+		ByteArrayOutputStream typeMetadataOutputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.writeTypeMetadata(metadata, typeMetadataOutputStream);
+		CandidateComponentsMetadata readMetadata = PropertiesMarshaller.read(
+				new ByteArrayInputStream(outputStream.toByteArray()),
+				new ByteArrayInputStream(typeMetadataOutputStream.toByteArray()));
+		assertThat(readMetadata.getItems(), hasSize(2));
+		for (ItemMetadata item : readMetadata.getItems()) {
+			if (item.getType().equals("com.foo")) {
+				assertEquals("1 1 com/foo -", item.getTypeMetadata());
+			}
+			else {
+				assertNull(item.getTypeMetadata());
+			}
+		}
+	}
+
 	private static ItemMetadata createItem(String type, String... stereotypes) {
 		return new ItemMetadata(type, new HashSet<>(Arrays.asList(stereotypes)));
 	}
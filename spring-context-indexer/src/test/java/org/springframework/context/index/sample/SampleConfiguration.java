@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+
+/**
+ * Test candidate for {@link Configuration} with annotated methods.
+ */
+@Configuration
+@Lazy
+@Profile({"dev", "with space"})
+@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+@ComponentScan(basePackageClasses = SampleService.class, excludeFilters =
+		@ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SampleNone.class))
+public class SampleConfiguration {
+
+	@Bean
+	@Primary
+	public String name() {
+		return "name";
+	}
+
+	@Bean(name = {"first", "second"}, initMethod = "toString")
+	public static Object other(String name) {
+		return name;
+	}
+
+	public void notABean() {
+	}
+
+}
@@ -18,8 +18,6 @@ package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
 import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cache.Cache;
@@ -27,7 +25,6 @@ import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 
 /**
@@ -61,13 +58,6 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	public static final String RESULT_VARIABLE = "result";
 
 
-	private final Map<ExpressionKey, Expression> keyCache = new ConcurrentHashMap<>(64);
-
-	private final Map<ExpressionKey, Expression> conditionCache = new ConcurrentHashMap<>(64);
-
-	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
-
-
 	/**
 	 * Create an {@link EvaluationContext}.
 	 * @param caches the current caches
@@ -101,26 +91,24 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
+		return getExpression(methodKey, keyExpression).getValue(evalContext);
 	}
 
 	public boolean condition(String conditionExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
+		return (Boolean.TRUE.equals(getExpression(methodKey, conditionExpression).getValue(
 				evalContext, Boolean.class)));
 	}
 
 	public boolean unless(String unlessExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.unlessCache, methodKey, unlessExpression).getValue(
+		return (Boolean.TRUE.equals(getExpression(methodKey, unlessExpression).getValue(
 				evalContext, Boolean.class)));
 	}
 
 	/**
-	 * Clear all caches.
+	 * Clear the expression cache.
 	 */
 	void clear() {
-		this.keyCache.clear();
-		this.conditionCache.clear();
-		this.unlessCache.clear();
+		getExpressionCache().clear();
 	}
 
 }
@@ -18,11 +18,15 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -89,6 +93,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/** Number of resources read per task when scanning in parallel. */
+	private static final int SCANNING_BATCH_SIZE = 64;
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -113,6 +120,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	@Nullable
+	private Executor scanningExecutor;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -302,6 +312,21 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Set an {@link Executor} for reading the candidate class files of a
+	 * classpath scan in parallel, e.g. a {@link java.util.concurrent.ForkJoinPool}.
+	 * <p>If specified, the resources found for a base package are split into
+	 * batches that are read and matched against the type filters on this executor.
+	 * The candidates are returned in the same order as with a sequential scan.
+	 * Default is none, scanning in the calling thread.
+	 * <p>Note that custom {@link TypeFilter TypeFilters} and the
+	 * {@link MetadataReaderFactory} need to be thread-safe for parallel scanning.
+	 * @since 5.1.1
+	 */
+	public void setScanningExecutor(@Nullable Executor scanningExecutor) {
+		this.scanningExecutor = scanningExecutor;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
@@ -383,8 +408,13 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			}
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
+			ClassLoader classLoader = getResourceLoader().getClassLoader();
 			for (String type : types) {
-				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				// Prefer the metadata recorded in the index over reading the class file
+				MetadataReader metadataReader = index.getMetadataReader(type, classLoader);
+				if (metadataReader == null) {
+					metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				}
 				if (isCandidateComponent(metadataReader)) {
 					AnnotatedGenericBeanDefinition sbd = new AnnotatedGenericBeanDefinition(
 							metadataReader.getAnnotationMetadata());
@@ -419,53 +449,118 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
+			if (this.scanningExecutor != null && resources.length > SCANNING_BATCH_SIZE) {
+				return scanCandidateComponents(resources, this.scanningExecutor);
+			}
 			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+				ScannedGenericBeanDefinition candidate = scanCandidateComponent(resource);
+				if (candidate != null) {
+					candidates.add(candidate);
 				}
-				if (resource.isReadable()) {
-					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setResource(resource);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Scan the given resources in batches on the given Executor, collecting the
+	 * candidates in the order of the resources.
+	 * @see #setScanningExecutor
+	 */
+	private Set<BeanDefinition> scanCandidateComponents(Resource[] resources, Executor executor) {
+		// Initialize shared state upfront rather than concurrently
+		getMetadataReaderFactory();
+		if (this.conditionEvaluator == null) {
+			this.conditionEvaluator =
+					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+		}
+
+		ScannedGenericBeanDefinition[] results = new ScannedGenericBeanDefinition[resources.length];
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int start = 0; start < resources.length; start += SCANNING_BATCH_SIZE) {
+			int from = start;
+			int to = Math.min(start + SCANNING_BATCH_SIZE, resources.length);
+			futures.add(CompletableFuture.runAsync(() -> {
+				for (int i = from; i < to; i++) {
+					results[i] = scanCandidateComponent(resources[i]);
+				}
+			}, executor));
+		}
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw ex;
+		}
+
+		Set<BeanDefinition> candidates = new LinkedHashSet<>();
+		for (ScannedGenericBeanDefinition candidate : results) {
+			if (candidate != null) {
+				candidates.add(candidate);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read the given resource and build a bean definition for it if it
+	 * qualifies as a candidate component.
+	 * @param resource the class file to read
+	 * @return the bean definition, or {@code null} if not a candidate
+	 */
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource) {
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		if (resource.isReadable()) {
+			try {
+				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				if (isCandidateComponent(metadataReader)) {
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setResource(resource);
+					sbd.setSource(resource);
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
 						}
+						return sbd;
 					}
-					catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+					else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
+						}
 					}
 				}
 				else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
 			}
+			catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
+			}
 		}
-		return candidates;
+		return null;
 	}
 
 
@@ -19,6 +19,8 @@ package org.springframework.context.annotation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -49,6 +51,8 @@ class ConditionEvaluator {
 
 	private final ConditionContextImpl context;
 
+	private final Map<String, Class<?>> conditionClassCache = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new {@link ConditionEvaluator} instance.
@@ -120,8 +124,16 @@ class ConditionEvaluator {
 		return (List<String[]>) (values != null ? values : Collections.emptyList());
 	}
 
+	/**
+	 * Create a {@link Condition} instance for the given class name.
+	 * <p>The resolved class is kept for the lifetime of this evaluator, since
+	 * the same conditions typically guard many configuration classes and bean
+	 * methods within a single parsing run. Instances are not reused: Condition
+	 * implementations are not required to be thread-safe.
+	 */
 	private Condition getCondition(String conditionClassName, @Nullable ClassLoader classloader) {
-		Class<?> conditionClass = ClassUtils.resolveClassName(conditionClassName, classloader);
+		Class<?> conditionClass = this.conditionClassCache.computeIfAbsent(conditionClassName,
+				className -> ClassUtils.resolveClassName(className, classloader));
 		return (Condition) BeanUtils.instantiateClass(conditionClass);
 	}
 
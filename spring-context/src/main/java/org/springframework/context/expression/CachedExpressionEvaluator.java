@@ -21,6 +21,7 @@ import java.util.Map;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -29,6 +30,10 @@ import org.springframework.util.ObjectUtils;
  * Shared utility class used to evaluate and cache SpEL expressions that
  * are defined on {@link java.lang.reflect.AnnotatedElement}.
  *
+ * <p>Parsed expressions are held in a size-bounded {@link SpelExpressionCache},
+ * shared by all expressions of an evaluator. Subclasses may provide a cache
+ * with a different maximum size.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see AnnotatedElementKey
@@ -39,13 +44,25 @@ public abstract class CachedExpressionEvaluator {
 
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private final SpelExpressionCache expressionCache;
+
 
 	/**
 	 * Create a new instance with the specified {@link SpelExpressionParser}.
 	 */
 	protected CachedExpressionEvaluator(SpelExpressionParser parser) {
-		Assert.notNull(parser, "SpelExpressionParser must not be null");
-		this.parser = parser;
+		this(new SpelExpressionCache(parser));
+	}
+
+	/**
+	 * Create a new instance with the specified {@link SpelExpressionCache},
+	 * using its {@link SpelExpressionCache#getParser() parser}.
+	 * @since 5.1.1
+	 */
+	protected CachedExpressionEvaluator(SpelExpressionCache expressionCache) {
+		Assert.notNull(expressionCache, "SpelExpressionCache must not be null");
+		this.parser = expressionCache.getParser();
+		this.expressionCache = expressionCache;
 	}
 
 	/**
@@ -71,6 +88,15 @@ public abstract class CachedExpressionEvaluator {
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Return the size-bounded cache of parsed expressions, e.g. to expose its
+	 * statistics or to clear it.
+	 * @since 5.1.1
+	 */
+	protected SpelExpressionCache getExpressionCache() {
+		return this.expressionCache;
+	}
+
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
@@ -91,6 +117,18 @@ public abstract class CachedExpressionEvaluator {
 		return expr;
 	}
 
+	/**
+	 * Return the {@link Expression} for the specified SpEL value from the
+	 * {@linkplain #getExpressionCache() expression cache} of this evaluator.
+	 * <p>Parse the expression if it is not in the cache.
+	 * @param elementKey the element on which the expression is defined
+	 * @param expression the expression to parse
+	 * @since 5.1.1
+	 */
+	protected Expression getExpression(AnnotatedElementKey elementKey, String expression) {
+		return this.expressionCache.getExpression(createKey(elementKey, expression), expression);
+	}
+
 	private ExpressionKey createKey(AnnotatedElementKey elementKey, String expression) {
 		return new ExpressionKey(elementKey, expression);
 	}
@@ -17,11 +17,15 @@
 package org.springframework.context.index;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,6 +47,11 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>If the index has been generated with the annotation metadata of the candidates
+ * ({@code META-INF/spring.components.metadata}), a {@link MetadataReader} can be
+ * obtained for a candidate type without reading its class file, see
+ * {@link #getMetadataReader(String, ClassLoader)}.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -52,9 +61,16 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, String> typeMetadata;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList());
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<Properties> typeMetadata) {
 		this.index = parseIndex(content);
+		this.typeMetadata = parseTypeMetadata(typeMetadata);
 	}
 
 
@@ -76,6 +92,22 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return a {@link MetadataReader} for the specified candidate type, based on
+	 * the annotation metadata that has been recorded in the index.
+	 * @param type the candidate type, as returned by {@link #getCandidateTypes}
+	 * @param classLoader the ClassLoader to use for resolving annotation types
+	 * @return the metadata reader or {@code null} if the index does not hold any
+	 * metadata for that type, in which case its class file should be read instead
+	 * @throws IllegalArgumentException if the recorded metadata is invalid
+	 * @since 5.1.1
+	 */
+	@Nullable
+	public MetadataReader getMetadataReader(String type, @Nullable ClassLoader classLoader) {
+		String metadata = this.typeMetadata.get(type);
+		return (metadata != null ? IndexedMetadataReader.parse(metadata, classLoader) : null);
+	}
+
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
@@ -89,6 +121,14 @@ public class CandidateComponentsIndex {
 		return index;
 	}
 
+	private static Map<String, String> parseTypeMetadata(List<Properties> content) {
+		Map<String, String> typeMetadata = new HashMap<>();
+		for (Properties entry : content) {
+			entry.forEach((type, metadata) -> typeMetadata.putIfAbsent((String) type, (String) metadata));
+		}
+		return typeMetadata;
+	}
+
 	private static class Entry {
 		private final String type;
 		private final String packageName;
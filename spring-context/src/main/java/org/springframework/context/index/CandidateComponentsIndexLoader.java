@@ -47,6 +47,13 @@ public final class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for the annotation metadata of the components.
+	 * <p>Optional, and can be present in multiple JAR files.
+	 * @since 5.1.1
+	 */
+	public static final String COMPONENTS_METADATA_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
 	/**
 	 * System property that instructs Spring to ignore the index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -110,7 +117,7 @@ public final class CandidateComponentsIndexLoader {
 				logger.debug("Loaded " + result.size() + "] index(es)");
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			return (totalCount > 0 ? new CandidateComponentsIndex(result, loadTypeMetadata(classLoader)) : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -118,4 +125,14 @@ public final class CandidateComponentsIndexLoader {
 		}
 	}
 
+	private static List<Properties> loadTypeMetadata(ClassLoader classLoader) throws IOException {
+		List<Properties> result = new ArrayList<>();
+		Enumeration<URL> urls = classLoader.getResources(COMPONENTS_METADATA_RESOURCE_LOCATION);
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			result.add(PropertiesLoaderUtils.loadProperties(new UrlResource(url)));
+		}
+		return result;
+	}
+
 }
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.AnnotationMetadataReadingVisitor;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link MetadataReader} implementation that is built from the type metadata
+ * recorded in {@code META-INF/spring.components.metadata} at compile time
+ * rather than from the class file of the candidate.
+ *
+ * <p>The recorded class header, annotations and annotated methods are replayed
+ * against an {@link AnnotationMetadataReadingVisitor} in the order a class file
+ * reader would report them, so that the resulting metadata is the same as the
+ * one obtained by a regular classpath scan.
+ *
+ * @since 5.1.1
+ * @see CandidateComponentsIndex#getMetadataReader(String, ClassLoader)
+ */
+final class IndexedMetadataReader implements MetadataReader {
+
+	static final String FORMAT_VERSION = "1";
+
+	private static final String NONE = "-";
+
+
+	private final Resource resource;
+
+	private final AnnotationMetadata annotationMetadata;
+
+
+	private IndexedMetadataReader(Resource resource, AnnotationMetadata annotationMetadata) {
+		this.resource = resource;
+		this.annotationMetadata = annotationMetadata;
+	}
+
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.annotationMetadata;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.annotationMetadata;
+	}
+
+
+	/**
+	 * Create a {@link MetadataReader} for the given encoded type metadata.
+	 * @param typeMetadata the type metadata, as recorded by the indexer
+	 * @param classLoader the ClassLoader to use for resolving annotation types
+	 * @return the metadata reader or {@code null} if the metadata has been
+	 * recorded in a format that is not supported
+	 * @throws IllegalArgumentException if the metadata is malformed
+	 */
+	@Nullable
+	static MetadataReader parse(String typeMetadata, @Nullable ClassLoader classLoader) {
+		Tokenizer tokens = new Tokenizer(typeMetadata);
+		if (!FORMAT_VERSION.equals(tokens.next())) {
+			return null;
+		}
+		try {
+			AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+			int access = Integer.parseInt(tokens.next());
+			String name = tokens.next();
+			String superName = optional(tokens.next());
+			String interfaces = optional(tokens.next());
+			visitor.visit(Opcodes.V1_8, access, name, null, superName,
+					StringUtils.commaDelimitedListToStringArray(interfaces));
+			String outerName = optional(tokens.next());
+			String innerAccess = tokens.next();
+			if (outerName != null) {
+				visitor.visitInnerClass(name, outerName, getSimpleName(name), Integer.parseInt(innerAccess));
+			}
+			for (String memberName : StringUtils.commaDelimitedListToStringArray(optional(tokens.next()))) {
+				visitor.visitInnerClass(memberName, name, getSimpleName(memberName), 0);
+			}
+			readAnnotations(tokens, visitor::visitAnnotation);
+			int methodCount = Integer.parseInt(tokens.next());
+			for (int i = 0; i < methodCount; i++) {
+				int methodAccess = Integer.parseInt(tokens.next());
+				String methodName = tokens.next();
+				String methodDesc = tokens.next();
+				MethodVisitor methodVisitor = visitor.visitMethod(methodAccess, methodName, methodDesc, null, null);
+				readAnnotations(tokens, (desc, visible) ->
+						(methodVisitor != null ? methodVisitor.visitAnnotation(desc, visible) : null));
+				if (methodVisitor != null) {
+					methodVisitor.visitEnd();
+				}
+			}
+			visitor.visitEnd();
+			Resource resource = new ClassPathResource(name + ".class", classLoader);
+			return new IndexedMetadataReader(resource, visitor);
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalArgumentException("Invalid type metadata [" + typeMetadata + "]", ex);
+		}
+	}
+
+	private static void readAnnotations(Tokenizer tokens, AnnotationVisitorFactory factory) {
+		int count = Integer.parseInt(tokens.next());
+		for (int i = 0; i < count; i++) {
+			String desc = tokens.next();
+			AnnotationVisitor annotationVisitor = factory.visitAnnotation(desc, true);
+			readAttributes(tokens, annotationVisitor);
+		}
+	}
+
+	private static void readAttributes(Tokenizer tokens, @Nullable AnnotationVisitor visitor) {
+		String attributeName = tokens.next();
+		while (!")".equals(attributeName)) {
+			readValue(tokens, visitor, attributeName, tokens.next());
+			attributeName = tokens.next();
+		}
+		if (visitor != null) {
+			visitor.visitEnd();
+		}
+	}
+
+	private static void readValue(Tokenizer tokens, @Nullable AnnotationVisitor visitor,
+			@Nullable String attributeName, String token) {
+
+		char kind = token.charAt(0);
+		String value = token.substring(1);
+		if (kind == '[') {
+			AnnotationVisitor arrayVisitor = (visitor != null ? visitor.visitArray(attributeName) : null);
+			String element = tokens.next();
+			while (!"]".equals(element)) {
+				readValue(tokens, arrayVisitor, null, element);
+				element = tokens.next();
+			}
+			if (arrayVisitor != null) {
+				arrayVisitor.visitEnd();
+			}
+		}
+		else if (kind == '@') {
+			readAttributes(tokens, (visitor != null ? visitor.visitAnnotation(attributeName, value) : null));
+		}
+		else if (visitor != null) {
+			if (kind == 'e') {
+				int separator = value.indexOf('#');
+				visitor.visitEnum(attributeName, value.substring(0, separator), value.substring(separator + 1));
+			}
+			else {
+				visitor.visit(attributeName, getValue(kind, value));
+			}
+		}
+	}
+
+	private static Object getValue(char kind, String value) {
+		switch (kind) {
+			case 's':
+				return urlDecode(value);
+			case 'c':
+				return Type.getType(value);
+			case 'p':
+				return getPrimitiveArray(value.charAt(0),
+						StringUtils.commaDelimitedListToStringArray(value.substring(1)));
+			default:
+				return getPrimitive(kind, value);
+		}
+	}
+
+	private static Object getPrimitive(char kind, String value) {
+		switch (kind) {
+			case 'Z':
+				return "1".equals(value);
+			case 'B':
+				return Byte.valueOf(value);
+			case 'C':
+				return (char) Integer.parseInt(value);
+			case 'S':
+				return Short.valueOf(value);
+			case 'I':
+				return Integer.valueOf(value);
+			case 'J':
+				return Long.valueOf(value);
+			case 'F':
+				return Float.valueOf(value);
+			case 'D':
+				return Double.valueOf(value);
+			default:
+				throw new IllegalArgumentException("Unknown value kind '" + kind + "'");
+		}
+	}
+
+	private static Object getPrimitiveArray(char kind, String[] values) {
+		switch (kind) {
+			case 'Z': {
+				boolean[] array = new boolean[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = "1".equals(values[i]);
+				}
+				return array;
+			}
+			case 'B': {
+				byte[] array = new byte[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = Byte.parseByte(values[i]);
+				}
+				return array;
+			}
+			case 'C': {
+				char[] array = new char[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = (char) Integer.parseInt(values[i]);
+				}
+				return array;
+			}
+			case 'S': {
+				short[] array = new short[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = Short.parseShort(values[i]);
+				}
+				return array;
+			}
+			case 'I': {
+				int[] array = new int[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = Integer.parseInt(values[i]);
+				}
+				return array;
+			}
+			case 'J': {
+				long[] array = new long[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = Long.parseLong(values[i]);
+				}
+				return array;
+			}
+			case 'F': {
+				float[] array = new float[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = Float.parseFloat(values[i]);
+				}
+				return array;
+			}
+			case 'D': {
+				double[] array = new double[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = Double.parseDouble(values[i]);
+				}
+				return array;
+			}
+			default:
+				throw new IllegalArgumentException("Unknown array kind '" + kind + "'");
+		}
+	}
+
+	@Nullable
+	private static String optional(String token) {
+		return (NONE.equals(token) ? null : token);
+	}
+
+	private static String getSimpleName(String internalName) {
+		return internalName.substring(internalName.lastIndexOf('$') + 1);
+	}
+
+	private static String urlDecode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	@FunctionalInterface
+	private interface AnnotationVisitorFactory {
+
+		@Nullable
+		AnnotationVisitor visitAnnotation(String desc, boolean visible);
+	}
+
+
+	/**
+	 * Sequential access to the space separated tokens of the type metadata.
+	 */
+	private static class Tokenizer {
+
+		private final String[] tokens;
+
+		private int position;
+
+		Tokenizer(String typeMetadata) {
+			this.tokens = StringUtils.delimitedListToStringArray(typeMetadata.trim(), " ");
+		}
+
+		String next() {
+			if (this.position >= this.tokens.length) {
+				throw new IllegalArgumentException("Unexpected end of type metadata");
+			}
+			return this.tokens[this.position++];
+		}
+	}
+
+}
@@ -1160,6 +1160,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			// Let subclasses do some final clean-up if they wish...
 			onClose();
 
+			// Release the application types held by Spring's shared type cache.
+			ResolvableType.clearCache(getClassLoader());
+
 			this.active.set(false);
 		}
 	}
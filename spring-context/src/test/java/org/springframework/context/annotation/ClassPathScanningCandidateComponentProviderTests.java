@@ -18,7 +18,10 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 import example.profilescan.DevComponent;
@@ -144,6 +147,38 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertEquals(0, candidates.size());
 	}
 
+	@Test
+	public void parallelScanWithExecutor() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		List<String> expected = getBeanClassNames(provider.findCandidateComponents("org.springframework.context"));
+		assertFalse(expected.isEmpty());
+
+		ForkJoinPool executor = new ForkJoinPool(4);
+		try {
+			ClassPathScanningCandidateComponentProvider parallelProvider =
+					new ClassPathScanningCandidateComponentProvider(true);
+			parallelProvider.setResourceLoader(new DefaultResourceLoader(
+					CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+			parallelProvider.setScanningExecutor(executor);
+			assertEquals(expected, getBeanClassNames(
+					parallelProvider.findCandidateComponents("org.springframework.context")));
+			testDefault(parallelProvider, ScannedGenericBeanDefinition.class);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private static List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		List<String> beanClassNames = new ArrayList<>();
+		for (BeanDefinition candidate : candidates) {
+			beanClassNames.add(candidate.getBeanClassName());
+		}
+		return beanClassNames;
+	}
+
 	@Test
 	public void customFiltersFollowedByResetUseIndex() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
@@ -21,6 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -158,6 +159,15 @@ public class ConfigurationClassWithConditionTests {
 		assertEquals("baz", beans.keySet().iterator().next());
 	}
 
+	@Test
+	public void conditionInstantiatedPerEvaluation() {
+		CountingCondition.instances.set(0);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ConfigWithCountingCondition.class);
+		assertTrue(context.containsBean("bean1"));
+		assertTrue(context.containsBean("bean2"));
+		assertEquals(2, CountingCondition.instances.get());
+	}
+
 
 	@Configuration
 	static class BeanOneConfiguration {
@@ -266,6 +276,20 @@ public class ConfigurationClassWithConditionTests {
 		}
 	}
 
+	static class CountingCondition implements Condition {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		CountingCondition() {
+			instances.incrementAndGet();
+		}
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return true;
+		}
+	}
+
 	@Component
 	@MetaNever
 	static class NonConfigurationClass {
@@ -360,6 +384,22 @@ public class ConfigurationClassWithConditionTests {
 		}
 	}
 
+	@Configuration
+	static class ConfigWithCountingCondition {
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		public ExampleBean bean1() {
+			return new ExampleBean();
+		}
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		public ExampleBean bean2() {
+			return new ExampleBean();
+		}
+	}
+
 	@Configuration
 	static class ConfigWithAlternativeBeans {
 
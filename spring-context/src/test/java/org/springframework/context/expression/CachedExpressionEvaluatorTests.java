@@ -23,6 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.junit.Test;
 
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.ReflectionUtils;
 
@@ -64,8 +65,36 @@ public class CachedExpressionEvaluatorTests {
 		assertEquals("Cached expression should be based on type", 2, expressionEvaluator.testCache.size());
 	}
 
+	@Test
+	public void cacheExpressionInSharedExpressionCache() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		Expression expression = expressionEvaluator.getSharedExpression("true", method, getClass());
+		assertSame(expression, expressionEvaluator.getSharedExpression("true", method, getClass()));
+		assertNotSame(expression, expressionEvaluator.getSharedExpression("true", method, Object.class));
+		hasParsedExpression("true", 2);
+		assertEquals(2, expressionEvaluator.getExpressionCache().size());
+		assertEquals(1, expressionEvaluator.getExpressionCache().getHitCount());
+	}
+
+	@Test
+	public void customExpressionCache() {
+		SpelExpressionCache expressionCache = new SpelExpressionCache(new SpelExpressionParser(), 1, 0);
+		TestExpressionEvaluator evaluator = new TestExpressionEvaluator(expressionCache);
+		assertSame(expressionCache, evaluator.getExpressionCache());
+		assertSame(expressionCache.getParser(), evaluator.getParser());
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		evaluator.getSharedExpression("true", method, getClass());
+		evaluator.getSharedExpression("true", method, Object.class);
+		assertEquals(1, expressionCache.size());
+		assertEquals(1, expressionCache.getEvictionCount());
+	}
+
 	private void hasParsedExpression(String expression) {
-		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
+		hasParsedExpression(expression, 1);
+	}
+
+	private void hasParsedExpression(String expression, int times) {
+		verify(expressionEvaluator.getParser(), times(times)).parseExpression(expression);
 	}
 
 	private static class TestExpressionEvaluator extends CachedExpressionEvaluator {
@@ -76,10 +105,18 @@ public class CachedExpressionEvaluatorTests {
 			super(mockSpelExpressionParser());
 		}
 
+		public TestExpressionEvaluator(SpelExpressionCache expressionCache) {
+			super(expressionCache);
+		}
+
 		public Expression getTestExpression(String expression, Method method, Class<?> type) {
 			return getExpression(this.testCache, new AnnotatedElementKey(method, type), expression);
 		}
 
+		public Expression getSharedExpression(String expression, Method method, Class<?> type) {
+			return getExpression(new AnnotatedElementKey(method, type), expression);
+		}
+
 		private static SpelExpressionParser mockSpelExpressionParser() {
 			SpelExpressionParser parser = new SpelExpressionParser();
 			return spy(parser);
@@ -16,6 +16,8 @@
 
 package org.springframework.context.index;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Properties;
@@ -23,6 +25,11 @@ import java.util.Set;
 
 import org.junit.Test;
 
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
@@ -77,6 +84,57 @@ public class CandidateComponentsIndexTests {
 				contains("com.example.Foo"));
 	}
 
+	@Test
+	public void getMetadataReader() {
+		String sample = "L" + Sample.class.getName().replace('.', '/') + ";";
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")),
+				Collections.singletonList(createProperties("com.example.Foo",
+						"1 1 com/example/Foo java/lang/Object java/io/Serializable - - com/example/Foo$Bar " +
+						"1 " + sample + " value sa+b numbers pI1,2 type cLjava/lang/String; ) " +
+						"1 9 create ()Ljava/lang/Object; 1 " + sample + " value s ) ")));
+		MetadataReader metadataReader = index.getMetadataReader("com.example.Foo", getClass().getClassLoader());
+		assertNotNull(metadataReader);
+		assertEquals("Foo.class", metadataReader.getResource().getFilename());
+
+		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+		assertEquals("com.example.Foo", metadata.getClassName());
+		assertEquals("java.lang.Object", metadata.getSuperClassName());
+		assertArrayEquals(new String[] {"java.io.Serializable"}, metadata.getInterfaceNames());
+		assertArrayEquals(new String[] {"com.example.Foo$Bar"}, metadata.getMemberClassNames());
+		assertTrue(metadata.isIndependent());
+		assertTrue(metadata.isConcrete());
+		AnnotationAttributes attributes = AnnotationAttributes.fromMap(
+				metadata.getAnnotationAttributes(Sample.class.getName()));
+		assertNotNull(attributes);
+		assertEquals("a b", attributes.getString("value"));
+		assertArrayEquals(new int[] {1, 2}, (int[]) attributes.get("numbers"));
+		assertEquals(String.class, attributes.getClass("type"));
+
+		Set<MethodMetadata> methods = metadata.getAnnotatedMethods(Sample.class.getName());
+		assertThat(methods, hasSize(1));
+		MethodMetadata method = methods.iterator().next();
+		assertEquals("create", method.getMethodName());
+		assertTrue(method.isStatic());
+		assertEquals("java.lang.Object", method.getReturnTypeName());
+		assertEquals("", method.getAnnotationAttributes(Sample.class.getName()).get("value"));
+	}
+
+	@Test
+	public void getMetadataReaderWithoutTypeMetadata() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createSampleProperties()));
+		assertNull(index.getMetadataReader("com.example.service.One", getClass().getClassLoader()));
+	}
+
+	@Test
+	public void getMetadataReaderWithUnsupportedFormat() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")),
+				Collections.singletonList(createProperties("com.example.Foo", "99 1 com/example/Foo")));
+		assertNull(index.getMetadataReader("com.example.Foo", getClass().getClassLoader()));
+	}
+
 	private static Properties createProperties(String key, String stereotypes) {
 		Properties properties = new Properties();
 		properties.put(key, String.join(",", stereotypes));
@@ -92,4 +150,15 @@ public class CandidateComponentsIndexTests {
 		return properties;
 	}
 
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Sample {
+
+		String value() default "";
+
+		int[] numbers() default {};
+
+		Class<?> type() default Object.class;
+	}
+
 }
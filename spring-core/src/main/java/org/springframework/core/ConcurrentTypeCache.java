@@ -0,0 +1,353 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Size-bounded cache for values derived from a {@link Type}, keyed on the type
+ * plus an optional owner and source. Used for the internal caches of
+ * {@link ResolvableType} and {@link SerializableTypeWrapper}.
+ *
+ * <p>Lookups are lock-free and do not allocate: the key components are matched
+ * directly against the entries of a fixed-size hash table with immutable bucket
+ * chains. Modifications are serialized on the cache instance.
+ *
+ * <p>Entries are strongly held, so that garbage collection does not flush the
+ * cache; its size is bounded instead. Once the maximum size is exceeded, entries
+ * are evicted in second-chance (clock) order: a lookup marks its entry as
+ * recently used, which spares the entry from the next eviction sweep that
+ * passes it. Cached application types keep their class loader alive until they
+ * are evicted or removed through {@link #clearClassLoader(ClassLoader)} when
+ * that class loader is released.
+ *
+ * @param <V> the type of cached values
+ * @since 5.1.1
+ * @see ResolvableType#getCacheStatistics()
+ */
+final class ConcurrentTypeCache<V> {
+
+	private final int maximumSize;
+
+	private final AtomicReferenceArray<Node<V>> table;
+
+	private volatile int size;
+
+	private int clockHand;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new {@code ConcurrentTypeCache} with the given maximum size.
+	 * @param maximumSize the maximum number of entries to hold
+	 */
+	ConcurrentTypeCache(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "Maximum size must be positive");
+		this.maximumSize = maximumSize;
+		this.table = new AtomicReferenceArray<>(tableSizeFor(maximumSize));
+	}
+
+
+	/**
+	 * Return the cached value for the given key components, if any.
+	 * @param type the type
+	 * @param owner the owner of the type, if any
+	 * @param source the source of the type, if any
+	 * @return the cached value or {@code null} if none
+	 */
+	@Nullable
+	V get(Type type, @Nullable Object owner, @Nullable Object source) {
+		int hash = hash(type, owner, source);
+		for (Node<V> node = this.table.get(indexFor(hash)); node != null; node = node.next) {
+			if (node.hash == hash) {
+				Entry<V> entry = node.entry;
+				if (entry.matches(type, owner, source)) {
+					// Only write the shared flag if not set yet; a lost update is harmless
+					if (!node.recentlyUsed) {
+						node.recentlyUsed = true;
+					}
+					this.hitCount.increment();
+					return entry.value;
+				}
+			}
+		}
+		this.missCount.increment();
+		return null;
+	}
+
+	/**
+	 * Add the given value for the given key components, unless a value has
+	 * been added concurrently, evicting other entries if necessary.
+	 * @param type the type
+	 * @param owner the owner of the type, if any
+	 * @param source the source of the type, if any
+	 * @param value the value to cache
+	 * @return the value that is cached for the given key components
+	 */
+	synchronized V put(Type type, @Nullable Object owner, @Nullable Object source, V value) {
+		int hash = hash(type, owner, source);
+		int index = indexFor(hash);
+		Node<V> head = this.table.get(index);
+		for (Node<V> node = head; node != null; node = node.next) {
+			Entry<V> entry = node.entry;
+			if (node.hash == hash && entry.matches(type, owner, source)) {
+				return entry.value;
+			}
+		}
+		Entry<V> entry = new Entry<>(type, owner, source, value);
+		this.table.set(index, new Node<>(hash, entry, head));
+		this.size++;
+		while (this.size > this.maximumSize) {
+			evictNext();
+		}
+		return value;
+	}
+
+	/**
+	 * Remove all entries from the cache. The statistics are retained.
+	 */
+	synchronized void clear() {
+		for (int i = 0; i < this.table.length(); i++) {
+			this.table.set(i, null);
+		}
+		this.size = 0;
+	}
+
+	/**
+	 * Remove all entries whose key components refer to a class loaded by the
+	 * given class loader or one of its children. The statistics are retained.
+	 * @param classLoader the class loader to release
+	 */
+	synchronized void clearClassLoader(ClassLoader classLoader) {
+		for (int i = 0; i < this.table.length(); i++) {
+			Node<V> head = this.table.get(i);
+			Node<V> retained = head;
+			for (Node<V> node = head; node != null; node = node.next) {
+				if (node.entry.refersTo(classLoader)) {
+					retained = without(retained, node);
+					this.size--;
+				}
+			}
+			if (retained != head) {
+				this.table.set(i, retained);
+			}
+		}
+	}
+
+	/**
+	 * Return the number of entries in the cache.
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Return a snapshot of the statistics of the cache.
+	 */
+	ResolvableType.CacheStatistics getStatistics() {
+		return new ResolvableType.CacheStatistics(this.size, this.maximumSize,
+				this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum());
+	}
+
+	/**
+	 * Advance the clock hand to the next bucket holding an entry that has not been
+	 * used since the previous sweep, and evict that entry. Entries passed along the
+	 * way lose their recently-used mark.
+	 */
+	private void evictNext() {
+		int mask = this.table.length() - 1;
+		while (true) {
+			int index = this.clockHand;
+			this.clockHand = (index + 1) & mask;
+			Node<V> head = this.table.get(index);
+			Node<V> victim = null;
+			for (Node<V> node = head; node != null; node = node.next) {
+				if (node.recentlyUsed) {
+					node.recentlyUsed = false;
+				}
+				else if (victim == null) {
+					victim = node;
+				}
+			}
+			if (head != null && victim != null) {
+				this.table.set(index, without(head, victim));
+				this.size--;
+				this.evictionCount.increment();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Rebuild the given bucket chain without the given node, leaving the
+	 * chain untouched for concurrent readers.
+	 */
+	@Nullable
+	private static <V> Node<V> without(Node<V> node, Node<V> victim) {
+		if (node == victim) {
+			return node.next;
+		}
+		Assert.state(node.next != null, "Victim not found in bucket chain");
+		return node.withNext(without(node.next, victim));
+	}
+
+	private int indexFor(int hash) {
+		return (hash ^ (hash >>> 16)) & (this.table.length() - 1);
+	}
+
+	private static int hash(Type type, @Nullable Object owner, @Nullable Object source) {
+		int hash = type.hashCode();
+		hash = 31 * hash + ObjectUtils.nullSafeHashCode(owner);
+		hash = 31 * hash + ObjectUtils.nullSafeHashCode(source);
+		return hash;
+	}
+
+	private static int tableSizeFor(int maximumSize) {
+		int size = 1;
+		while (size < maximumSize && size < (1 << 30)) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+
+	/**
+	 * A key-value pair of the cache.
+	 */
+	private static final class Entry<V> {
+
+		final Type type;
+
+		@Nullable
+		final Object owner;
+
+		@Nullable
+		final Object source;
+
+		final V value;
+
+		Entry(Type type, @Nullable Object owner, @Nullable Object source, V value) {
+			this.type = type;
+			this.owner = owner;
+			this.source = source;
+			this.value = value;
+		}
+
+		boolean matches(Type type, @Nullable Object owner, @Nullable Object source) {
+			return (this.type.equals(type) &&
+					ObjectUtils.nullSafeEquals(this.owner, owner) && ObjectUtils.nullSafeEquals(this.source, source));
+		}
+
+		boolean refersTo(ClassLoader classLoader) {
+			return (refersTo(this.type, classLoader) ||
+					refersTo(this.owner, classLoader) || refersTo(this.source, classLoader));
+		}
+
+		private static boolean refersTo(@Nullable Object candidate, ClassLoader classLoader) {
+			if (candidate instanceof Class) {
+				ClassLoader current = ((Class<?>) candidate).getClassLoader();
+				while (current != null) {
+					if (current == classLoader) {
+						return true;
+					}
+					current = current.getParent();
+				}
+				return false;
+			}
+			if (candidate instanceof ParameterizedType) {
+				ParameterizedType parameterizedType = (ParameterizedType) candidate;
+				if (refersTo(parameterizedType.getRawType(), classLoader) ||
+						refersTo(parameterizedType.getOwnerType(), classLoader)) {
+					return true;
+				}
+				return refersToAny(parameterizedType.getActualTypeArguments(), classLoader);
+			}
+			if (candidate instanceof GenericArrayType) {
+				return refersTo(((GenericArrayType) candidate).getGenericComponentType(), classLoader);
+			}
+			if (candidate instanceof WildcardType) {
+				WildcardType wildcardType = (WildcardType) candidate;
+				return (refersToAny(wildcardType.getUpperBounds(), classLoader) ||
+						refersToAny(wildcardType.getLowerBounds(), classLoader));
+			}
+			if (candidate instanceof TypeVariable) {
+				// The bounds may refer back to the variable; its declaration suffices
+				Object declaration = ((TypeVariable<?>) candidate).getGenericDeclaration();
+				return refersTo(declaration instanceof Member ?
+						((Member) declaration).getDeclaringClass() : declaration, classLoader);
+			}
+			if (candidate instanceof Member) {
+				return refersTo(((Member) candidate).getDeclaringClass(), classLoader);
+			}
+			return false;
+		}
+
+		private static boolean refersToAny(Type[] types, ClassLoader classLoader) {
+			for (Type type : types) {
+				if (refersTo(type, classLoader)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+
+	/**
+	 * A node of the hash table, chained per bucket. Chains are never modified.
+	 */
+	private static final class Node<V> {
+
+		final int hash;
+
+		final Entry<V> entry;
+
+		@Nullable
+		final Node<V> next;
+
+		boolean recentlyUsed;
+
+		Node(int hash, Entry<V> entry, @Nullable Node<V> next) {
+			this.hash = hash;
+			this.entry = entry;
+			this.next = next;
+		}
+
+		Node<V> withNext(@Nullable Node<V> next) {
+			Node<V> copy = new Node<>(this.hash, this.entry, next);
+			copy.recentlyUsed = this.recentlyUsed;
+			return copy;
+		}
+	}
+
+}
@@ -37,7 +37,6 @@ import org.springframework.core.SerializableTypeWrapper.TypeProvider;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -90,8 +89,9 @@ public class ResolvableType implements Serializable {
 
 	private static final ResolvableType[] EMPTY_TYPES_ARRAY = new ResolvableType[0];
 
-	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
-			new ConcurrentReferenceHashMap<>(256);
+	private static final int CACHE_LIMIT = 4096;
+
+	private static final ConcurrentTypeCache<ResolvableType> cache = new ConcurrentTypeCache<>(CACHE_LIMIT);
 
 
 	/**
@@ -121,7 +121,7 @@ public class ResolvableType implements Serializable {
 	private final Integer hash;
 
 	@Nullable
-	private Class<?> resolved;
+	private final Class<?> resolved;
 
 	@Nullable
 	private volatile ResolvableType superType;
@@ -134,8 +134,9 @@ public class ResolvableType implements Serializable {
 
 
 	/**
-	 * Private constructor used to create a new {@link ResolvableType} for cache key purposes,
-	 * with no upfront resolution.
+	 * Private constructor used to create a new {@link ResolvableType} for cache value purposes,
+	 * with upfront resolution and an eagerly calculated hash.
+	 * @since 5.1.1
 	 */
 	private ResolvableType(
 			Type type, @Nullable TypeProvider typeProvider, @Nullable VariableResolver variableResolver) {
@@ -145,12 +146,12 @@ public class ResolvableType implements Serializable {
 		this.variableResolver = variableResolver;
 		this.componentType = null;
 		this.hash = calculateHashCode();
-		this.resolved = null;
+		this.resolved = resolveClass();
 	}
 
 	/**
-	 * Private constructor used to create a new {@link ResolvableType} for cache value purposes,
-	 * with upfront resolution and a pre-calculated hash.
+	 * Private constructor used to create a new {@link ResolvableType} with a pre-calculated
+	 * hash and upfront resolution.
 	 * @since 4.2
 	 */
 	private ResolvableType(Type type, @Nullable TypeProvider typeProvider,
@@ -164,6 +165,22 @@ public class ResolvableType implements Serializable {
 		this.resolved = resolveClass();
 	}
 
+	/**
+	 * Private constructor used to create a new {@link ResolvableType} for a cached type,
+	 * reusing the pre-calculated hash and resolution of the cache value.
+	 * @since 5.1.1
+	 */
+	private ResolvableType(Type type, @Nullable TypeProvider typeProvider,
+			@Nullable VariableResolver variableResolver, @Nullable Integer hash, @Nullable Class<?> resolved) {
+
+		this.type = type;
+		this.typeProvider = typeProvider;
+		this.variableResolver = variableResolver;
+		this.componentType = null;
+		this.hash = hash;
+		this.resolved = resolved;
+	}
+
 	/**
 	 * Private constructor used to create a new {@link ResolvableType} for uncached purposes,
 	 * with upfront resolution but lazily calculated hash.
@@ -1410,18 +1427,15 @@ public class ResolvableType implements Serializable {
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
-		// Purge empty entries on access since we don't have a clean-up thread or the like.
-		cache.purgeUnreferencedEntries();
-
 		// Check the cache - we may have a ResolvableType which has been resolved before...
-		ResolvableType resultType = new ResolvableType(type, typeProvider, variableResolver);
-		ResolvableType cachedType = cache.get(resultType);
+		// The lookup is keyed on the components of the type, without creating a key instance.
+		Type owner = (typeProvider != null ? typeProvider.getType() : null);
+		Object source = (variableResolver != null ? variableResolver.getSource() : null);
+		ResolvableType cachedType = cache.get(type, owner, source);
 		if (cachedType == null) {
-			cachedType = new ResolvableType(type, typeProvider, variableResolver, resultType.hash);
-			cache.put(cachedType, cachedType);
+			cachedType = cache.put(type, owner, source, new ResolvableType(type, typeProvider, variableResolver));
 		}
-		resultType.resolved = cachedType.resolved;
-		return resultType;
+		return new ResolvableType(type, typeProvider, variableResolver, cachedType.hash, cachedType.resolved);
 	}
 
 	/**
@@ -1433,6 +1447,44 @@ public class ResolvableType implements Serializable {
 		SerializableTypeWrapper.cache.clear();
 	}
 
+	/**
+	 * Remove the entries of the internal {@code ResolvableType}/{@code SerializableTypeWrapper}
+	 * cache that refer to classes loaded by the given class loader or one of its children.
+	 * <p>The cache holds its entries strongly; call this method when the class loader
+	 * is released, e.g. on web application shutdown, so that the cache does not keep
+	 * the class loader alive.
+	 * @param classLoader the class loader to release
+	 * @since 5.1.1
+	 * @see #clearCache()
+	 */
+	public static void clearCache(@Nullable ClassLoader classLoader) {
+		if (classLoader != null) {
+			cache.clearClassLoader(classLoader);
+			SerializableTypeWrapper.cache.clearClassLoader(classLoader);
+		}
+	}
+
+	/**
+	 * Return the statistics of the internal {@code ResolvableType} cache.
+	 * <p>The cache holds the resolution of non-{@link Class} types, bounded to a
+	 * fixed number of strongly held entries with approximate LRU eviction.
+	 * @since 5.1.1
+	 * @see #clearCache()
+	 */
+	public static CacheStatistics getCacheStatistics() {
+		return cache.getStatistics();
+	}
+
+	/**
+	 * Return the statistics of the internal {@code SerializableTypeWrapper} cache
+	 * of serializable type proxies.
+	 * @since 5.1.1
+	 * @see #clearCache()
+	 */
+	public static CacheStatistics getTypeProxyCacheStatistics() {
+		return SerializableTypeWrapper.cache.getStatistics();
+	}
+
 
 	/**
 	 * Strategy interface used to resolve {@link TypeVariable TypeVariables}.
@@ -1656,6 +1708,84 @@ public class ResolvableType implements Serializable {
 	}
 
 
+	/**
+	 * Snapshot of the statistics of an internal type cache.
+	 * @since 5.1.1
+	 * @see #getCacheStatistics()
+	 * @see #getTypeProxyCacheStatistics()
+	 */
+	public static final class CacheStatistics {
+
+		private final int size;
+
+		private final int maximumSize;
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		CacheStatistics(int size, int maximumSize, long hitCount, long missCount, long evictionCount) {
+			this.size = size;
+			this.maximumSize = maximumSize;
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+		}
+
+		/**
+		 * Return the current number of entries in the cache.
+		 */
+		public int getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Return the maximum number of entries in the cache.
+		 */
+		public int getMaximumSize() {
+			return this.maximumSize;
+		}
+
+		/**
+		 * Return the number of lookups that found a cached entry.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * Return the number of lookups that did not find a cached entry.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Return the ratio of lookups that found a cached entry,
+		 * or {@code 1.0} if there have been no lookups yet.
+		 */
+		public double getHitRate() {
+			long lookups = this.hitCount + this.missCount;
+			return (lookups != 0 ? (double) this.hitCount / lookups : 1.0);
+		}
+
+		/**
+		 * Return the number of entries that have been evicted from the cache.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		@Override
+		public String toString() {
+			return "size = " + this.size + "/" + this.maximumSize + ", hits = " + this.hitCount +
+					", misses = " + this.missCount + ", evictions = " + this.evictionCount;
+		}
+	}
+
+
 	/**
 	 * Internal {@link Type} used to represent an empty value.
 	 */
@@ -31,7 +31,6 @@ import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 
 import org.springframework.lang.Nullable;
-import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 
@@ -58,7 +57,7 @@ final class SerializableTypeWrapper {
 	private static final Class<?>[] SUPPORTED_SERIALIZABLE_TYPES = {
 			GenericArrayType.class, ParameterizedType.class, TypeVariable.class, WildcardType.class};
 
-	static final ConcurrentReferenceHashMap<Type, Type> cache = new ConcurrentReferenceHashMap<>(256);
+	static final ConcurrentTypeCache<Type> cache = new ConcurrentTypeCache<>(4096);
 
 
 	private SerializableTypeWrapper() {
@@ -115,7 +114,7 @@ final class SerializableTypeWrapper {
 		}
 
 		// Obtain a serializable type proxy for the given provider...
-		Type cached = cache.get(providedType);
+		Type cached = cache.get(providedType, null, null);
 		if (cached != null) {
 			return cached;
 		}
@@ -125,8 +124,7 @@ final class SerializableTypeWrapper {
 				Class<?>[] interfaces = new Class<?>[] {type, SerializableTypeProxy.class, Serializable.class};
 				InvocationHandler handler = new TypeProxyInvocationHandler(provider);
 				cached = (Type) Proxy.newProxyInstance(classLoader, interfaces, handler);
-				cache.put(providedType, cached);
-				return cached;
+				return cache.put(providedType, null, null, cached);
 			}
 		}
 		throw new IllegalArgumentException("Unsupported Type class: " + providedType.getClass().getName());
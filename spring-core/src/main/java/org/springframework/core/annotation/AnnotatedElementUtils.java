@@ -19,6 +19,7 @@ package org.springframework.core.annotation;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -26,6 +27,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * General utility methods for finding annotations, meta-annotations, and
@@ -99,6 +101,9 @@ public abstract class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	private static final Map<AnnotatedElement, MergedAnnotationIndex> mergedAnnotationIndexCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -293,6 +298,14 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
+		MergedAnnotationView<?> view = getMergedAnnotationView(element, annotationType);
+		return (view != null ? view.asAnnotationAttributes() : null);
+	}
+
+	@Nullable
+	private static AnnotationAttributes doGetMergedAnnotationAttributes(
+			AnnotatedElement element, Class<? extends Annotation> annotationType) {
+
 		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor());
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
@@ -378,20 +391,38 @@ public abstract class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
-		// Shortcut: directly present on the element, with no merging needed?
-		A annotation = element.getDeclaredAnnotation(annotationType);
-		if (annotation != null) {
-			return AnnotationUtils.synthesizeAnnotation(annotation, element);
-		}
+		MergedAnnotationView<A> view = getMergedAnnotationView(element, annotationType);
+		return (view != null ? view.synthesize() : null);
+	}
+
+	/**
+	 * Get the first annotation of the specified {@code annotationType} within
+	 * the annotation hierarchy <em>above</em> the supplied {@code element} and
+	 * return a view of that annotation's attributes, merged with <em>matching</em>
+	 * attributes from annotations in lower levels of the annotation hierarchy.
+	 * <p>{@link AliasFor @AliasFor} semantics are fully supported, both
+	 * within a single annotation and within the annotation hierarchy.
+	 * <p>The merged attributes are computed once per element and annotation
+	 * type; the returned view gives access to them without synthesizing
+	 * the annotation.
+	 * <p>This method follows <em>get semantics</em> as described in the
+	 * {@linkplain AnnotatedElementUtils class-level javadoc}.
+	 * @param element the annotated element
+	 * @param annotationType the annotation type to find
+	 * @return the view of the merged attributes, or {@code null} if not found
+	 * @since 5.1.1
+	 * @see #getMergedAnnotation(AnnotatedElement, Class)
+	 * @see #findMergedAnnotationView(AnnotatedElement, Class)
+	 */
+	@Nullable
+	public static <A extends Annotation> MergedAnnotationView<A> getMergedAnnotationView(
+			AnnotatedElement element, Class<A> annotationType) {
 
 		// Shortcut: no searchable annotations to be found on plain Java classes and org.springframework.lang types...
-		if (AnnotationUtils.hasPlainJavaAnnotationsOnly(element)) {
+		if (AnnotationUtils.hasPlainJavaAnnotationsOnly(element) && element.getDeclaredAnnotation(annotationType) == null) {
 			return null;
 		}
-
-		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return getMergedAnnotationIndex(element).getView(annotationType, false);
 	}
 
 	/**
@@ -627,6 +658,17 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
+		if (!classValuesAsString && !nestedAnnotationsAsMap) {
+			MergedAnnotationView<?> view = findMergedAnnotationView(element, annotationType);
+			return (view != null ? view.asAnnotationAttributes() : null);
+		}
+		return doFindMergedAnnotationAttributes(element, annotationType, classValuesAsString, nestedAnnotationsAsMap);
+	}
+
+	@Nullable
+	private static AnnotationAttributes doFindMergedAnnotationAttributes(AnnotatedElement element,
+			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
 		AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
@@ -690,20 +732,38 @@ public abstract class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
-		// Shortcut: directly present on the element, with no merging needed?
-		A annotation = element.getDeclaredAnnotation(annotationType);
-		if (annotation != null) {
-			return AnnotationUtils.synthesizeAnnotation(annotation, element);
-		}
+		MergedAnnotationView<A> view = findMergedAnnotationView(element, annotationType);
+		return (view != null ? view.synthesize() : null);
+	}
+
+	/**
+	 * Find the first annotation of the specified {@code annotationType} within
+	 * the annotation hierarchy <em>above</em> the supplied {@code element} and
+	 * return a view of that annotation's attributes, merged with <em>matching</em>
+	 * attributes from annotations in lower levels of the annotation hierarchy.
+	 * <p>{@link AliasFor @AliasFor} semantics are fully supported, both
+	 * within a single annotation and within the annotation hierarchy.
+	 * <p>The merged attributes are computed once per element and annotation
+	 * type; the returned view gives access to them without synthesizing
+	 * the annotation.
+	 * <p>This method follows <em>find semantics</em> as described in the
+	 * {@linkplain AnnotatedElementUtils class-level javadoc}.
+	 * @param element the annotated element
+	 * @param annotationType the annotation type to find
+	 * @return the view of the merged attributes, or {@code null} if not found
+	 * @since 5.1.1
+	 * @see #findMergedAnnotation(AnnotatedElement, Class)
+	 * @see #getMergedAnnotationView(AnnotatedElement, Class)
+	 */
+	@Nullable
+	public static <A extends Annotation> MergedAnnotationView<A> findMergedAnnotationView(
+			AnnotatedElement element, Class<A> annotationType) {
 
 		// Shortcut: no searchable annotations to be found on plain Java classes and org.springframework.lang types...
-		if (AnnotationUtils.hasPlainJavaAnnotationsOnly(element)) {
+		if (AnnotationUtils.hasPlainJavaAnnotationsOnly(element) && element.getDeclaredAnnotation(annotationType) == null) {
 			return null;
 		}
-
-		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return getMergedAnnotationIndex(element).getView(annotationType, true);
 	}
 
 	/**
@@ -1332,6 +1392,31 @@ public abstract class AnnotatedElementUtils {
 		}
 	}
 
+	/**
+	 * Retrieve the {@link MergedAnnotationIndex} for the supplied {@code element}.
+	 * @since 5.1.1
+	 */
+	private static MergedAnnotationIndex getMergedAnnotationIndex(AnnotatedElement element) {
+		MergedAnnotationIndex index = mergedAnnotationIndexCache.get(element);
+		if (index == null) {
+			index = new MergedAnnotationIndex(element);
+			MergedAnnotationIndex existing = mergedAnnotationIndexCache.putIfAbsent(element, index);
+			if (existing != null) {
+				index = existing;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Clear the index of merged annotations.
+	 * @since 5.1.1
+	 * @see AnnotationUtils#clearCache()
+	 */
+	static void clearMergedAnnotationIndex() {
+		mergedAnnotationIndexCache.clear();
+	}
+
 	/**
 	 * Post-process the aggregated results into a set of synthesized annotations.
 	 * @param element the annotated element
@@ -1354,6 +1439,54 @@ public abstract class AnnotatedElementUtils {
 	}
 
 
+	/**
+	 * Index of the merged annotations of an {@link AnnotatedElement}, computing
+	 * the {@link MergedAnnotationView} for each annotation type once, separately
+	 * for <em>get</em> and <em>find</em> semantics.
+	 * @since 5.1.1
+	 */
+	private static class MergedAnnotationIndex {
+
+		private static final Object NOT_FOUND = new Object();
+
+		private final AnnotatedElement element;
+
+		private final Map<Class<? extends Annotation>, Object> viewsWithGetSemantics = new ConcurrentHashMap<>(4);
+
+		private final Map<Class<? extends Annotation>, Object> viewsWithFindSemantics = new ConcurrentHashMap<>(4);
+
+		MergedAnnotationIndex(AnnotatedElement element) {
+			this.element = element;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Nullable
+		<A extends Annotation> MergedAnnotationView<A> getView(Class<A> annotationType, boolean findSemantics) {
+			Map<Class<? extends Annotation>, Object> views =
+					(findSemantics ? this.viewsWithFindSemantics : this.viewsWithGetSemantics);
+			Object view = views.get(annotationType);
+			if (view == null) {
+				view = createView(annotationType, findSemantics);
+				views.put(annotationType, (view != null ? view : NOT_FOUND));
+			}
+			return (view != NOT_FOUND ? (MergedAnnotationView<A>) view : null);
+		}
+
+		@Nullable
+		private <A extends Annotation> MergedAnnotationView<A> createView(Class<A> annotationType, boolean findSemantics) {
+			AnnotationAttributes attributes = (findSemantics ?
+					doFindMergedAnnotationAttributes(this.element, annotationType, false, false) :
+					doGetMergedAnnotationAttributes(this.element, annotationType));
+			if (attributes == null) {
+				return null;
+			}
+			// Directly present on the element, with no merging needed?
+			A declaredAnnotation = this.element.getDeclaredAnnotation(annotationType);
+			return new MergedAnnotationView<>(annotationType, this.element, attributes, declaredAnnotation);
+		}
+	}
+
+
 	/**
 	 * Callback interface that is used to process annotations during a search.
 	 * <p>Depending on the use case, a processor may choose to {@linkplain #process}
@@ -1981,6 +1981,7 @@ public abstract class AnnotationUtils {
 		attributeAliasesCache.clear();
 		attributeMethodsCache.clear();
 		aliasDescriptorCache.clear();
+		AnnotatedElementUtils.clearMergedAnnotationIndex();
 	}
 
 
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Read-only view of the merged attributes of an annotation within the
+ * annotation hierarchy of an {@link AnnotatedElement}.
+ *
+ * <p>Views are computed once per element and annotation type by
+ * {@link AnnotatedElementUtils#findMergedAnnotationView} and
+ * {@link AnnotatedElementUtils#getMergedAnnotationView}, with attribute
+ * overrides and {@link AliasFor @AliasFor} semantics already applied.
+ * In contrast to {@link AnnotatedElementUtils#findMergedAnnotation}, attribute
+ * values can be accessed without synthesizing the annotation. Array values
+ * are returned as copies.
+ *
+ * @param <A> the annotation type
+ * @since 5.1.1
+ * @see AnnotatedElementUtils#findMergedAnnotationView(AnnotatedElement, Class)
+ * @see AnnotatedElementUtils#getMergedAnnotationView(AnnotatedElement, Class)
+ */
+public final class MergedAnnotationView<A extends Annotation> {
+
+	private final Class<A> annotationType;
+
+	private final AnnotatedElement element;
+
+	private final AnnotationAttributes attributes;
+
+	@Nullable
+	private final A declaredAnnotation;
+
+	@Nullable
+	private volatile A synthesizedAnnotation;
+
+
+	MergedAnnotationView(Class<A> annotationType, AnnotatedElement element,
+			AnnotationAttributes attributes, @Nullable A declaredAnnotation) {
+
+		this.annotationType = annotationType;
+		this.element = element;
+		this.attributes = attributes;
+		this.declaredAnnotation = declaredAnnotation;
+	}
+
+
+	/**
+	 * Return the type of the annotation.
+	 */
+	public Class<A> annotationType() {
+		return this.annotationType;
+	}
+
+	/**
+	 * Determine whether the annotation declares an attribute of the given name.
+	 * @param attributeName the name of the attribute
+	 */
+	public boolean hasAttribute(String attributeName) {
+		return this.attributes.containsKey(attributeName);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute.
+	 * @param attributeName the name of the attribute to get
+	 * @return the value, with arrays copied
+	 * @throws IllegalArgumentException if the attribute does not exist
+	 */
+	public Object getValue(String attributeName) {
+		Object value = this.attributes.get(attributeName);
+		if (value == null) {
+			throw new IllegalArgumentException(String.format(
+					"Attribute '%s' not found in attributes for annotation [%s]",
+					attributeName, this.annotationType.getName()));
+		}
+		return copyIfArray(value);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as a string.
+	 * @see AnnotationAttributes#getString(String)
+	 */
+	public String getString(String attributeName) {
+		return this.attributes.getString(attributeName);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as an array of strings.
+	 * @see AnnotationAttributes#getStringArray(String)
+	 */
+	public String[] getStringArray(String attributeName) {
+		return this.attributes.getStringArray(attributeName).clone();
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as a boolean.
+	 * @see AnnotationAttributes#getBoolean(String)
+	 */
+	public boolean getBoolean(String attributeName) {
+		return this.attributes.getBoolean(attributeName);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as a number.
+	 * @see AnnotationAttributes#getNumber(String)
+	 */
+	public <N extends Number> N getNumber(String attributeName) {
+		return this.attributes.getNumber(attributeName);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as an enum.
+	 * @see AnnotationAttributes#getEnum(String)
+	 */
+	public <E extends Enum<?>> E getEnum(String attributeName) {
+		return this.attributes.getEnum(attributeName);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as a class.
+	 * @see AnnotationAttributes#getClass(String)
+	 */
+	public <T> Class<? extends T> getClass(String attributeName) {
+		return this.attributes.getClass(attributeName);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as an array of classes.
+	 * @see AnnotationAttributes#getClassArray(String)
+	 */
+	public Class<?>[] getClassArray(String attributeName) {
+		return this.attributes.getClassArray(attributeName).clone();
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as a (synthesized) annotation.
+	 * @see AnnotationAttributes#getAnnotation(String, Class)
+	 */
+	public <N extends Annotation> N getAnnotation(String attributeName, Class<N> annotationType) {
+		return this.attributes.getAnnotation(attributeName, annotationType);
+	}
+
+	/**
+	 * Get the merged value of the specified attribute as an array of (synthesized) annotations.
+	 * @see AnnotationAttributes#getAnnotationArray(String, Class)
+	 */
+	public <N extends Annotation> N[] getAnnotationArray(String attributeName, Class<N> annotationType) {
+		return this.attributes.getAnnotationArray(attributeName, annotationType).clone();
+	}
+
+	/**
+	 * Return the merged attributes as a new, mutable {@link AnnotationAttributes}
+	 * instance, with arrays copied.
+	 */
+	public AnnotationAttributes asAnnotationAttributes() {
+		AnnotationAttributes copy = new AnnotationAttributes(this.attributes);
+		for (Map.Entry<String, Object> entry : copy.entrySet()) {
+			entry.setValue(copyIfArray(entry.getValue()));
+		}
+		return copy;
+	}
+
+	/**
+	 * Synthesize the merged attributes back into an annotation of the
+	 * view's annotation type.
+	 * <p>The synthesized annotation is created on first access and reused
+	 * for subsequent invocations.
+	 * @see AnnotationUtils#synthesizeAnnotation(Map, Class, AnnotatedElement)
+	 */
+	public A synthesize() {
+		A synthesized = this.synthesizedAnnotation;
+		if (synthesized == null) {
+			synthesized = (this.declaredAnnotation != null ?
+					AnnotationUtils.synthesizeAnnotation(this.declaredAnnotation, this.element) :
+					AnnotationUtils.synthesizeAnnotation(this.attributes, this.annotationType, this.element));
+			this.synthesizedAnnotation = synthesized;
+		}
+		return synthesized;
+	}
+
+	@Nullable
+	private static Object copyIfArray(@Nullable Object value) {
+		return (value != null && value.getClass().isArray() ?
+				SynthesizedAnnotationInvocationHandler.cloneArray(value) : value);
+	}
+
+	@Override
+	public String toString() {
+		return "@" + this.annotationType.getName() + this.attributes + " on " + this.element;
+	}
+
+}
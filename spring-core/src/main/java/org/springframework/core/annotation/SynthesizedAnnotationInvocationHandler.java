@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -119,7 +119,7 @@ class SynthesizedAnnotationInvocationHandler implements InvocationHandler {
 	 * retained.
 	 * @param array the array to clone
 	 */
-	private Object cloneArray(Object array) {
+	static Object cloneArray(Object array) {
 		if (array instanceof boolean[]) {
 			return ((boolean[]) array).clone();
 		}
@@ -16,9 +16,12 @@
 
 package org.springframework.core.codec;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 import java.util.OptionalLong;
 
@@ -59,6 +62,8 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 
 	private final int bufferSize;
 
+	private boolean useMemoryMapping = false;
+
 
 	public ResourceRegionEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -70,6 +75,29 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Whether to read regions of file resources through memory mappings, via
+	 * {@link DataBufferUtils#readMappedFileChannel}, instead of asynchronous reads
+	 * into allocated buffers.
+	 * <p>This avoids copying the file content onto the heap, but pages the content
+	 * in on the thread that writes the response, and keeps the file mapped until
+	 * the buffers are garbage collected. See {@code readMappedFileChannel} for
+	 * the details of these trade-offs.
+	 * <p>By default this is set to {@code false}.
+	 * @since 5.1.1
+	 */
+	public void setUseMemoryMapping(boolean useMemoryMapping) {
+		this.useMemoryMapping = useMemoryMapping;
+	}
+
+	/**
+	 * Whether regions of file resources are read through memory mappings.
+	 * @since 5.1.1
+	 */
+	public boolean isUseMemoryMapping() {
+		return this.useMemoryMapping;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return super.canEncode(elementType, mimeType)
@@ -127,6 +155,20 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 					"Writing region " + position + "-" + (position + count) + " of [" + resource + "]");
 		}
 
+		if (this.useMemoryMapping) {
+			try {
+				if (resource.isFile()) {
+					File file = resource.getFile();
+					return DataBufferUtils.readMappedFileChannel(
+							() -> FileChannel.open(file.toPath(), StandardOpenOption.READ),
+							position, count, bufferFactory, this.bufferSize);
+				}
+			}
+			catch (IOException ignore) {
+				// fallback to DataBufferUtils.read(Resource, ...), below
+			}
+		}
+
 		Flux<DataBuffer> in = DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize);
 		return DataBufferUtils.takeUntilByteCount(in, count);
 	}
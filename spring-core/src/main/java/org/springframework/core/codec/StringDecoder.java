@@ -21,18 +21,17 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.PooledDataBuffer;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -56,8 +55,6 @@ import org.springframework.util.MimeTypeUtils;
  */
 public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 
-	private static final DataBuffer END_FRAME = new DefaultDataBufferFactory().wrap(new byte[0]);
-
 	/**
 	 * The default charset to use, i.e. "UTF-8".
 	 */
@@ -91,112 +88,26 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 	public Flux<String> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		List<byte[]> delimiterBytes = getDelimiterBytes(mimeType);
+		byte[][] delimiterBytes = getDelimiterBytes(mimeType);
 
-		Flux<DataBuffer> inputFlux = Flux.from(inputStream)
-				.flatMap(dataBuffer -> splitOnDelimiter(dataBuffer, delimiterBytes))
-				.bufferUntil(StringDecoder::isEndFrame)
-				.flatMap(StringDecoder::joinUntilEndFrame);
+		Flux<DataBuffer> inputFlux = Flux.defer(() -> {
+			LineSplitter splitter = new LineSplitter(DataBufferUtils.matcher(delimiterBytes), this.stripDelimiter);
+			return Flux.from(inputStream)
+					.concatMapIterable(splitter::split)
+					.concatWith(Flux.defer(() -> Flux.fromIterable(splitter.flush())))
+					.doFinally(signalType -> splitter.discard())
+					.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+		});
 		return super.decode(inputFlux, elementType, mimeType, hints);
 	}
 
-	private List<byte[]> getDelimiterBytes(@Nullable MimeType mimeType) {
+	private byte[][] getDelimiterBytes(@Nullable MimeType mimeType) {
 		Charset charset = getCharset(mimeType);
-		return this.delimiters.stream()
-				.map(s -> s.getBytes(charset))
-				.collect(Collectors.toList());
-	}
-
-	/**
-	 * Splits the given data buffer on delimiter boundaries. The returned Flux contains a
-	 * {@link #END_FRAME} buffer after each delimiter.
-	 */
-	private Flux<DataBuffer> splitOnDelimiter(DataBuffer dataBuffer, List<byte[]> delimiterBytes) {
-		List<DataBuffer> frames = new ArrayList<>();
-		do {
-			int length = Integer.MAX_VALUE;
-			byte[] matchingDelimiter = null;
-			for (byte[] delimiter : delimiterBytes) {
-				int idx = indexOf(dataBuffer, delimiter);
-				if (idx >= 0 && idx < length) {
-					length = idx;
-					matchingDelimiter = delimiter;
-				}
-			}
-			DataBuffer frame;
-			int readPosition = dataBuffer.readPosition();
-			if (matchingDelimiter != null) {
-				if (this.stripDelimiter) {
-					frame = dataBuffer.slice(readPosition, length);
-				}
-				else {
-					frame = dataBuffer.slice(readPosition, length + matchingDelimiter.length);
-				}
-				dataBuffer.readPosition(readPosition + length + matchingDelimiter.length);
-
-				frames.add(DataBufferUtils.retain(frame));
-				frames.add(END_FRAME);
-			}
-			else {
-				frame = dataBuffer.slice(readPosition, dataBuffer.readableByteCount());
-				dataBuffer.readPosition(readPosition + dataBuffer.readableByteCount());
-				frames.add(DataBufferUtils.retain(frame));
-			}
-		}
-		while (dataBuffer.readableByteCount() > 0);
-
-		DataBufferUtils.release(dataBuffer);
-		return Flux.fromIterable(frames);
-	}
-
-	/**
-	 * Finds the given delimiter in the given data buffer. Return the index of the delimiter, or
-	 * -1 if not found.
-	 */
-	private static int indexOf(DataBuffer dataBuffer, byte[] delimiter) {
-		for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
-			int dataBufferPos = i;
-			int delimiterPos = 0;
-			while (delimiterPos < delimiter.length) {
-				if (dataBuffer.getByte(dataBufferPos) != delimiter[delimiterPos]) {
-					break;
-				}
-				else {
-					dataBufferPos++;
-					if (dataBufferPos == dataBuffer.writePosition() &&
-							delimiterPos != delimiter.length - 1) {
-						return -1;
-					}
-				}
-				delimiterPos++;
-			}
-
-			if (delimiterPos == delimiter.length) {
-				return i - dataBuffer.readPosition();
-			}
-		}
-		return -1;
-	}
-
-	/**
-	 * Checks whether the given buffer is {@link #END_FRAME}.
-	 */
-	private static boolean isEndFrame(DataBuffer dataBuffer) {
-		return dataBuffer == END_FRAME;
-	}
-
-	/**
-	 * Joins the given list of buffers into a single buffer.
-	 */
-	private static Mono<DataBuffer> joinUntilEndFrame(List<DataBuffer> dataBuffers) {
-		if (!dataBuffers.isEmpty()) {
-			int lastIdx = dataBuffers.size() - 1;
-			if (isEndFrame(dataBuffers.get(lastIdx))) {
-				dataBuffers.remove(lastIdx);
-			}
+		byte[][] result = new byte[this.delimiters.size()][];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = this.delimiters.get(i).getBytes(charset);
 		}
-		Flux<DataBuffer> flux = Flux.fromIterable(dataBuffers);
-		return DataBufferUtils.join(flux);
+		return result;
 	}
 
 	@Override
@@ -277,4 +188,129 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 	}
 
 
+	/**
+	 * Splits a stream of data buffers into frames, based on a {@link DataBufferUtils.Matcher}
+	 * that scans each buffer once. Frames are sliced out of the incoming buffers, and
+	 * only joined when they span multiple buffers.
+	 */
+	private static class LineSplitter {
+
+		private final DataBufferUtils.Matcher matcher;
+
+		private final boolean stripDelimiter;
+
+		private final List<DataBuffer> pending = new ArrayList<>();
+
+		private boolean discarded;
+
+		LineSplitter(DataBufferUtils.Matcher matcher, boolean stripDelimiter) {
+			this.matcher = matcher;
+			this.stripDelimiter = stripDelimiter;
+		}
+
+		/**
+		 * Return the frames completed by the given buffer, keeping the remainder
+		 * until the next delimiter or the end of the stream.
+		 * <p>Synchronized with {@link #discard()}, which a cancel signal may
+		 * invoke concurrently; buffers arriving after that are released.
+		 */
+		public synchronized List<DataBuffer> split(DataBuffer dataBuffer) {
+			if (this.discarded) {
+				DataBufferUtils.release(dataBuffer);
+				return Collections.emptyList();
+			}
+			List<DataBuffer> frames = null;
+			try {
+				while (this.matcher.match(dataBuffer)) {
+					int end = this.matcher.end();
+					int readPosition = dataBuffer.readPosition();
+					int following = 0;
+					if (end >= readPosition) {
+						this.pending.add(DataBufferUtils.retain(dataBuffer.slice(readPosition, end + 1 - readPosition)));
+						dataBuffer.readPosition(end + 1);
+					}
+					else {
+						// The delimiter ended in a previous buffer, held back for a longer match
+						following = readPosition - 1 - end;
+					}
+					if (frames == null) {
+						frames = new ArrayList<>();
+					}
+					frames.add(joinPending(this.matcher.delimiter().length, following));
+				}
+				if (dataBuffer.readableByteCount() > 0 || (frames == null && this.pending.isEmpty())) {
+					int readPosition = dataBuffer.readPosition();
+					this.pending.add(DataBufferUtils.retain(dataBuffer.slice(readPosition, dataBuffer.readableByteCount())));
+				}
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+			return (frames != null ? frames : Collections.emptyList());
+		}
+
+		/**
+		 * Return the frames delimited by delimiters held back for a longer match,
+		 * followed by the last, undelimited frame, if any.
+		 */
+		public synchronized List<DataBuffer> flush() {
+			if (this.discarded) {
+				return Collections.emptyList();
+			}
+			List<DataBuffer> frames = new ArrayList<>();
+			while (this.matcher.finish()) {
+				frames.add(joinPending(this.matcher.delimiter().length, -1 - this.matcher.end()));
+			}
+			if (!this.pending.isEmpty()) {
+				frames.add(joinPending(0, 0));
+			}
+			return frames;
+		}
+
+		/**
+		 * Release buffers held after cancellation or an error. Frames already
+		 * returned from {@link #split} are released through the discard hook.
+		 */
+		public synchronized void discard() {
+			this.discarded = true;
+			this.pending.forEach(DataBufferUtils::release);
+			this.pending.clear();
+		}
+
+		/**
+		 * Join the pending buffers into a frame, except for the given number of
+		 * trailing bytes, which remain pending.
+		 */
+		private DataBuffer joinPending(int delimiterLength, int following) {
+			List<DataBuffer> remaining = new ArrayList<>();
+			while (following > 0) {
+				DataBuffer last = this.pending.get(this.pending.size() - 1);
+				int count = last.readableByteCount();
+				if (count <= following) {
+					remaining.add(0, this.pending.remove(this.pending.size() - 1));
+					following -= count;
+				}
+				else {
+					int writePosition = last.writePosition();
+					remaining.add(0, DataBufferUtils.retain(last.slice(writePosition - following, following)));
+					last.writePosition(writePosition - following);
+					following = 0;
+				}
+			}
+			DataBuffer frame;
+			if (this.pending.size() == 1) {
+				frame = this.pending.get(0);
+			}
+			else {
+				frame = this.pending.get(0).factory().join(new ArrayList<>(this.pending));
+			}
+			this.pending.clear();
+			this.pending.addAll(remaining);
+			if (this.stripDelimiter && delimiterLength > 0) {
+				frame.writePosition(frame.writePosition() - delimiterLength);
+			}
+			return frame;
+		}
+	}
+
 }
@@ -29,6 +29,7 @@ import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Base {@link ConversionService} implementation suitable for use in most environments.
@@ -65,6 +66,21 @@ public class GenericConversionService implements ConfigurableConversionService {
      */
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/**
+	 * Converters for raw source and target classes, indexed by source class and then
+	 * by target class, so that lookups neither create cache keys nor type descriptors.
+	 * Only holds cache-safe classes, hence no need for references.
+	 */
+	private final Map<Class<?>, Map<Class<?>, ClassPairConverter>> classPairCache = new ConcurrentHashMap<>(64);
+
+	/**
+	 * Whether the class pair cache may be used, i.e. whether none of
+	 * {@link #canConvert(TypeDescriptor, TypeDescriptor)},
+	 * {@link #convert(Object, TypeDescriptor, TypeDescriptor)} and
+	 * {@link #getConverter(TypeDescriptor, TypeDescriptor)} has been overridden.
+	 */
+	private final boolean classPairCacheEnabled = !overridesConverterLookup(getClass());
+
 
 	// ConverterRegistry implementation
 
@@ -125,6 +141,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (sourceType != null && this.classPairCacheEnabled) {
+			return getClassPairConverter(sourceType, targetType).canConvert();
+		}
 		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
 				TypeDescriptor.valueOf(targetType));
 	}
@@ -164,6 +183,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (source != null && this.classPairCacheEnabled) {
+			return (T) getClassPairConverter(source.getClass(), targetType).convert(source);
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -294,6 +316,49 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	// Internal helpers
 
+	/**
+	 * Return the converter for the given raw source and target classes,
+	 * resolving it through {@link #getConverter} on first access.
+	 */
+	private ClassPairConverter getClassPairConverter(Class<?> sourceClass, Class<?> targetClass) {
+		Map<Class<?>, ClassPairConverter> convertersForSource = this.classPairCache.get(sourceClass);
+		ClassPairConverter converter = (convertersForSource != null ? convertersForSource.get(targetClass) : null);
+		if (converter == null) {
+			TypeDescriptor sourceType = TypeDescriptor.valueOf(sourceClass);
+			TypeDescriptor targetType = TypeDescriptor.valueOf(targetClass);
+			converter = new ClassPairConverter(sourceType, targetType, getConverter(sourceType, targetType));
+			ClassLoader classLoader = getClass().getClassLoader();
+			if (ClassUtils.isCacheSafe(sourceClass, classLoader) && ClassUtils.isCacheSafe(targetClass, classLoader)) {
+				this.classPairCache.computeIfAbsent(sourceClass, key -> new ConcurrentHashMap<>(8))
+						.put(targetClass, converter);
+			}
+		}
+		return converter;
+	}
+
+	private static boolean overridesConverterLookup(Class<?> serviceClass) {
+		Class<?> clazz = serviceClass;
+		while (clazz != null && clazz != GenericConversionService.class) {
+			if (declaresMethod(clazz, "canConvert", TypeDescriptor.class, TypeDescriptor.class) ||
+					declaresMethod(clazz, "convert", Object.class, TypeDescriptor.class, TypeDescriptor.class) ||
+					declaresMethod(clazz, "getConverter", TypeDescriptor.class, TypeDescriptor.class)) {
+				return true;
+			}
+			clazz = clazz.getSuperclass();
+		}
+		return false;
+	}
+
+	private static boolean declaresMethod(Class<?> clazz, String methodName, Class<?>... parameterTypes) {
+		try {
+			clazz.getDeclaredMethod(methodName, parameterTypes);
+			return true;
+		}
+		catch (NoSuchMethodException ex) {
+			return false;
+		}
+	}
+
 	@Nullable
 	private ResolvableType[] getRequiredTypeInfo(Class<?> converterClass, Class<?> genericIfc) {
 		ResolvableType resolvableType = ResolvableType.forClass(converterClass).as(genericIfc);
@@ -311,6 +376,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.classPairCache.clear();
 	}
 
 	@Nullable
@@ -451,6 +517,82 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * A converter resolved for a pair of raw source and target classes, together with
+	 * the type descriptors of the classes. Converters adapted from a {@link Converter}
+	 * or {@link ConverterFactory} are invoked directly, without going through the
+	 * adapter and the factory lookup for every conversion.
+	 */
+	private final class ClassPairConverter {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		@Nullable
+		private final GenericConverter converter;
+
+		@Nullable
+		private final Converter<Object, Object> directConverter;
+
+		public ClassPairConverter(TypeDescriptor sourceType, TypeDescriptor targetType,
+				@Nullable GenericConverter converter) {
+
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+			this.directConverter = getDirectConverter(converter, targetType);
+		}
+
+		@Nullable
+		@SuppressWarnings("unchecked")
+		private Converter<Object, Object> getDirectConverter(
+				@Nullable GenericConverter converter, TypeDescriptor targetType) {
+
+			if (converter instanceof ConverterAdapter) {
+				return ((ConverterAdapter) converter).converter;
+			}
+			if (converter instanceof ConverterFactoryAdapter) {
+				try {
+					return (Converter<Object, Object>) ((ConverterFactoryAdapter) converter).converterFactory
+							.getConverter((Class<Object>) targetType.getObjectType());
+				}
+				catch (RuntimeException ex) {
+					// Leave it to the regular conversion to report the failure
+				}
+			}
+			return null;
+		}
+
+		public boolean canConvert() {
+			return (this.converter != null);
+		}
+
+		@Nullable
+		public Object convert(Object source) {
+			if (this.converter == null) {
+				return handleConverterNotFound(source, this.sourceType, this.targetType);
+			}
+			Object result;
+			if (this.directConverter != null) {
+				try {
+					result = this.directConverter.convert(source);
+				}
+				catch (ConversionFailedException ex) {
+					throw ex;
+				}
+				catch (Throwable ex) {
+					throw new ConversionFailedException(this.sourceType, this.targetType, source, ex);
+				}
+			}
+			else {
+				result = ConversionUtils.invokeConverter(this.converter, source, this.sourceType, this.targetType);
+			}
+			return handleResult(this.sourceType, this.targetType, result);
+		}
+	}
+
+
 	/**
 	 * Key for use with the converter cache.
 	 */
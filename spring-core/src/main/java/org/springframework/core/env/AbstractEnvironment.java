@@ -109,7 +109,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources();
 
-	private final ConfigurablePropertyResolver propertyResolver =
+	private final PropertySourcesPropertyResolver propertyResolver =
 			new PropertySourcesPropertyResolver(this.propertySources);
 
 
@@ -519,6 +519,27 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		this.propertyResolver.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
 	}
 
+	/**
+	 * Specify whether to serve property lookups from a snapshot of this
+	 * environment's property sources, discarded whenever property sources
+	 * are added, removed or replaced.
+	 * @since 5.1.1
+	 * @see PropertySourcesPropertyResolver#setUsePropertySnapshot
+	 */
+	public void setUsePropertySnapshot(boolean usePropertySnapshot) {
+		this.propertyResolver.setUsePropertySnapshot(usePropertySnapshot);
+	}
+
+	/**
+	 * Discard the current snapshot of this environment's property sources, if any,
+	 * e.g. after changing the content of an existing property source.
+	 * @since 5.1.1
+	 * @see PropertySourcesPropertyResolver#clearPropertySnapshot
+	 */
+	public void clearPropertySnapshot() {
+		this.propertyResolver.clearPropertySnapshot();
+	}
+
 	@Override
 	public void setRequiredProperties(String... requiredProperties) {
 		this.propertyResolver.setRequiredProperties(requiredProperties);
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import org.springframework.lang.Nullable;
@@ -43,6 +44,8 @@ public class MutablePropertySources implements PropertySources {
 
 	private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<>();
 
+	private final AtomicInteger modificationCount = new AtomicInteger();
+
 
 	/**
 	 * Create a new {@link MutablePropertySources} object.
@@ -96,6 +99,7 @@ public class MutablePropertySources implements PropertySources {
 	public void addFirst(PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(0, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -104,6 +108,7 @@ public class MutablePropertySources implements PropertySources {
 	public void addLast(PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -115,6 +120,7 @@ public class MutablePropertySources implements PropertySources {
 		removeIfPresent(propertySource);
 		int index = assertPresentAndGetIndex(relativePropertySourceName);
 		addAtIndex(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -126,6 +132,7 @@ public class MutablePropertySources implements PropertySources {
 		removeIfPresent(propertySource);
 		int index = assertPresentAndGetIndex(relativePropertySourceName);
 		addAtIndex(index + 1, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -142,7 +149,12 @@ public class MutablePropertySources implements PropertySources {
 	@Nullable
 	public PropertySource<?> remove(String name) {
 		int index = this.propertySourceList.indexOf(PropertySource.named(name));
-		return (index != -1 ? this.propertySourceList.remove(index) : null);
+		if (index == -1) {
+			return null;
+		}
+		PropertySource<?> removed = this.propertySourceList.remove(index);
+		this.modificationCount.incrementAndGet();
+		return removed;
 	}
 
 	/**
@@ -155,6 +167,7 @@ public class MutablePropertySources implements PropertySources {
 	public void replace(String name, PropertySource<?> propertySource) {
 		int index = assertPresentAndGetIndex(name);
 		this.propertySourceList.set(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -164,6 +177,17 @@ public class MutablePropertySources implements PropertySources {
 		return this.propertySourceList.size();
 	}
 
+	/**
+	 * Return the number of modifications of this {@code MutablePropertySources}
+	 * object so far, allowing for detecting that property sources have been
+	 * added, removed or replaced since a previous call.
+	 * @since 5.1.1
+	 * @see PropertySourcesPropertyResolver#setUsePropertySnapshot
+	 */
+	int getModificationCount() {
+		return this.modificationCount.get();
+	}
+
 	@Override
 	public String toString() {
 		return this.propertySourceList.toString();
@@ -16,12 +16,19 @@
 
 package org.springframework.core.env;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.lang.Nullable;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>By default, each lookup searches the property sources in order. As of 5.1.1,
+ * lookups against {@link MutablePropertySources} may be served from a snapshot
+ * instead: see {@link #setUsePropertySnapshot}.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -31,9 +38,21 @@ import org.springframework.lang.Nullable;
  */
 public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
+	/** Maximum number of keys held in a property snapshot. */
+	private static final int SNAPSHOT_LIMIT = 4096;
+
+	private static final PropertyEntry NOT_FOUND = new PropertyEntry(null, null);
+
+
 	@Nullable
 	private final PropertySources propertySources;
 
+	private volatile boolean usePropertySnapshot = false;
+
+	@Nullable
+	private volatile PropertySnapshot propertySnapshot;
+
+
 	/**
 	 * Create a new resolver against the given property sources.
 	 * @param propertySources the set of {@link PropertySource} objects to use
@@ -42,8 +61,78 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		this.propertySources = propertySources;
 	}
 
+
+	/**
+	 * Specify whether to serve lookups from a snapshot of the property sources.
+	 * <p>Default is "false", searching the property sources for every lookup.
+	 * Switch this to "true" for resolving the same keys over and over again, e.g.
+	 * for {@code @Value} injection into prototype beans: the first lookup of each
+	 * key searches the property sources as usual, with the result (including
+	 * the relaxed name matching of {@link SystemEnvironmentPropertySource} and
+	 * the absence of a value) held in a single map for subsequent lookups.
+	 * Placeholders in a value are resolved once as well.
+	 * <p>The snapshot is discarded as a whole once property sources are added,
+	 * removed or replaced. This requires the property sources to be a
+	 * {@link MutablePropertySources} instance; otherwise, this flag has no effect.
+	 * Changes to the content of a property source (e.g. through
+	 * {@link System#setProperty}) are not detected: call
+	 * {@link #clearPropertySnapshot()} after such changes.
+	 * @since 5.1.1
+	 */
+	public void setUsePropertySnapshot(boolean usePropertySnapshot) {
+		this.usePropertySnapshot = usePropertySnapshot;
+		this.propertySnapshot = null;
+	}
+
+	/**
+	 * Return whether lookups are served from a snapshot of the property sources.
+	 * @since 5.1.1
+	 */
+	public boolean isUsePropertySnapshot() {
+		return this.usePropertySnapshot;
+	}
+
+	/**
+	 * Discard the current snapshot of the property sources, if any,
+	 * searching the property sources again on subsequent lookups.
+	 * @since 5.1.1
+	 * @see #setUsePropertySnapshot
+	 */
+	public void clearPropertySnapshot() {
+		this.propertySnapshot = null;
+	}
+
+	@Override
+	public void setPlaceholderPrefix(String placeholderPrefix) {
+		super.setPlaceholderPrefix(placeholderPrefix);
+		clearPropertySnapshot();
+	}
+
+	@Override
+	public void setPlaceholderSuffix(String placeholderSuffix) {
+		super.setPlaceholderSuffix(placeholderSuffix);
+		clearPropertySnapshot();
+	}
+
+	@Override
+	public void setValueSeparator(@Nullable String valueSeparator) {
+		super.setValueSeparator(valueSeparator);
+		clearPropertySnapshot();
+	}
+
+	@Override
+	public void setIgnoreUnresolvableNestedPlaceholders(boolean ignoreUnresolvableNestedPlaceholders) {
+		super.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
+		clearPropertySnapshot();
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
+		PropertySnapshot snapshot = getPropertySnapshot();
+		if (snapshot != null && snapshot.getEntry(key).propertySource != null) {
+			return true;
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (propertySource.containsProperty(key)) {
@@ -74,6 +163,10 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		PropertySnapshot snapshot = getPropertySnapshot();
+		if (snapshot != null) {
+			return getProperty(snapshot.getEntry(key), key, targetValueType, resolveNestedPlaceholders);
+		}
 		if (this.propertySources != null) {
 			// 遍历 propertySources 数组
 		    for (PropertySource<?> propertySource : this.propertySources) {
@@ -101,6 +194,50 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	@Nullable
+	private <T> T getProperty(PropertyEntry entry, String key, Class<T> targetValueType,
+			boolean resolveNestedPlaceholders) {
+
+		PropertySource<?> propertySource = entry.propertySource;
+		if (propertySource == null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Could not find key '" + key + "' in any property source");
+			}
+			return null;
+		}
+		Object value = entry.value;
+		if (resolveNestedPlaceholders && value instanceof String) {
+			String resolvedValue = entry.resolvedValue;
+			if (resolvedValue == null) {
+				resolvedValue = resolveNestedPlaceholders((String) value);
+				entry.resolvedValue = resolvedValue;
+			}
+			value = resolvedValue;
+		}
+		logKeyFound(key, propertySource, value);
+		return convertValueIfNecessary(value, targetValueType);
+	}
+
+	/**
+	 * Return the current snapshot of the property sources, creating a new one
+	 * if property sources have been modified since, or {@code null} if lookups
+	 * are not to be served from a snapshot.
+	 */
+	@Nullable
+	private PropertySnapshot getPropertySnapshot() {
+		if (!this.usePropertySnapshot || !(this.propertySources instanceof MutablePropertySources)) {
+			return null;
+		}
+		// Read the modification count first: a concurrent modification leads to a stale snapshot
+		int modificationCount = ((MutablePropertySources) this.propertySources).getModificationCount();
+		PropertySnapshot snapshot = this.propertySnapshot;
+		if (snapshot == null || snapshot.modificationCount != modificationCount) {
+			snapshot = new PropertySnapshot(this.propertySources, modificationCount);
+			this.propertySnapshot = snapshot;
+		}
+		return snapshot;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -120,4 +257,72 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Lookup results for the property sources at a given modification count.
+	 */
+	private final class PropertySnapshot {
+
+		private final PropertySources propertySources;
+
+		final int modificationCount;
+
+		private final Map<String, PropertyEntry> entries = new ConcurrentHashMap<>(64);
+
+		PropertySnapshot(PropertySources propertySources, int modificationCount) {
+			this.propertySources = propertySources;
+			this.modificationCount = modificationCount;
+		}
+
+		PropertyEntry getEntry(String key) {
+			PropertyEntry entry = this.entries.get(key);
+			if (entry == null) {
+				entry = findEntry(key);
+				if (this.entries.size() < SNAPSHOT_LIMIT) {
+					PropertyEntry existing = this.entries.putIfAbsent(key, entry);
+					if (existing != null) {
+						entry = existing;
+					}
+				}
+			}
+			return entry;
+		}
+
+		private PropertyEntry findEntry(String key) {
+			for (PropertySource<?> propertySource : this.propertySources) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Searching for key '" + key + "' in PropertySource '" +
+							propertySource.getName() + "'");
+				}
+				Object value = propertySource.getProperty(key);
+				if (value != null) {
+					return new PropertyEntry(propertySource, value);
+				}
+			}
+			return NOT_FOUND;
+		}
+	}
+
+
+	/**
+	 * The value of a key in a snapshot, along with the property source it has
+	 * been found in, or neither if the key has not been found.
+	 */
+	private static final class PropertyEntry {
+
+		@Nullable
+		final PropertySource<?> propertySource;
+
+		@Nullable
+		final Object value;
+
+		@Nullable
+		volatile String resolvedValue;
+
+		PropertyEntry(@Nullable PropertySource<?> propertySource, @Nullable Object value) {
+			this.propertySource = propertySource;
+			this.value = value;
+		}
+	}
+
 }
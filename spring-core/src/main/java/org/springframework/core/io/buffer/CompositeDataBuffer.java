@@ -0,0 +1,722 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link DataBuffer} that presents a chain of component buffers as a single
+ * buffer, without copying their data. Returned by
+ * {@link DefaultDataBufferFactory#join} if {@linkplain
+ * DefaultDataBufferFactory#setCompositeJoin activated}, analogous to Netty's
+ * {@code CompositeByteBuf}.
+ *
+ * <p>Components are appended in constant time through {@link #addComponent}.
+ * Written bytes, including those of buffers passed to
+ * {@link #write(DataBuffer...)}, are copied into additional components
+ * allocated from the {@linkplain #factory() factory}. Reading, searching and
+ * {@linkplain #slice slicing} work across component boundaries;
+ * {@link #asByteBuffers()} exposes the readable bytes as one NIO buffer per
+ * component, e.g. for a gathering write.
+ *
+ * <p>The composite owns its components: releasing it, once its reference count
+ * drops to zero, releases all component buffers.
+ *
+ * @since 5.1.1
+ * @see DefaultDataBufferFactory#join
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int MIN_COMPONENT_CAPACITY = 256;
+
+	private static final int MAX_COMPONENT_CAPACITY = 1024 * 1024 * 4;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	/** The composite holding the reference count, this one unless a slice. */
+	private final CompositeDataBuffer root;
+
+	@Nullable
+	private final AtomicInteger refCount;
+
+	private Component[] components;
+
+	private int componentCount;
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+	/** Index of the most recently accessed component, for sequential access. */
+	private int lastComponent;
+
+
+	/**
+	 * Create a new, empty {@code CompositeDataBuffer}.
+	 * @param dataBufferFactory the factory to allocate components for written bytes
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory) {
+		this(dataBufferFactory, 4);
+	}
+
+	/**
+	 * Create a new, empty {@code CompositeDataBuffer}.
+	 * @param dataBufferFactory the factory to allocate components for written bytes
+	 * @param initialComponents the expected number of components
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory, int initialComponents) {
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.root = this;
+		this.refCount = new AtomicInteger(1);
+		this.components = new Component[Math.max(initialComponents, 1)];
+	}
+
+	private CompositeDataBuffer(CompositeDataBuffer root, int initialComponents) {
+		this.dataBufferFactory = root.dataBufferFactory;
+		this.root = root;
+		this.refCount = null;
+		this.components = new Component[Math.max(initialComponents, 1)];
+	}
+
+
+	/**
+	 * Append the readable bytes of the given buffer, without copying.
+	 * <p>Ownership of the given buffer passes to this composite: it is released
+	 * along with the composite and must not be modified or released separately.
+	 * Unused capacity after the {@linkplain #writePosition() write position} is
+	 * discarded first.
+	 * @param dataBuffer the buffer to append
+	 * @return this buffer
+	 */
+	public CompositeDataBuffer addComponent(DataBuffer dataBuffer) {
+		Assert.notNull(dataBuffer, "'dataBuffer' must not be null");
+		assertNotSlice();
+		if (this.capacity > this.writePosition) {
+			truncate(this.writePosition);
+		}
+		int length = dataBuffer.readableByteCount();
+		if (length == 0) {
+			DataBufferUtils.release(dataBuffer);
+		}
+		else if (dataBuffer instanceof CompositeDataBuffer) {
+			// Flatten, with the first component standing for the nested composite as a whole
+			ByteBuffer[] byteBuffers = ((CompositeDataBuffer) dataBuffer).asByteBuffers();
+			for (int i = 0; i < byteBuffers.length; i++) {
+				addComponent(i == 0 ? dataBuffer : null, byteBuffers[i]);
+			}
+		}
+		else {
+			addComponent(dataBuffer, dataBuffer.asByteBuffer());
+		}
+		this.writePosition = this.capacity;
+		return this;
+	}
+
+	private void addComponent(@Nullable DataBuffer dataBuffer, ByteBuffer byteBuffer) {
+		ByteBuffer memory = byteBuffer.slice();
+		if (!memory.hasRemaining()) {
+			return;
+		}
+		Assert.isTrue(memory.capacity() <= Integer.MAX_VALUE - this.capacity, "Capacity exceeds maximum");
+		if (this.componentCount == this.components.length) {
+			this.components = Arrays.copyOf(this.components, this.componentCount * 2);
+		}
+		this.components[this.componentCount++] = new Component(dataBuffer, memory, this.capacity);
+		this.capacity += memory.capacity();
+	}
+
+	/**
+	 * Return the number of components of this buffer.
+	 */
+	public int componentCount() {
+		return this.componentCount;
+	}
+
+	/**
+	 * Expose the readable bytes of this buffer as one NIO byte buffer per
+	 * component, sharing the data of this buffer.
+	 * @return the byte buffers, possibly empty
+	 */
+	public ByteBuffer[] asByteBuffers() {
+		return views(this.readPosition, readableByteCount());
+	}
+
+	private ByteBuffer[] views(int index, int length) {
+		if (length == 0) {
+			return new ByteBuffer[0];
+		}
+		int first = componentIndex(index);
+		int last = componentIndex(index + length - 1);
+		ByteBuffer[] views = new ByteBuffer[last - first + 1];
+		for (int i = first; i <= last; i++) {
+			Component component = this.components[i];
+			int start = Math.max(index - component.offset, 0);
+			int end = Math.min(index + length - component.offset, component.capacity());
+			ByteBuffer view = component.memory.duplicate();
+			((Buffer) view).clear().position(start).limit(end);
+			views[i - first] = view.slice();
+		}
+		return views;
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		int index = fromIndex;
+		while (index < this.writePosition) {
+			Component component = this.components[componentIndex(index)];
+			ByteBuffer memory = component.memory;
+			int limit = Math.min(component.capacity(), this.writePosition - component.offset);
+			for (int i = index - component.offset; i < limit; i++) {
+				if (predicate.test(memory.get(i))) {
+					return component.offset + i;
+				}
+			}
+			index = component.offset + limit;
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		int index = Math.min(fromIndex, this.writePosition - 1);
+		while (index >= 0) {
+			Component component = this.components[componentIndex(index)];
+			ByteBuffer memory = component.memory;
+			for (int i = index - component.offset; i >= 0; i--) {
+				if (predicate.test(memory.get(i))) {
+					return component.offset + i;
+				}
+			}
+			index = component.offset - 1;
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation appends a component for an increased capacity,
+	 * and discards trailing components for a decreased capacity.
+	 */
+	@Override
+	public CompositeDataBuffer capacity(int newCapacity) {
+		Assert.isTrue(newCapacity > 0,
+				String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		assertNotSlice();
+
+		if (newCapacity > this.capacity) {
+			allocateComponent(newCapacity - this.capacity);
+		}
+		else if (newCapacity < this.capacity) {
+			if (this.readPosition < newCapacity) {
+				if (this.writePosition > newCapacity) {
+					writePosition(newCapacity);
+				}
+			}
+			else {
+				readPosition(newCapacity);
+				writePosition(newCapacity);
+			}
+			truncate(newCapacity);
+		}
+		return this;
+	}
+
+	private void ensureCapacity(int length) {
+		if (length > writableByteCount()) {
+			assertNotSlice();
+			int needed = length - writableByteCount();
+			allocateComponent(Math.max(needed,
+					Math.min(Math.max(this.capacity, MIN_COMPONENT_CAPACITY), MAX_COMPONENT_CAPACITY)));
+		}
+	}
+
+	private void allocateComponent(int capacity) {
+		DataBuffer dataBuffer = this.dataBufferFactory.allocateBuffer(capacity);
+		addComponent(dataBuffer, dataBuffer.asByteBuffer(0, capacity));
+	}
+
+	/**
+	 * Discard the components, or parts thereof, beyond the given capacity.
+	 */
+	private void truncate(int newCapacity) {
+		while (this.componentCount > 0) {
+			Component component = this.components[this.componentCount - 1];
+			if (component.offset < newCapacity) {
+				if (component.offset + component.capacity() > newCapacity) {
+					ByteBuffer memory = component.memory.duplicate();
+					((Buffer) memory).clear().limit(newCapacity - component.offset);
+					this.components[this.componentCount - 1] =
+							new Component(component.dataBuffer, memory.slice(), component.offset);
+				}
+				break;
+			}
+			this.components[--this.componentCount] = null;
+			if (component.dataBuffer != null) {
+				DataBufferUtils.release(component.dataBuffer);
+			}
+		}
+		this.capacity = newCapacity;
+		this.lastComponent = 0;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d",
+				index, this.writePosition - 1);
+
+		Component component = this.components[componentIndex(index)];
+		return component.memory.get(index - component.offset);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "'destination' must not be null");
+		read(destination, 0, destination.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "'destination' must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+
+		int index = this.readPosition;
+		while (length > 0) {
+			Component component = this.components[componentIndex(index)];
+			int position = index - component.offset;
+			int count = Math.min(length, component.capacity() - position);
+			ByteBuffer memory = component.memory;
+			((Buffer) memory).clear().position(position);
+			memory.get(destination, offset, count);
+			index += count;
+			offset += count;
+			length -= count;
+		}
+		this.readPosition = index;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		Component component = this.components[componentIndex(this.writePosition)];
+		component.memory.put(this.writePosition - component.offset, b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "'source' must not be null");
+		write(source, 0, source.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "'source' must not be null");
+		ensureCapacity(length);
+
+		int index = this.writePosition;
+		while (length > 0) {
+			Component component = this.components[componentIndex(index)];
+			int position = index - component.offset;
+			int count = Math.min(length, component.capacity() - position);
+			ByteBuffer memory = component.memory;
+			((Buffer) memory).clear().position(position);
+			memory.put(source, offset, count);
+			index += count;
+			offset += count;
+			length -= count;
+		}
+		this.writePosition = index;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The readable bytes of the given buffers are copied, since the buffers
+	 * remain owned by the caller. Use {@link #addComponent(DataBuffer)} in order
+	 * to append a buffer without copying.
+	 */
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			ByteBuffer[] byteBuffers =
+					Arrays.stream(buffers).map(DataBuffer::asByteBuffer).toArray(ByteBuffer[]::new);
+			write(byteBuffers);
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... byteBuffers) {
+		Assert.notEmpty(byteBuffers, "'byteBuffers' must not be empty");
+		int capacity = Arrays.stream(byteBuffers).mapToInt(ByteBuffer::remaining).sum();
+		ensureCapacity(capacity);
+
+		int index = this.writePosition;
+		for (ByteBuffer source : byteBuffers) {
+			int limit = source.limit();
+			while (source.hasRemaining()) {
+				Component component = this.components[componentIndex(index)];
+				int position = index - component.offset;
+				int count = Math.min(source.remaining(), component.capacity() - position);
+				ByteBuffer memory = component.memory;
+				((Buffer) memory).clear().position(position);
+				((Buffer) source).limit(source.position() + count);
+				memory.put(source);
+				((Buffer) source).limit(limit);
+				index += count;
+			}
+		}
+		this.writePosition = index;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a composite of the components covering
+	 * the given range. The slice shares the reference count of this buffer.
+	 */
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer[] views = views(index, length);
+		CompositeDataBuffer slice = new CompositeDataBuffer(this.root, views.length);
+		for (ByteBuffer view : views) {
+			slice.addComponent(null, view);
+		}
+		slice.writePosition = length;
+		return slice;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Data is shared if the given range lies within a single component.
+	 * Otherwise, the data is gathered into a new, read-only byte buffer, since
+	 * changes to it could not be reflected in this buffer.
+	 * @see #asByteBuffers()
+	 */
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Data is shared if the given range lies within a single component.
+	 * Otherwise, the data is gathered into a new, read-only byte buffer.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer[] views = views(index, length);
+		if (views.length == 1) {
+			return views[0];
+		}
+		ByteBuffer result = ByteBuffer.allocate(length);
+		for (ByteBuffer view : views) {
+			result.put(view);
+		}
+		((Buffer) result).flip();
+		return result.asReadOnlyBuffer();
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+
+	@Override
+	public boolean isAllocated() {
+		AtomicInteger refCount = this.root.refCount;
+		return (refCount != null && refCount.get() > 0);
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		AtomicInteger refCount = this.root.refCount;
+		Assert.state(refCount != null, "No reference count");
+		int count;
+		do {
+			count = refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("DataBuffer has already been released");
+			}
+		}
+		while (!refCount.compareAndSet(count, count + 1));
+		return this;
+	}
+
+	@Override
+	public boolean release() {
+		AtomicInteger refCount = this.root.refCount;
+		Assert.state(refCount != null, "No reference count");
+		int count;
+		do {
+			count = refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("DataBuffer has already been released");
+			}
+		}
+		while (!refCount.compareAndSet(count, count - 1));
+		if (count > 1) {
+			return false;
+		}
+		CompositeDataBuffer root = this.root;
+		for (int i = 0; i < root.componentCount; i++) {
+			DataBuffer dataBuffer = root.components[i].dataBuffer;
+			if (dataBuffer != null) {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Return the index of the component holding the given index.
+	 */
+	private int componentIndex(int index) {
+		Component component = this.components[this.lastComponent];
+		if (component != null && index >= component.offset && index < component.offset + component.capacity()) {
+			return this.lastComponent;
+		}
+		int low = 0;
+		int high = this.componentCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			component = this.components[mid];
+			if (index < component.offset) {
+				high = mid - 1;
+			}
+			else if (index >= component.offset + component.capacity()) {
+				low = mid + 1;
+			}
+			else {
+				this.lastComponent = mid;
+				return mid;
+			}
+		}
+		throw new IndexOutOfBoundsException(String.format("index %d must be < %d", index, this.capacity));
+	}
+
+	private void assertNotSlice() {
+		if (this.root != this) {
+			throw new UnsupportedOperationException(
+					"Changing the capacity of a sliced buffer is not supported");
+		}
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index <= this.capacity - length, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private static void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, c: %d, components: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.componentCount);
+	}
+
+
+	/**
+	 * A component buffer: a view of the memory of the given data buffer, at
+	 * the given offset within the composite. The data buffer is {@code null}
+	 * for components not owned by this composite.
+	 */
+	private static final class Component {
+
+		@Nullable
+		final DataBuffer dataBuffer;
+
+		final ByteBuffer memory;
+
+		final int offset;
+
+		Component(@Nullable DataBuffer dataBuffer, ByteBuffer memory, int offset) {
+			this.dataBuffer = dataBuffer;
+			this.memory = memory;
+			this.offset = offset;
+		}
+
+		int capacity() {
+			return this.memory.capacity();
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose) {
+				DataBufferUtils.release(CompositeDataBuffer.this);
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
@@ -20,14 +20,18 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -58,6 +62,12 @@ public abstract class DataBufferUtils {
 
 	private static final Consumer<DataBuffer> RELEASE_CONSUMER = DataBufferUtils::release;
 
+	/**
+	 * The maximum size of a single file mapping created by
+	 * {@link #readMappedFileChannel(Callable, long, long, DataBufferFactory, int)}.
+	 */
+	private static final int MAPPED_REGION_SIZE = 8 * 1024 * 1024;
+
 
 	//---------------------------------------------------------------------
 	// Reading
@@ -203,6 +213,50 @@ public abstract class DataBufferUtils {
 		return position == 0 ? result : skipUntilByteCount(result, position);
 	}
 
+	/**
+	 * Obtain a {@code FileChannel} from the given supplier, and read the given region
+	 * of it into a {@code Flux} of {@code DataBuffer}s without copying: the file is
+	 * memory-mapped in windows of up to {@value #MAPPED_REGION_SIZE} bytes, and each
+	 * emitted buffer {@linkplain DataBufferFactory#wrap(ByteBuffer) wraps} a slice of
+	 * such a {@link MappedByteBuffer}. Closes the channel when the flux is terminated;
+	 * the mapped memory itself is unmapped once the buffers are garbage collected.
+	 * <p>This is an alternative to {@link #readAsynchronousFileChannel} for callers
+	 * that explicitly opt into memory mapping, with the following trade-offs:
+	 * <ul>
+	 * <li>Data is paged in from disk on first access, which blocks the accessing
+	 * thread, i.e. typically an event loop thread when writing to the response.
+	 * <li>Mappings stay alive until garbage collected, which prevents the file from
+	 * being deleted in the meantime on some platforms, e.g. Windows.
+	 * <li>The file should not be truncated while the returned buffers are in use,
+	 * since accessing a mapping beyond the end of the file fails.
+	 * </ul>
+	 * <p>{@link org.springframework.core.codec.ResourceRegionEncoder} uses this method
+	 * for file resources when {@linkplain
+	 * org.springframework.core.codec.ResourceRegionEncoder#setUseMemoryMapping memory
+	 * mapping} is enabled.
+	 * @param channelSupplier the supplier for the channel to read from
+	 * @param position the position to start reading from
+	 * @param count the number of bytes to read, at most
+	 * @param dataBufferFactory the factory to wrap the mapped data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers backed by the mapped file region
+	 * @since 5.1.1
+	 */
+	public static Flux<DataBuffer> readMappedFileChannel(Callable<FileChannel> channelSupplier,
+			long position, long count, DataBufferFactory dataBufferFactory, int bufferSize) {
+
+		Assert.notNull(channelSupplier, "'channelSupplier' must not be null");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(count >= 0, "'count' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be > 0");
+
+		return Flux.using(channelSupplier,
+				channel -> Flux.generate(
+						new MappedFileChannelGenerator(channel, position, count, dataBufferFactory, bufferSize)),
+				DataBufferUtils::closeChannel);
+	}
+
 
 	//---------------------------------------------------------------------
 	// Writing
@@ -452,6 +506,323 @@ public abstract class DataBufferUtils {
 		return Mono.just(new ExceptionDataBuffer(throwable));
 	}
 
+	/**
+	 * Return a {@link Matcher} for the given delimiters. The returned matcher
+	 * searches for all delimiters in a single pass over the bytes of a data buffer,
+	 * and keeps its state between invocations, so that delimiters spanning
+	 * multiple buffers are found as well.
+	 * <p>Of the delimiters found, the one that starts first is reported; of those
+	 * that start at the same byte, the longest one. For instance, with the delimiters
+	 * {@code "\r"} and {@code "\r\n"}, the input {@code "a\r\nb"} is matched on
+	 * {@code "\r\n"}, also when the {@code "\n"} only arrives with the next buffer.
+	 * <p>The returned matcher is stateful, and should therefore not be shared
+	 * between different streams of data buffers.
+	 * @param delimiters the delimiters to search for
+	 * @return a matcher for the given delimiters
+	 * @since 5.1.1
+	 */
+	public static Matcher matcher(byte[]... delimiters) {
+		Assert.notEmpty(delimiters, "'delimiters' must not be empty");
+		return new TrieMatcher(delimiters);
+	}
+
+
+	/**
+	 * Contract to find delimiters in a stream of {@link DataBuffer DataBuffers}.
+	 * <p>A delimiter that a longer one could still extend is held back until the
+	 * longer one is ruled out, possibly by bytes of a later buffer. A delimiter may
+	 * therefore be reported after bytes following it have been passed in; these
+	 * bytes are not consumed, but matched again by the next invocation.
+	 * @since 5.1.1
+	 * @see #matcher(byte[]...)
+	 */
+	public interface Matcher {
+
+		/**
+		 * Find the next delimiter in the readable bytes of the given data buffer,
+		 * taking into account bytes passed to previous invocations. This method
+		 * does not change the read position of the buffer.
+		 * <p>If a delimiter is found, the next invocation should be passed the
+		 * same buffer, with its read position moved past the {@link #end() end}
+		 * of the delimiter if that lies within the buffer; or else, with its
+		 * read position unchanged.
+		 * @param dataBuffer the data buffer to search
+		 * @return {@code true} if a delimiter was found, as described by
+		 * {@link #end()} and {@link #delimiter()}; {@code false} if all readable
+		 * bytes of the buffer have been consumed
+		 */
+		boolean match(DataBuffer dataBuffer);
+
+		/**
+		 * Signal the end of the stream, and find the next delimiter among the bytes
+		 * that have been held back. May be invoked repeatedly, until it returns
+		 * {@code false}.
+		 * @return {@code true} if a delimiter was found, with its {@link #end()}
+		 * relative to an empty buffer following the last byte of the stream
+		 */
+		boolean finish();
+
+		/**
+		 * Return the index of the last byte of the delimiter found by the last
+		 * successful {@link #match(DataBuffer)} or {@link #finish()}. The index
+		 * is lower than the read position of the searched buffer, and possibly
+		 * negative, if the delimiter ended in a previous buffer: {@code -1} then
+		 * stands for the byte right before the buffer, and so on.
+		 */
+		int end();
+
+		/**
+		 * Return the delimiter found by the last successful {@link #match(DataBuffer)}
+		 * or {@link #finish()}.
+		 */
+		byte[] delimiter();
+
+		/**
+		 * Reset the state of this matcher, discarding any partially matched delimiter.
+		 */
+		void reset();
+	}
+
+
+	/**
+	 * {@link Matcher} implementation that follows a trie of all delimiters from
+	 * each byte at which a delimiter may start. When no delimiter is partially
+	 * matched, checking a byte takes a single table lookup.
+	 */
+	private static class TrieMatcher implements Matcher {
+
+		private final byte[][] delimiters;
+
+		/**
+		 * The child of each node per byte value, or -1 if none. Node 0 is the root.
+		 */
+		private final int[] children;
+
+		/**
+		 * Index of the delimiter ending at each node, or -1 if none.
+		 */
+		private final int[] terminals;
+
+		private final boolean[] leaves;
+
+		/**
+		 * The nodes and start positions of the partial matches, ordered by start.
+		 */
+		private final int[] candidateNodes;
+
+		private final int[] candidateStarts;
+
+		private int candidateCount;
+
+		/**
+		 * Index of the delimiter held back for a longer match, or -1 if none.
+		 */
+		private int matchIndex = -1;
+
+		private int matchStart;
+
+		private int matchEnd;
+
+		/**
+		 * Bytes of previous buffers to be matched again by the next invocation.
+		 */
+		private final byte[] carry;
+
+		private int carryLength;
+
+		private byte[] delimiter;
+
+		private int end = -1;
+
+		TrieMatcher(byte[][] delimiters) {
+			int maxNodes = 1;
+			int maxLength = 0;
+			for (byte[] delimiter : delimiters) {
+				Assert.isTrue(delimiter.length > 0, "Delimiters must not be empty");
+				maxNodes += delimiter.length;
+				maxLength = Math.max(maxLength, delimiter.length);
+			}
+			int[] children = new int[maxNodes << 8];
+			int[] terminals = new int[maxNodes];
+			Arrays.fill(children, -1);
+			Arrays.fill(terminals, -1);
+			int nodeCount = 1;
+			for (int i = 0; i < delimiters.length; i++) {
+				int current = 0;
+				for (byte b : delimiters[i]) {
+					int index = (current << 8) | (b & 0xFF);
+					if (children[index] == -1) {
+						children[index] = nodeCount++;
+					}
+					current = children[index];
+				}
+				if (terminals[current] == -1) {
+					terminals[current] = i;
+				}
+			}
+			boolean[] leaves = new boolean[nodeCount];
+			for (int node = 0; node < nodeCount; node++) {
+				leaves[node] = true;
+				for (int b = 0; b < 256 && leaves[node]; b++) {
+					leaves[node] = (children[(node << 8) | b] == -1);
+				}
+			}
+
+			this.delimiters = delimiters;
+			this.children = Arrays.copyOf(children, nodeCount << 8);
+			this.terminals = Arrays.copyOf(terminals, nodeCount);
+			this.leaves = leaves;
+			this.candidateNodes = new int[maxLength];
+			this.candidateStarts = new int[maxLength];
+			this.carry = new byte[maxLength];
+			this.delimiter = delimiters[0];
+		}
+
+		@Override
+		public boolean match(DataBuffer dataBuffer) {
+			int readPosition = dataBuffer.readPosition();
+			int writePosition = dataBuffer.writePosition();
+			int carryStart = readPosition - this.carryLength;
+			for (int i = 0; i < this.carryLength; i++) {
+				if (step(this.carry[i], carryStart + i)) {
+					return found(readPosition);
+				}
+			}
+			for (int i = readPosition; i < writePosition; i++) {
+				if (step(dataBuffer.getByte(i), i)) {
+					return found(readPosition);
+				}
+			}
+
+			// Keep the undecided bytes, to be matched again along with the next buffer
+			int undecided = writePosition;
+			if (this.candidateCount > 0) {
+				undecided = this.candidateStarts[0];
+			}
+			if (this.matchIndex != -1) {
+				undecided = Math.min(undecided, this.matchStart);
+			}
+			int carried = Math.max(0, readPosition - undecided);
+			System.arraycopy(this.carry, this.carryLength - carried, this.carry, 0, carried);
+			for (int i = Math.max(undecided, readPosition); i < writePosition; i++) {
+				this.carry[carried++] = dataBuffer.getByte(i);
+			}
+			this.carryLength = carried;
+			clearCandidates();
+			return false;
+		}
+
+		@Override
+		public boolean finish() {
+			int length = this.carryLength;
+			for (int i = 0; i < length; i++) {
+				if (step(this.carry[i], i - length)) {
+					return found(0);
+				}
+			}
+			if (this.matchIndex != -1) {
+				return found(0);
+			}
+			this.carryLength = 0;
+			clearCandidates();
+			return false;
+		}
+
+		/**
+		 * Advance all partial matches by the given byte at the given position.
+		 * @return whether the delimiter held back is final
+		 */
+		private boolean step(byte b, int position) {
+			int value = b & 0xFF;
+			int count = 0;
+			for (int i = 0; i < this.candidateCount; i++) {
+				int node = this.children[(this.candidateNodes[i] << 8) | value];
+				if (node != -1) {
+					this.candidateNodes[count] = node;
+					this.candidateStarts[count++] = this.candidateStarts[i];
+				}
+			}
+			if (this.matchIndex == -1) {
+				int node = this.children[value];
+				if (node != -1) {
+					this.candidateNodes[count] = node;
+					this.candidateStarts[count++] = position;
+				}
+			}
+			this.candidateCount = count;
+			if (count == 0 && this.matchIndex == -1) {
+				return false;
+			}
+
+			// Prefer the delimiter that starts first, and of those the longest
+			for (int i = 0; i < count; i++) {
+				int terminal = this.terminals[this.candidateNodes[i]];
+				int start = this.candidateStarts[i];
+				if (terminal != -1 && (this.matchIndex == -1 || start < this.matchStart ||
+						(start == this.matchStart && position > this.matchEnd))) {
+					this.matchIndex = terminal;
+					this.matchStart = start;
+					this.matchEnd = position;
+				}
+			}
+			if (this.matchIndex == -1) {
+				return false;
+			}
+
+			// Hold the delimiter back while an earlier or longer one may still follow
+			count = 0;
+			for (int i = 0; i < this.candidateCount; i++) {
+				if (this.candidateStarts[i] <= this.matchStart && !this.leaves[this.candidateNodes[i]]) {
+					this.candidateNodes[count] = this.candidateNodes[i];
+					this.candidateStarts[count++] = this.candidateStarts[i];
+				}
+			}
+			this.candidateCount = count;
+			return (count == 0);
+		}
+
+		/**
+		 * Report the delimiter held back, keeping the bytes that follow it before
+		 * the given read position to be matched again.
+		 */
+		private boolean found(int readPosition) {
+			int carryStart = readPosition - this.carryLength;
+			int following = readPosition - 1 - this.matchEnd;
+			if (following > 0) {
+				System.arraycopy(this.carry, this.matchEnd + 1 - carryStart, this.carry, 0, following);
+				this.carryLength = following;
+			}
+			else {
+				this.carryLength = 0;
+			}
+			this.delimiter = this.delimiters[this.matchIndex];
+			this.end = this.matchEnd;
+			clearCandidates();
+			return true;
+		}
+
+		private void clearCandidates() {
+			this.candidateCount = 0;
+			this.matchIndex = -1;
+		}
+
+		@Override
+		public int end() {
+			return this.end;
+		}
+
+		@Override
+		public byte[] delimiter() {
+			return this.delimiter;
+		}
+
+		@Override
+		public void reset() {
+			this.carryLength = 0;
+			clearCandidates();
+		}
+	}
+
 
 	private static class ReadableByteChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
 
@@ -497,6 +868,64 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class MappedFileChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		private final FileChannel channel;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		private final long count;
+
+		private long position;
+
+		private long end = -1;
+
+		@Nullable
+		private ByteBuffer mapped;
+
+		public MappedFileChannelGenerator(FileChannel channel, long position, long count,
+				DataBufferFactory dataBufferFactory, int bufferSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.count = count;
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				if (this.end == -1) {
+					long available = Math.max(0, this.channel.size() - this.position);
+					this.end = this.position + Math.min(this.count, available);
+				}
+				ByteBuffer mapped = this.mapped;
+				if (mapped == null || !mapped.hasRemaining()) {
+					if (this.position >= this.end) {
+						sink.complete();
+						return;
+					}
+					long regionSize = Math.min(this.end - this.position, MAPPED_REGION_SIZE);
+					mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, regionSize);
+					this.position += regionSize;
+					this.mapped = mapped;
+				}
+				int length = Math.min(this.bufferSize, mapped.remaining());
+				ByteBuffer slice = mapped.slice();
+				((Buffer) slice).limit(length);
+				((Buffer) mapped).position(mapped.position() + length);
+				sink.next(this.dataBufferFactory.wrap(slice));
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+	}
+
+
 	private static class AsynchronousFileChannelReadCompletionHandler
 			implements CompletionHandler<Integer, DataBuffer> {
 
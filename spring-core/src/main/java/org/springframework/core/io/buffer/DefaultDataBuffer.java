@@ -58,7 +58,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	private int writePosition;
 
 
-	private DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
+	DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
 		Assert.notNull(dataBufferFactory, "DefaultDataBufferFactory must not be null");
 		Assert.notNull(byteBuffer, "ByteBuffer must not be null");
 		this.dataBufferFactory = dataBufferFactory;
@@ -215,7 +215,11 @@ public class DefaultDataBuffer implements DataBuffer {
 		return this;
 	}
 
-	private static ByteBuffer allocate(int capacity, boolean direct) {
+	/**
+	 * Allocate a new native buffer of the given capacity when changing the
+	 * capacity of this buffer. Overridden for pooled buffers.
+	 */
+	ByteBuffer allocate(int capacity, boolean direct) {
 		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
 	}
 
@@ -43,6 +43,8 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 
 	private final int defaultInitialCapacity;
 
+	private volatile boolean compositeJoin = false;
+
 
 	/**
 	 * Creates a new {@code DefaultDataBufferFactory} with default settings.
@@ -77,6 +79,28 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 	}
 
 
+	/**
+	 * Specify whether {@link #join} should return a {@link CompositeDataBuffer}
+	 * that refers to the given buffers, instead of copying their data into a
+	 * new {@link DefaultDataBuffer}.
+	 * <p>Default is {@code false}. Note that a composite takes ownership of the
+	 * joined buffers: they are released along with the composite rather than
+	 * right away, and must not be modified in the meantime.
+	 * @since 5.1.1
+	 */
+	public void setCompositeJoin(boolean compositeJoin) {
+		this.compositeJoin = compositeJoin;
+	}
+
+	/**
+	 * Return whether {@link #join} returns a {@link CompositeDataBuffer}.
+	 * @since 5.1.1
+	 */
+	public boolean isCompositeJoin() {
+		return this.compositeJoin;
+	}
+
+
 	@Override
 	public DefaultDataBuffer allocateBuffer() {
 		return allocateBuffer(this.defaultInitialCapacity);
@@ -106,12 +130,18 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 	/**
 	 * {@inheritDoc}
 	 * <p>This implementation creates a single {@link DefaultDataBuffer} to contain the data
-	 * in {@code dataBuffers}.
+	 * in {@code dataBuffers}, or a {@link CompositeDataBuffer} that refers to the data of
+	 * the given buffers if {@link #setCompositeJoin compositeJoin} has been activated.
 	 */
 	@Override
 	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
 		Assert.notEmpty(dataBuffers, "'dataBuffers' must not be empty");
 
+		if (this.compositeJoin) {
+			CompositeDataBuffer composite = new CompositeDataBuffer(this, dataBuffers.size());
+			dataBuffers.forEach(composite::addComponent);
+			return composite;
+		}
 		int capacity = dataBuffers.stream()
 				.mapToInt(DataBuffer::readableByteCount)
 				.sum();
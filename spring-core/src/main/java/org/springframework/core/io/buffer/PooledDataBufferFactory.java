@@ -0,0 +1,456 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBufferFactory} that recycles the memory of released buffers,
+ * for runtimes that do not pool buffers themselves (i.e. Servlet), without
+ * requiring Netty on the classpath. Can be passed to
+ * {@link DataBufferUtils#read} and configured on
+ * {@code ServletHttpHandlerAdapter}, among others.
+ *
+ * <p>Allocated buffers are {@link DefaultDataBuffer DefaultDataBuffers} that
+ * implement {@link PooledDataBuffer}: once the reference count of a buffer
+ * drops to zero, its memory is returned to the pool. Buffers must therefore be
+ * released through {@link DataBufferUtils#release} when no longer needed, and
+ * must not be used after having been released. Wrapped buffers and buffers
+ * larger than the maximum pooled capacity are not pooled.
+ *
+ * <p>Memory is pooled in power-of-two size classes, with a small cache of
+ * buffers per thread in front of a bounded pool per size class that is shared
+ * across threads. A sample of the allocated buffers is tracked in order to log
+ * a warning, including the allocation stack trace, for buffers that are
+ * garbage-collected without having been released.
+ *
+ * @since 5.1.1
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default maximum capacity of pooled buffers.
+	 * @see #PooledDataBufferFactory(boolean, int, int)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default interval of allocations tracked for leak detection.
+	 * @see #setLeakDetectionSamplingInterval(int)
+	 */
+	public static final int DEFAULT_LEAK_DETECTION_SAMPLING_INTERVAL = 128;
+
+	private static final int MIN_SIZE_CLASS_CAPACITY = 64;
+
+	private static final int THREAD_CACHE_BYTES_PER_SIZE_CLASS = 64 * 1024;
+
+	private static final int THREAD_CACHE_BUFFERS_PER_SIZE_CLASS = 8;
+
+	private static final int SHARED_POOL_BYTES_PER_SIZE_CLASS = 4 * 1024 * 1024;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final SizeClass[] sizeClasses;
+
+	// Holds JDK types only, in order not to pin the class loader through worker threads
+	private final ThreadLocal<ByteBuffer[][]> threadCaches;
+
+	private final ReferenceQueue<DataBuffer> leakQueue = new ReferenceQueue<>();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private volatile int leakDetectionSamplingInterval = DEFAULT_LEAK_DETECTION_SAMPLING_INTERVAL;
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_POOLED_CAPACITY);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled, what the capacity is to be used for
+	 * {@link #allocateBuffer()}, and up to which capacity buffers are pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity of {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the maximum capacity of pooled buffers,
+	 * rounded up to a power of two
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity, int maxPooledCapacity) {
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(maxPooledCapacity > 0, "'maxPooledCapacity' should be larger than 0");
+		Assert.isTrue(maxPooledCapacity <= (1 << 30), "'maxPooledCapacity' should be at most 2^30");
+		this.preferDirect = preferDirect;
+		this.sizeClasses = new SizeClass[sizeClassIndex(maxPooledCapacity) + 1];
+		for (int i = 0; i < this.sizeClasses.length; i++) {
+			this.sizeClasses[i] = new SizeClass(MIN_SIZE_CLASS_CAPACITY << i);
+		}
+		this.threadCaches = ThreadLocal.withInitial(() -> {
+			ByteBuffer[][] caches = new ByteBuffer[this.sizeClasses.length][];
+			for (int i = 0; i < caches.length; i++) {
+				int capacity = this.sizeClasses[i].capacity;
+				caches[i] = new ByteBuffer[Math.max(1, Math.min(THREAD_CACHE_BUFFERS_PER_SIZE_CLASS,
+						THREAD_CACHE_BYTES_PER_SIZE_CLASS / capacity))];
+			}
+			return caches;
+		});
+	}
+
+
+	/**
+	 * Specify the interval of allocations that are tracked for leak detection,
+	 * e.g. 128 for tracking one in 128 allocations on average. Tracking includes
+	 * capturing the stack trace of the allocation.
+	 * <p>Default is {@value #DEFAULT_LEAK_DETECTION_SAMPLING_INTERVAL}.
+	 * Specify 1 for tracking all allocations (e.g. in tests), or 0 for
+	 * turning leak detection off.
+	 */
+	public void setLeakDetectionSamplingInterval(int leakDetectionSamplingInterval) {
+		Assert.isTrue(leakDetectionSamplingInterval >= 0, "'leakDetectionSamplingInterval' must not be negative");
+		this.leakDetectionSamplingInterval = leakDetectionSamplingInterval;
+	}
+
+	/**
+	 * Return the interval of allocations that are tracked for leak detection.
+	 */
+	public int getLeakDetectionSamplingInterval() {
+		return this.leakDetectionSamplingInterval;
+	}
+
+	/**
+	 * Return the maximum capacity of pooled buffers.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.sizeClasses[this.sizeClasses.length - 1].capacity;
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		reportLeaks();
+		int sizeClass = sizeClassIndex(initialCapacity);
+		if (sizeClass >= this.sizeClasses.length) {
+			return super.allocateBuffer(initialCapacity);
+		}
+		PooledDefaultDataBuffer dataBuffer = new PooledDefaultDataBuffer(
+				this, acquire(sizeClass), sizeClass, initialCapacity);
+		int samplingInterval = this.leakDetectionSamplingInterval;
+		if (samplingInterval > 0 && ThreadLocalRandom.current().nextInt(samplingInterval) == 0) {
+			LeakTracker leakTracker = new LeakTracker(dataBuffer, this.leakQueue);
+			this.leakTrackers.add(leakTracker);
+			dataBuffer.leakTracker = leakTracker;
+		}
+		return dataBuffer;
+	}
+
+	/**
+	 * Obtain memory of the given size class, from the cache of the current
+	 * thread, from the shared pool, or by allocating new memory, in that order.
+	 */
+	private ByteBuffer acquire(int sizeClass) {
+		ByteBuffer[] threadCache = this.threadCaches.get()[sizeClass];
+		for (int i = threadCache.length - 1; i >= 0; i--) {
+			ByteBuffer memory = threadCache[i];
+			if (memory != null) {
+				threadCache[i] = null;
+				return memory;
+			}
+		}
+		SizeClass pool = this.sizeClasses[sizeClass];
+		ByteBuffer memory = pool.buffers.poll();
+		if (memory != null) {
+			pool.count.decrementAndGet();
+			return memory;
+		}
+		return (this.preferDirect ?
+				ByteBuffer.allocateDirect(pool.capacity) : ByteBuffer.allocate(pool.capacity));
+	}
+
+	/**
+	 * Return the given memory of the given size class to the cache of the
+	 * current thread or to the shared pool, dropping it if both are full.
+	 */
+	private void recycle(ByteBuffer memory, int sizeClass) {
+		if (sizeClass >= this.sizeClasses.length) {
+			return;
+		}
+		((Buffer) memory).clear();
+		ByteBuffer[] threadCache = this.threadCaches.get()[sizeClass];
+		for (int i = 0; i < threadCache.length; i++) {
+			if (threadCache[i] == null) {
+				threadCache[i] = memory;
+				return;
+			}
+		}
+		SizeClass pool = this.sizeClasses[sizeClass];
+		if (pool.count.incrementAndGet() <= pool.maxCount) {
+			pool.buffers.offer(memory);
+		}
+		else {
+			pool.count.decrementAndGet();
+		}
+	}
+
+	private void reportLeaks() {
+		Reference<? extends DataBuffer> reference;
+		while ((reference = this.leakQueue.poll()) != null) {
+			LeakTracker leakTracker = (LeakTracker) reference;
+			if (this.leakTrackers.remove(leakTracker) && logger.isWarnEnabled()) {
+				logger.warn("LEAK: DataBuffer was garbage-collected without having been released. " +
+						"Use DataBufferUtils.release(DataBuffer) for releasing buffers.", leakTracker.allocationTrace);
+			}
+		}
+	}
+
+	/**
+	 * Return the index of the size class for the given capacity,
+	 * which may be beyond the pooled size classes.
+	 */
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= MIN_SIZE_CLASS_CAPACITY) {
+			return 0;
+		}
+		return Integer.numberOfLeadingZeros(MIN_SIZE_CLASS_CAPACITY - 1) -
+				Integer.numberOfLeadingZeros(capacity - 1);
+	}
+
+	/**
+	 * Return a view of the given memory that is limited to the given capacity.
+	 */
+	private static ByteBuffer view(ByteBuffer memory, int capacity) {
+		ByteBuffer view = memory.duplicate();
+		((Buffer) view).clear().limit(capacity);
+		return view.slice();
+	}
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + getMaxPooledCapacity() + ")";
+	}
+
+
+	/**
+	 * The shared pool of the memory of a given capacity.
+	 */
+	private static final class SizeClass {
+
+		final int capacity;
+
+		final int maxCount;
+
+		final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+		final AtomicInteger count = new AtomicInteger();
+
+		SizeClass(int capacity) {
+			this.capacity = capacity;
+			this.maxCount = Math.max(1, SHARED_POOL_BYTES_PER_SIZE_CLASS / capacity);
+		}
+	}
+
+
+	/**
+	 * Weak reference to a tracked buffer, cleared once the buffer is released.
+	 */
+	private static final class LeakTracker extends WeakReference<DataBuffer> {
+
+		final Throwable allocationTrace = new Throwable("DataBuffer allocation");
+
+		LeakTracker(DataBuffer dataBuffer, ReferenceQueue<DataBuffer> queue) {
+			super(dataBuffer, queue);
+		}
+	}
+
+
+	/**
+	 * A {@link DefaultDataBuffer} backed by pooled memory, which is recycled
+	 * once the reference count drops to zero.
+	 */
+	private static final class PooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory factory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		private ByteBuffer memory;
+
+		private int sizeClass;
+
+		@Nullable
+		LeakTracker leakTracker;
+
+		PooledDefaultDataBuffer(PooledDataBufferFactory factory, ByteBuffer memory, int sizeClass, int capacity) {
+			super(factory, view(memory, capacity));
+			this.factory = factory;
+			this.memory = memory;
+			this.sizeClass = sizeClass;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return (this.refCount.get() > 0);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count + 1));
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count - 1));
+			if (count > 1) {
+				return false;
+			}
+			LeakTracker leakTracker = this.leakTracker;
+			if (leakTracker != null) {
+				leakTracker.clear();
+				this.factory.leakTrackers.remove(leakTracker);
+			}
+			this.factory.recycle(this.memory, this.sizeClass);
+			return true;
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			// Memory replaced by a capacity change is not recycled but left to the
+			// garbage collector, since slices and views may still refer to it
+			int sizeClass = sizeClassIndex(capacity);
+			ByteBuffer memory = (sizeClass < this.factory.sizeClasses.length ?
+					this.factory.acquire(sizeClass) : super.allocate(capacity, direct));
+			this.memory = memory;
+			this.sizeClass = sizeClass;
+			return view(memory, capacity);
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			DefaultDataBuffer slice = super.slice(index, length);
+			return new PooledSlicedDataBuffer(this, slice.getNativeBuffer(), length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			if (!releaseOnClose) {
+				return inputStream;
+			}
+			return new FilterInputStream(inputStream) {
+				@Override
+				public void close() throws IOException {
+					DataBufferUtils.release(PooledDefaultDataBuffer.this);
+				}
+			};
+		}
+	}
+
+
+	/**
+	 * A slice of a {@link PooledDefaultDataBuffer}, sharing its memory
+	 * and its reference count.
+	 */
+	private static final class PooledSlicedDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDefaultDataBuffer parent;
+
+		PooledSlicedDataBuffer(PooledDefaultDataBuffer parent, ByteBuffer byteBuffer, int length) {
+			super(parent.factory, byteBuffer);
+			this.parent = parent;
+			writePosition(length);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			DefaultDataBuffer slice = super.slice(index, length);
+			return new PooledSlicedDataBuffer(this.parent, slice.getNativeBuffer(), length);
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Index of the entry names of a jar file, allowing for retrieving the entries
+ * below a given path without enumerating the whole jar file.
+ *
+ * <p>Indexes are built lazily and cached per jar file, as long as the jar file
+ * keeps the same last-modified timestamp and length. The entries below a given
+ * path are determined through a binary search over the sorted entry names and
+ * returned in the original order of the jar file.
+ *
+ * @since 5.1.1
+ * @see PathMatchingResourcePatternResolver#doFindPathMatchingJarResources
+ */
+final class JarEntryIndex {
+
+	private static final Map<String, JarEntryIndex> cache = new ConcurrentReferenceHashMap<>();
+
+
+	private final long lastModified;
+
+	private final long length;
+
+	/** Entry names in the order of the jar file. */
+	private final String[] names;
+
+	/** Positions of the entry names, sorted by name. */
+	private final int[] sorted;
+
+
+	private JarEntryIndex(long lastModified, long length, String[] names) {
+		this.lastModified = lastModified;
+		this.length = length;
+		this.names = names;
+		Integer[] positions = new Integer[names.length];
+		for (int i = 0; i < names.length; i++) {
+			positions[i] = i;
+		}
+		Arrays.sort(positions, Comparator.comparing(i -> names[i]));
+		this.sorted = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			this.sorted[i] = positions[i];
+		}
+	}
+
+
+	/**
+	 * Return the names of the entries that start with the given path,
+	 * in the order of the jar file.
+	 * @param rootEntryPath the path of the entries to return
+	 * @return the entry names (never {@code null})
+	 */
+	public List<String> getEntryNames(String rootEntryPath) {
+		if (rootEntryPath.isEmpty()) {
+			return Arrays.asList(this.names);
+		}
+		int low = 0;
+		int high = this.sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.names[this.sorted[mid]].compareTo(rootEntryPath) < 0) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		int end = low;
+		while (end < this.sorted.length && this.names[this.sorted[end]].startsWith(rootEntryPath)) {
+			end++;
+		}
+		if (low == end) {
+			return Collections.emptyList();
+		}
+		int[] positions = Arrays.copyOfRange(this.sorted, low, end);
+		Arrays.sort(positions);
+		List<String> result = new ArrayList<>(positions.length);
+		for (int position : positions) {
+			result.add(this.names[position]);
+		}
+		return result;
+	}
+
+	private boolean isCurrent(File file) {
+		return (file.lastModified() == this.lastModified && file.length() == this.length);
+	}
+
+
+	/**
+	 * Return the index for the given jar file, building it if necessary.
+	 * @param jarFile the jar file to index
+	 * @return the index of the entries of the jar file
+	 */
+	static JarEntryIndex forJarFile(JarFile jarFile) {
+		String key = jarFile.getName();
+		File file = new File(key);
+		JarEntryIndex index = cache.get(key);
+		if (index == null || !index.isCurrent(file)) {
+			// Read file attributes first: a concurrent modification leads to a stale timestamp
+			long lastModified = file.lastModified();
+			long length = file.length();
+			List<String> names = new ArrayList<>(jarFile.size());
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				names.add(entries.nextElement().getName());
+			}
+			index = new JarEntryIndex(lastModified, length, names.toArray(new String[0]));
+			if (lastModified != 0) {
+				cache.put(key, index);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Clear the cache of jar entry indexes.
+	 */
+	static void clearCache() {
+		cache.clear();
+	}
+
+}
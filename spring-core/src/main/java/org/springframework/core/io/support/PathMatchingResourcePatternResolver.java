@@ -189,6 +189,8 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
      */
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean useJarEntryIndex = true;
+
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
 	 * <p>ClassLoader access will happen via the thread context class loader.
@@ -251,6 +253,27 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Specify whether to keep an index of the entry names of each jar file that
+	 * is searched, so that repeated pattern lookups in the same jar file only
+	 * need to match the entries below the root directory of the pattern.
+	 * <p>Default is "true". An index is rebuilt once the last-modified timestamp
+	 * or the length of its jar file changes. Switch this flag to "false" in order
+	 * to enumerate all entries of a jar file for each lookup instead.
+	 * @since 5.1.1
+	 */
+	public void setUseJarEntryIndex(boolean useJarEntryIndex) {
+		this.useJarEntryIndex = useJarEntryIndex;
+	}
+
+	/**
+	 * Return whether jar entry indexes are used for pattern lookups in jar files.
+	 * @since 5.1.1
+	 */
+	public boolean isUseJarEntryIndex() {
+		return this.useJarEntryIndex;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -650,6 +673,16 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			}
 			// 读取所有 jar 里面的文件，然后与路径进行配置，如果配置成功就添加到结果中进行返回
 			Set<Resource> result = new LinkedHashSet<>(8);
+			if (this.useJarEntryIndex) {
+				// Only the entries below the root entry path need to be matched
+				for (String entryPath : JarEntryIndex.forJarFile(jarFile).getEntryNames(rootEntryPath)) {
+					String relativePath = entryPath.substring(rootEntryPath.length());
+					if (getPathMatcher().match(subPattern, relativePath)) {
+						result.add(rootDirResource.createRelative(relativePath));
+					}
+				}
+				return result;
+			}
 			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
 				JarEntry entry = entries.nextElement();
 				String entryPath = entry.getName();
@@ -121,19 +121,30 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
 				metadataReader = super.getMetadataReader(resource);
-				this.metadataReaderCache.put(resource, metadataReader);
+				MetadataReader existing = ((ConcurrentMap<Resource, MetadataReader>) this.metadataReaderCache)
+						.putIfAbsent(resource, metadataReader);
+				if (existing != null) {
+					metadataReader = existing;
+				}
 			}
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
+			MetadataReader metadataReader;
 			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+				metadataReader = this.metadataReaderCache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Read the class file outside of the lock, for concurrent scanning
+				metadataReader = super.getMetadataReader(resource);
+				synchronized (this.metadataReaderCache) {
+					MetadataReader existing = this.metadataReaderCache.putIfAbsent(resource, metadataReader);
+					if (existing != null) {
+						metadataReader = existing;
+					}
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
 			return super.getMetadataReader(resource);
@@ -159,6 +170,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 		public LocalResourceCache(int cacheLimit) {
 			super(cacheLimit, 0.75f, true);
+			this.cacheLimit = cacheLimit;
 		}
 
 		public void setCacheLimit(int cacheLimit) {
@@ -21,7 +21,9 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -97,6 +99,10 @@ public class AntPathMatcher implements PathMatcher {
 
 	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
 
+	private boolean compilePatterns = false;
+
+	final CompiledPatternCache compiledPatternCache = new CompiledPatternCache(CACHE_TURNOFF_THRESHOLD);
+
 
 	/**
 	 * Create a new instance with the {@link #DEFAULT_PATH_SEPARATOR}.
@@ -125,6 +131,7 @@ public class AntPathMatcher implements PathMatcher {
 	public void setPathSeparator(@Nullable String pathSeparator) {
 		this.pathSeparator = (pathSeparator != null ? pathSeparator : DEFAULT_PATH_SEPARATOR);
 		this.pathSeparatorPatternCache = new PathSeparatorPatternCache(this.pathSeparator);
+		this.compiledPatternCache.clear();
 	}
 
 	/**
@@ -134,6 +141,7 @@ public class AntPathMatcher implements PathMatcher {
 	 */
 	public void setCaseSensitive(boolean caseSensitive) {
 		this.caseSensitive = caseSensitive;
+		this.compiledPatternCache.clear();
 	}
 
 	/**
@@ -160,6 +168,38 @@ public class AntPathMatcher implements PathMatcher {
 		this.cachePatterns = cachePatterns;
 	}
 
+	/**
+	 * Specify whether to compile each pattern once into a sequence of literal,
+	 * wildcard and double-wildcard segments, which are then matched against
+	 * the offsets of a given path, without tokenizing the path and without
+	 * regular expressions for segments that do not declare URI template variables.
+	 * <p>Default is {@code false}. Compiled patterns are kept in a cache that is
+	 * bounded by the {@link #setCompiledPatternCacheLimit limit}: once reached,
+	 * patterns that have not been used recently get evicted, instead of turning
+	 * the cache off. The cache is unbounded
+	 * if {@link #setCachePatterns cachePatterns} has been set to {@code true},
+	 * and not used at all if it has been set to {@code false}.
+	 * <p>Note that compiled patterns bypass {@link #tokenizePattern},
+	 * {@link #tokenizePath} and {@link #getStringMatcher}; they are not used
+	 * if {@link #setTrimTokens trimTokens} has been activated.
+	 * @since 5.1.1
+	 */
+	public void setCompilePatterns(boolean compilePatterns) {
+		this.compilePatterns = compilePatterns;
+	}
+
+	/**
+	 * Specify the maximum number of compiled patterns to cache.
+	 * <p>Default is 65536. Beyond the limit, patterns that have not been used
+	 * since they were last considered for eviction get evicted first.
+	 * @since 5.1.1
+	 * @see #setCompilePatterns
+	 */
+	public void setCompiledPatternCacheLimit(int compiledPatternCacheLimit) {
+		Assert.isTrue(compiledPatternCacheLimit > 0, "'compiledPatternCacheLimit' must be positive");
+		this.compiledPatternCache.setLimit(compiledPatternCacheLimit);
+	}
+
 	private void deactivatePatternCache() {
 		this.cachePatterns = false;
 		this.tokenizedPatternCache.clear();
@@ -197,6 +237,10 @@ public class AntPathMatcher implements PathMatcher {
 			return false;
 		}
 
+		if (this.compilePatterns && !this.trimTokens) {
+			return getCompiledPattern(pattern).matches(path, fullMatch, uriTemplateVariables);
+		}
+
 		String[] pattDirs = tokenizePattern(pattern);
 		if (fullMatch && this.caseSensitive && !isPotentialMatch(path, pattDirs)) {
 			return false;
@@ -456,6 +500,23 @@ public class AntPathMatcher implements PathMatcher {
 		return matcher;
 	}
 
+	/**
+	 * Build or retrieve a {@link CompiledPattern} for the given pattern,
+	 * according to the {@link #setCachePatterns} setting.
+	 */
+	private CompiledPattern getCompiledPattern(String pattern) {
+		Boolean cachePatterns = this.cachePatterns;
+		if (cachePatterns != null && !cachePatterns.booleanValue()) {
+			return new CompiledPattern(pattern, this.pathSeparator, this.caseSensitive);
+		}
+		CompiledPattern compiled = this.compiledPatternCache.get(pattern);
+		if (compiled == null) {
+			compiled = new CompiledPattern(pattern, this.pathSeparator, this.caseSensitive);
+			this.compiledPatternCache.put(pattern, compiled, cachePatterns == null);
+		}
+		return compiled;
+	}
+
 	/**
 	 * Given a pattern and a full path, determine the pattern-mapped part. <p>For example: <ul>
 	 * <li>'{@code /docs/cvs/commit.html}' and '{@code /docs/cvs/commit.html} -> ''</li>
@@ -895,6 +956,391 @@ public class AntPathMatcher implements PathMatcher {
 	}
 
 
+	/**
+	 * A pattern that has been compiled into segments once, matching paths
+	 * by their character offsets with the same semantics as {@link #doMatch}.
+	 * <p>Segments without URI template variables are matched character by
+	 * character; {@code ?} and {@code *} do not match line terminators, just
+	 * like the regular expressions built by {@link AntPathStringMatcher}, which
+	 * are still used for segments with URI template variables.
+	 */
+	static final class CompiledPattern {
+
+		private final String pathSeparator;
+
+		private final boolean endsWithSeparator;
+
+		private final Segment[] segments;
+
+		CompiledPattern(String pattern, String pathSeparator, boolean caseSensitive) {
+			this.pathSeparator = pathSeparator;
+			this.endsWithSeparator = pattern.endsWith(pathSeparator);
+			String[] tokens = StringUtils.tokenizeToStringArray(pattern, pathSeparator, false, true);
+			this.segments = new Segment[tokens.length];
+			for (int i = 0; i < tokens.length; i++) {
+				this.segments[i] = new Segment(tokens[i], caseSensitive);
+			}
+		}
+
+		boolean matches(String path, boolean fullMatch, @Nullable Map<String, String> uriTemplateVariables) {
+			Segment[] segments = this.segments;
+			int pattIdxStart = 0;
+			int pattIdxEnd = segments.length - 1;
+			// Remaining path segments are located between these offsets
+			int pathStart = skipSeparators(path, 0);
+			int pathEnd = path.length();
+
+			// Match all elements up to the first **
+			while (pattIdxStart <= pattIdxEnd && pathStart < pathEnd) {
+				Segment segment = segments[pattIdxStart];
+				if (segment.isDoubleWildcard()) {
+					break;
+				}
+				int segmentEnd = segmentEnd(path, pathStart);
+				if (!segment.matches(path, pathStart, segmentEnd, uriTemplateVariables)) {
+					return false;
+				}
+				pattIdxStart++;
+				pathStart = skipSeparators(path, segmentEnd);
+			}
+
+			if (pathStart >= pathEnd) {
+				// Path is exhausted, only match if rest of pattern is * or **'s
+				if (pattIdxStart > pattIdxEnd) {
+					return (this.endsWithSeparator == path.endsWith(this.pathSeparator));
+				}
+				if (!fullMatch) {
+					return true;
+				}
+				if (pattIdxStart == pattIdxEnd && segments[pattIdxStart].isSingleWildcard() &&
+						path.endsWith(this.pathSeparator)) {
+					return true;
+				}
+				return isDoubleWildcards(pattIdxStart, pattIdxEnd);
+			}
+			else if (pattIdxStart > pattIdxEnd) {
+				// String not exhausted, but pattern is. Failure.
+				return false;
+			}
+			else if (!fullMatch && segments[pattIdxStart].isDoubleWildcard()) {
+				// Path start definitely matches due to "**" part in pattern.
+				return true;
+			}
+
+			// up to last '**'
+			while (pattIdxStart <= pattIdxEnd && pathStart < pathEnd) {
+				Segment segment = segments[pattIdxEnd];
+				if (segment.isDoubleWildcard()) {
+					break;
+				}
+				int segmentEnd = skipSeparatorsBackward(path, pathEnd);
+				int segmentStart = segmentStart(path, segmentEnd);
+				if (!segment.matches(path, segmentStart, segmentEnd, uriTemplateVariables)) {
+					return false;
+				}
+				pattIdxEnd--;
+				pathEnd = segmentStart;
+			}
+			if (pathStart >= pathEnd) {
+				// String is exhausted
+				return isDoubleWildcards(pattIdxStart, pattIdxEnd);
+			}
+
+			while (pattIdxStart != pattIdxEnd && pathStart < pathEnd) {
+				int patIdxTmp = -1;
+				for (int i = pattIdxStart + 1; i <= pattIdxEnd; i++) {
+					if (segments[i].isDoubleWildcard()) {
+						patIdxTmp = i;
+						break;
+					}
+				}
+				if (patIdxTmp == pattIdxStart + 1) {
+					// '**/**' situation, so skip one
+					pattIdxStart++;
+					continue;
+				}
+				// Find the segments between pattIdxStart & patIdxTmp in the remaining path
+				int patLength = (patIdxTmp - pattIdxStart - 1);
+				int strLength = countSegments(path, pathStart, pathEnd);
+				int foundEnd = -1;
+				int candidate = pathStart;
+				for (int i = 0; i <= strLength - patLength; i++) {
+					foundEnd = matchSegments(path, candidate, pattIdxStart + 1, patLength, uriTemplateVariables);
+					if (foundEnd != -1) {
+						break;
+					}
+					candidate = skipSeparators(path, segmentEnd(path, candidate));
+				}
+
+				if (foundEnd == -1) {
+					return false;
+				}
+
+				pattIdxStart = patIdxTmp;
+				pathStart = foundEnd;
+			}
+
+			return isDoubleWildcards(pattIdxStart, pattIdxEnd);
+		}
+
+		/**
+		 * Match the given number of segments, starting at the given path offset.
+		 * @return the offset of the path segment after the matched segments,
+		 * or -1 if the segments do not match
+		 */
+		private int matchSegments(String path, int pathStart, int segmentIndex, int count,
+				@Nullable Map<String, String> uriTemplateVariables) {
+
+			int pos = pathStart;
+			for (int j = 0; j < count; j++) {
+				int segmentEnd = segmentEnd(path, pos);
+				if (!this.segments[segmentIndex + j].matches(path, pos, segmentEnd, uriTemplateVariables)) {
+					return -1;
+				}
+				pos = skipSeparators(path, segmentEnd);
+			}
+			return pos;
+		}
+
+		private boolean isDoubleWildcards(int start, int end) {
+			for (int i = start; i <= end; i++) {
+				if (!this.segments[i].isDoubleWildcard()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean isSeparator(char c) {
+			return (this.pathSeparator.indexOf(c) != -1);
+		}
+
+		private int skipSeparators(String path, int pos) {
+			while (pos < path.length() && isSeparator(path.charAt(pos))) {
+				pos++;
+			}
+			return pos;
+		}
+
+		private int skipSeparatorsBackward(String path, int pos) {
+			while (pos > 0 && isSeparator(path.charAt(pos - 1))) {
+				pos--;
+			}
+			return pos;
+		}
+
+		private int segmentEnd(String path, int pos) {
+			while (pos < path.length() && !isSeparator(path.charAt(pos))) {
+				pos++;
+			}
+			return pos;
+		}
+
+		private int segmentStart(String path, int pos) {
+			while (pos > 0 && !isSeparator(path.charAt(pos - 1))) {
+				pos--;
+			}
+			return pos;
+		}
+
+		private int countSegments(String path, int start, int end) {
+			int count = 0;
+			int pos = start;
+			while (pos < end) {
+				count++;
+				pos = skipSeparators(path, segmentEnd(path, pos));
+			}
+			return count;
+		}
+
+
+		/**
+		 * A single segment of a compiled pattern.
+		 */
+		private static final class Segment {
+
+			private final String pattern;
+
+			private final boolean caseSensitive;
+
+			private final boolean literal;
+
+			private final boolean doubleWildcard;
+
+			@Nullable
+			private final AntPathStringMatcher templateMatcher;
+
+			Segment(String pattern, boolean caseSensitive) {
+				this.pattern = pattern;
+				this.caseSensitive = caseSensitive;
+				this.literal = (pattern.indexOf('*') == -1 && pattern.indexOf('?') == -1 && pattern.indexOf('{') == -1);
+				this.doubleWildcard = "**".equals(pattern);
+				this.templateMatcher = (pattern.indexOf('{') != -1 ?
+						new AntPathStringMatcher(pattern, caseSensitive) : null);
+			}
+
+			boolean isDoubleWildcard() {
+				return this.doubleWildcard;
+			}
+
+			boolean isSingleWildcard() {
+				return "*".equals(this.pattern);
+			}
+
+			boolean matches(String path, int start, int end, @Nullable Map<String, String> uriTemplateVariables) {
+				if (this.templateMatcher != null) {
+					return this.templateMatcher.matchStrings(path.substring(start, end), uriTemplateVariables);
+				}
+				if (this.literal) {
+					if (end - start != this.pattern.length()) {
+						return false;
+					}
+					for (int i = 0; i < this.pattern.length(); i++) {
+						if (!charEquals(this.pattern.charAt(i), path.charAt(start + i))) {
+							return false;
+						}
+					}
+					return true;
+				}
+				return matchWildcards(path, start, end);
+			}
+
+			private boolean matchWildcards(String path, int start, int end) {
+				String pattern = this.pattern;
+				int pattPos = 0;
+				int pathPos = start;
+				int starPattPos = -1;
+				int starPathPos = -1;
+				while (pathPos < end) {
+					if (pattPos < pattern.length()) {
+						char c = pattern.charAt(pattPos);
+						if (c == '*') {
+							starPattPos = pattPos++;
+							starPathPos = pathPos;
+							continue;
+						}
+						if (c == '?' ? !isLineTerminator(path.charAt(pathPos)) : charEquals(c, path.charAt(pathPos))) {
+							pattPos++;
+							pathPos++;
+							continue;
+						}
+					}
+					// Let the last '*' consume one more character, if possible
+					if (starPattPos == -1 || isLineTerminator(path.charAt(starPathPos))) {
+						return false;
+					}
+					pattPos = starPattPos + 1;
+					pathPos = ++starPathPos;
+				}
+				while (pattPos < pattern.length() && pattern.charAt(pattPos) == '*') {
+					pattPos++;
+				}
+				return (pattPos == pattern.length());
+			}
+
+			private boolean charEquals(char c1, char c2) {
+				if (c1 == c2) {
+					return true;
+				}
+				// Same as Pattern.CASE_INSENSITIVE: US-ASCII characters only
+				return (!this.caseSensitive && c1 < 128 && c2 < 128 &&
+						Character.toLowerCase(c1) == Character.toLowerCase(c2));
+			}
+
+			private static boolean isLineTerminator(char c) {
+				return (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029');
+			}
+		}
+	}
+
+
+	/**
+	 * A cache of compiled patterns, bounded by a limit with second-chance
+	 * eviction: a pattern that has been used since it was added or last passed
+	 * over is moved to the back of the eviction queue instead of being evicted.
+	 * Cache hits only write the usage flag of a pattern that is not set yet.
+	 */
+	static final class CompiledPatternCache {
+
+		private final Map<String, Entry> entries = new ConcurrentHashMap<>(256);
+
+		private final Queue<String> evictionQueue = new ConcurrentLinkedQueue<>();
+
+		private volatile int limit;
+
+		CompiledPatternCache(int limit) {
+			this.limit = limit;
+		}
+
+		void setLimit(int limit) {
+			this.limit = limit;
+		}
+
+		@Nullable
+		CompiledPattern get(String pattern) {
+			Entry entry = this.entries.get(pattern);
+			if (entry == null) {
+				return null;
+			}
+			if (!entry.used) {
+				entry.used = true;
+			}
+			return entry.compiled;
+		}
+
+		void put(String pattern, CompiledPattern compiled, boolean bounded) {
+			if (this.entries.putIfAbsent(pattern, new Entry(compiled)) == null) {
+				this.evictionQueue.add(pattern);
+				if (bounded && this.entries.size() > this.limit) {
+					evict();
+				}
+			}
+		}
+
+		private synchronized void evict() {
+			while (this.entries.size() > this.limit) {
+				String pattern = this.evictionQueue.poll();
+				if (pattern == null) {
+					return;
+				}
+				Entry entry = this.entries.get(pattern);
+				if (entry != null && entry.used) {
+					entry.used = false;
+					this.evictionQueue.add(pattern);
+				}
+				else {
+					this.entries.remove(pattern);
+				}
+			}
+		}
+
+		boolean containsKey(String pattern) {
+			return this.entries.containsKey(pattern);
+		}
+
+		int size() {
+			return this.entries.size();
+		}
+
+		synchronized void clear() {
+			this.entries.clear();
+			this.evictionQueue.clear();
+		}
+
+
+		private static final class Entry {
+
+			final CompiledPattern compiled;
+
+			volatile boolean used;
+
+			Entry(CompiledPattern compiled) {
+				this.compiled = compiled;
+			}
+		}
+	}
+
+
 	/**
 	 * A simple cache for patterns that depend on the configured path separator.
 	 */
@@ -28,8 +28,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -53,6 +55,10 @@ import org.springframework.lang.Nullable;
  * <p>If not explicitly specified, this implementation will use
  * {@linkplain SoftReference soft entry references}.
  *
+ * <p>Read operations do not block: garbage collected entries are purged by readers
+ * only if the affected segment is not locked at that point, otherwise the purge is
+ * left to the next operation on the segment.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @since 3.2
@@ -481,6 +487,11 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		 */
 		private int resizeThreshold;
 
+		/**
+		 * References polled for purging by a reader that could not acquire the lock.
+		 */
+		private final Queue<Reference<K, V>> pendingPurges = new ConcurrentLinkedQueue<>();
+
 		public Segment(int initialCapacity) {
 			this.referenceManager = createReferenceManager();
 			this.initialSize = 1 << calculateShift(initialCapacity, MAXIMUM_SEGMENT_SIZE);
@@ -491,7 +502,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		@Nullable
 		public Reference<K, V> getReference(@Nullable Object key, int hash, Restructure restructure) {
 			if (restructure == Restructure.WHEN_NECESSARY) {
-				restructureIfNecessary(false);
+				restructureIfNecessary(false, false);
 			}
 			if (this.count == 0) {
 				return null;
@@ -571,10 +582,28 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		 * @param allowResize if resizing is permitted
 		 */
 		protected final void restructureIfNecessary(boolean allowResize) {
+			restructureIfNecessary(allowResize, true);
+		}
+
+		/**
+		 * Restructure the underlying data structure when it becomes necessary.
+		 * @param allowResize if resizing is permitted
+		 * @param wait whether to wait for the lock if the segment is locked by
+		 * another thread; if not, the restructure is left to a subsequent call
+		 */
+		private void restructureIfNecessary(boolean allowResize, boolean wait) {
 			boolean needsResize = (this.count > 0 && this.count >= this.resizeThreshold);
-			Reference<K, V> ref = this.referenceManager.pollForPurge();
+			Reference<K, V> ref = pollForPurge();
 			if (ref != null || (needsResize && allowResize)) {
-				lock();
+				if (wait) {
+					lock();
+				}
+				else if (!tryLock()) {
+					if (ref != null) {
+						this.pendingPurges.add(ref);
+					}
+					return;
+				}
 				try {
 					int countAfterRestructure = this.count;
 					Set<Reference<K, V>> toPurge = Collections.emptySet();
@@ -582,7 +611,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 						toPurge = new HashSet<>();
 						while (ref != null) {
 							toPurge.add(ref);
-							ref = this.referenceManager.pollForPurge();
+							ref = pollForPurge();
 						}
 					}
 					countAfterRestructure -= toPurge.size();
@@ -597,16 +626,14 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 						resizing = true;
 					}
 
-					// Either create a new table or reuse the existing one
-					Reference<K, V>[] restructured =
-							(resizing ? createReferenceArray(restructureSize) : this.references);
+					// Always create a new table, so that concurrent readers never see
+					// a partially restructured one
+					Reference<K, V>[] restructured = createReferenceArray(restructureSize);
 
 					// Restructure
+					int restructuredCount = 0;
 					for (int i = 0; i < this.references.length; i++) {
 						ref = this.references[i];
-						if (!resizing) {
-							restructured[i] = null;
-						}
 						while (ref != null) {
 							if (!toPurge.contains(ref)) {
 								Entry<K, V> entry = ref.get();
@@ -614,6 +641,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 									int index = getIndex(ref.getHash(), restructured);
 									restructured[index] = this.referenceManager.createReference(
 											entry, ref.getHash(), restructured[index]);
+									restructuredCount++;
 								}
 							}
 							ref = ref.getNext();
@@ -621,11 +649,11 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 					}
 
 					// Replace volatile members
+					this.references = restructured;
 					if (resizing) {
-						this.references = restructured;
 						this.resizeThreshold = (int) (this.references.length * getLoadFactor());
 					}
-					this.count = Math.max(countAfterRestructure, 0);
+					this.count = restructuredCount;
 				}
 				finally {
 					unlock();
@@ -633,6 +661,12 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 			}
 		}
 
+		@Nullable
+		private Reference<K, V> pollForPurge() {
+			Reference<K, V> ref = (this.pendingPurges.isEmpty() ? null : this.pendingPurges.poll());
+			return (ref != null ? ref : this.referenceManager.pollForPurge());
+		}
+
 		@Nullable
 		private Reference<K, V> findInChain(Reference<K, V> ref, @Nullable Object key, int hash) {
 			Reference<K, V> currRef = ref;
@@ -28,6 +28,10 @@ import java.util.*;
  * user-supplied values. <p> Values for substitution can be supplied using a {@link Properties} instance or
  * using a {@link PlaceholderResolver}.
  *
+ * <p>As of 5.1.1, each value is parsed once into a template of literal text and
+ * placeholders, which is cached per helper instance and reused for subsequent
+ * replacements of the same value.
+ *
  * @author Juergen Hoeller
  * @author Rob Harrop
  * @since 3.0
@@ -56,6 +60,9 @@ public class PropertyPlaceholderHelper {
 
 	private final boolean ignoreUnresolvablePlaceholders;
 
+	/** Cache of compiled templates, keyed by value. */
+	private final Map<String, Template> templateCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	/**
 	 * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
@@ -116,74 +123,176 @@ public class PropertyPlaceholderHelper {
 	 */
 	public String replacePlaceholders(String value, PlaceholderResolver placeholderResolver) {
 		Assert.notNull(value, "'value' must not be null");
-		return parseStringValue(value, placeholderResolver, new HashSet<>());
+		if (!value.contains(this.placeholderPrefix)) {
+			return value;
+		}
+		return renderTemplate(getTemplate(value), placeholderResolver, null);
 	}
 
 	protected String parseStringValue(String value, PlaceholderResolver placeholderResolver, Set<String> visitedPlaceholders) {
-		StringBuilder result = new StringBuilder(value);
+		if (!value.contains(this.placeholderPrefix)) {
+			return value;
+		}
+		return renderTemplate(getTemplate(value), placeholderResolver, visitedPlaceholders);
+	}
+
+	/**
+	 * Return the compiled template for the given value, parsing it on first access.
+	 */
+	private Template getTemplate(String value) {
+		Template template = this.templateCache.get(value);
+		if (template == null) {
+			template = compileTemplate(value);
+			this.templateCache.put(value, template);
+		}
+		return template;
+	}
 
-        // 获取前缀 "${" 的索引位置
+	/**
+	 * Parse the given value into literal text and placeholders, in the same way
+	 * that placeholders are located when resolving the value: the boundaries of
+	 * placeholders only depend on the value itself, never on resolved values.
+	 */
+	private Template compileTemplate(String value) {
+		List<String> literals = new ArrayList<>();
+		List<Placeholder> placeholders = new ArrayList<>();
+		int literalStart = 0;
+		// 获取前缀 "${" 的索引位置
 		int startIndex = value.indexOf(this.placeholderPrefix);
 		while (startIndex != -1) {
-            // 获取 后缀 "}" 的索引位置
-			int endIndex = findPlaceholderEndIndex(result, startIndex);
-			if (endIndex != -1) {
-                // 截取 "${" 和 "}" 中间的内容，这也就是我们在配置文件中对应的值
-				String placeholder = result.substring(startIndex + this.placeholderPrefix.length(), endIndex);
-				String originalPlaceholder = placeholder;
-				if (!visitedPlaceholders.add(originalPlaceholder)) {
-					throw new IllegalArgumentException(
-							"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
-				}
-				// Recursive invocation, parsing placeholders contained in the placeholder key.
-                // 解析占位符键中包含的占位符，真正的值
-				placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
-				// Now obtain the value for the fully resolved key...
-                // 从 Properties 中获取 placeHolder 对应的值 propVal
-                String propVal = placeholderResolver.resolvePlaceholder(placeholder);
-                // 如果不存在
-				if (propVal == null && this.valueSeparator != null) {
-                    // 查询 : 的位置
-					int separatorIndex = placeholder.indexOf(this.valueSeparator);
-                    // 如果存在 :
-					if (separatorIndex != -1) {
-                        // 获取 : 前面部分 actualPlaceholder
-						String actualPlaceholder = placeholder.substring(0, separatorIndex);
-                        // 获取 : 后面部分 defaultValue
-						String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
-                        // 从 Properties 中获取 actualPlaceholder 对应的值
-						propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
-                        // 如果不存在 则返回 defaultValue
-						if (propVal == null) {
-							propVal = defaultValue;
-						}
-					}
-				}
-				if (propVal != null) {
-					// Recursive invocation, parsing placeholders contained in the
-					// previously resolved placeholder value.
-					propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
-					result.replace(startIndex, endIndex + this.placeholderSuffix.length(), propVal);
-					if (logger.isTraceEnabled()) {
-						logger.trace("Resolved placeholder '" + placeholder + "'");
-					}
-					startIndex = result.indexOf(this.placeholderPrefix, startIndex + propVal.length());
-				} else if (this.ignoreUnresolvablePlaceholders) {
-					// Proceed with unprocessed value.
-                    // 忽略值
-					startIndex = result.indexOf(this.placeholderPrefix, endIndex + this.placeholderSuffix.length());
-				} else {
-					throw new IllegalArgumentException("Could not resolve placeholder '" +
-							placeholder + "'" + " in value \"" + value + "\"");
+			// 获取 后缀 "}" 的索引位置
+			int endIndex = findPlaceholderEndIndex(value, startIndex);
+			if (endIndex == -1) {
+				break;
+			}
+			int placeholderEnd = endIndex + this.placeholderSuffix.length();
+			literals.add(value.substring(literalStart, startIndex));
+			placeholders.add(compilePlaceholder(value.substring(startIndex, placeholderEnd),
+					value.substring(startIndex + this.placeholderPrefix.length(), endIndex)));
+			literalStart = placeholderEnd;
+			startIndex = value.indexOf(this.placeholderPrefix, placeholderEnd);
+		}
+		literals.add(value.substring(literalStart));
+		return new Template(value, StringUtils.toStringArray(literals), placeholders.toArray(new Placeholder[0]));
+	}
+
+	private Placeholder compilePlaceholder(String text, String key) {
+		if (key.contains(this.placeholderPrefix)) {
+			// The actual key and default value can only be determined once the nested placeholders are resolved
+			return new Placeholder(text, key, compileTemplate(key), null, null);
+		}
+		if (this.valueSeparator != null) {
+			int separatorIndex = key.indexOf(this.valueSeparator);
+			if (separatorIndex != -1) {
+				return new Placeholder(text, key, null, key.substring(0, separatorIndex),
+						key.substring(separatorIndex + this.valueSeparator.length()));
+			}
+		}
+		return new Placeholder(text, key, null, null, null);
+	}
+
+	/**
+	 * Resolve the placeholders of the given template, recursively resolving
+	 * placeholders in placeholder keys and in resolved values.
+	 * @param visitedPlaceholders the placeholders currently being resolved,
+	 * or {@code null} if not within the resolution of another placeholder
+	 */
+	private String renderTemplate(Template template, PlaceholderResolver placeholderResolver,
+			@Nullable Set<String> visitedPlaceholders) {
+
+		Placeholder[] placeholders = template.placeholders;
+		if (placeholders.length == 0) {
+			return template.value;
+		}
+		String[] values = new String[placeholders.length];
+		int length = template.literalLength;
+		for (int i = 0; i < placeholders.length; i++) {
+			Placeholder placeholder = placeholders[i];
+			// Only track visited placeholders once a recursive resolution is possible
+			if (visitedPlaceholders == null && placeholder.keyTemplate != null) {
+				visitedPlaceholders = new HashSet<>();
+			}
+			boolean visited = (visitedPlaceholders != null);
+			if (visited && !visitedPlaceholders.add(placeholder.key)) {
+				throw new IllegalArgumentException(
+						"Circular placeholder reference '" + placeholder.key + "' in property definitions");
+			}
+			String propVal = resolvePlaceholder(template, placeholder, placeholderResolver, visitedPlaceholders);
+			if (propVal != null && propVal.contains(this.placeholderPrefix)) {
+				// Recursive invocation, parsing placeholders contained in the
+				// previously resolved placeholder value.
+				if (!visited) {
+					visitedPlaceholders = new HashSet<>();
+					visitedPlaceholders.add(placeholder.key);
+					visited = true;
 				}
-				visitedPlaceholders.remove(originalPlaceholder);
-			} else {
-				startIndex = -1;
+				propVal = renderTemplate(getTemplate(propVal), placeholderResolver, visitedPlaceholders);
+			}
+			if (propVal == null) {
+				// Proceed with unprocessed value.
+				propVal = placeholder.text;
+			}
+			if (visited) {
+				visitedPlaceholders.remove(placeholder.key);
 			}
+			values[i] = propVal;
+			length += propVal.length();
+		}
+		if (values.length == 1 && length == values[0].length()) {
+			return values[0];
+		}
+		String[] literals = template.literals;
+		StringBuilder result = new StringBuilder(length);
+		for (int i = 0; i < values.length; i++) {
+			result.append(literals[i]).append(values[i]);
 		}
+		return result.append(literals[values.length]).toString();
+	}
+
+	/**
+	 * Obtain the value for the given placeholder of the given template, falling
+	 * back to the default value of the placeholder, if any.
+	 * @return the unparsed value, or {@code null} if unresolvable placeholders are ignored
+	 * @throws IllegalArgumentException if the placeholder is unresolvable and
+	 * unresolvable placeholders are not to be ignored
+	 */
+	@Nullable
+	private String resolvePlaceholder(Template template, Placeholder placeholder,
+			PlaceholderResolver placeholderResolver, @Nullable Set<String> visitedPlaceholders) {
 
-        // 返回propVal，就是替换之后的值
-		return result.toString();
+		String key = placeholder.key;
+		String actualKey = placeholder.actualKey;
+		String defaultValue = placeholder.defaultValue;
+		if (placeholder.keyTemplate != null) {
+			// Recursive invocation, parsing placeholders contained in the placeholder key.
+			key = renderTemplate(placeholder.keyTemplate, placeholderResolver, visitedPlaceholders);
+			if (this.valueSeparator != null) {
+				int separatorIndex = key.indexOf(this.valueSeparator);
+				if (separatorIndex != -1) {
+					actualKey = key.substring(0, separatorIndex);
+					defaultValue = key.substring(separatorIndex + this.valueSeparator.length());
+				}
+			}
+		}
+		// Now obtain the value for the fully resolved key...
+		String propVal = placeholderResolver.resolvePlaceholder(key);
+		if (propVal == null && actualKey != null) {
+			propVal = placeholderResolver.resolvePlaceholder(actualKey);
+			if (propVal == null) {
+				propVal = defaultValue;
+			}
+		}
+		if (propVal != null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Resolved placeholder '" + key + "'");
+			}
+			return propVal;
+		}
+		if (this.ignoreUnresolvablePlaceholders) {
+			return null;
+		}
+		throw new IllegalArgumentException("Could not resolve placeholder '" +
+				key + "'" + " in value \"" + template.value + "\"");
 	}
 
 	private int findPlaceholderEndIndex(CharSequence buf, int startIndex) {
@@ -226,4 +335,65 @@ public class PropertyPlaceholderHelper {
 		String resolvePlaceholder(String placeholderName);
 	}
 
+
+	/**
+	 * A parsed value: literal text interleaved with placeholders, starting and
+	 * ending with (possibly empty) literal text.
+	 */
+	private static final class Template {
+
+		final String value;
+
+		final String[] literals;
+
+		final Placeholder[] placeholders;
+
+		final int literalLength;
+
+		Template(String value, String[] literals, Placeholder[] placeholders) {
+			this.value = value;
+			this.literals = literals;
+			this.placeholders = placeholders;
+			int literalLength = 0;
+			for (String literal : literals) {
+				literalLength += literal.length();
+			}
+			this.literalLength = literalLength;
+		}
+	}
+
+
+	/**
+	 * A placeholder within a {@link Template}. The key is parsed into a template
+	 * of its own if it contains nested placeholders; otherwise, the actual key
+	 * and the default value are split upfront.
+	 */
+	private static final class Placeholder {
+
+		/** The placeholder including prefix and suffix. */
+		final String text;
+
+		/** The unresolved key between prefix and suffix. */
+		final String key;
+
+		@Nullable
+		final Template keyTemplate;
+
+		@Nullable
+		final String actualKey;
+
+		@Nullable
+		final String defaultValue;
+
+		Placeholder(String text, String key, @Nullable Template keyTemplate,
+				@Nullable String actualKey, @Nullable String defaultValue) {
+
+			this.text = text;
+			this.key = key;
+			this.keyTemplate = keyTemplate;
+			this.actualKey = actualKey;
+			this.defaultValue = defaultValue;
+		}
+	}
+
 }
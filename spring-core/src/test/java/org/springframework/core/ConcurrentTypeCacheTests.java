@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.core.ResolvableType.CacheStatistics;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConcurrentTypeCache}.
+ *
+ * @since 5.1.1
+ */
+public class ConcurrentTypeCacheTests {
+
+	private final ConcurrentTypeCache<String> cache = new ConcurrentTypeCache<>(64);
+
+
+	@Test
+	public void lookupMatchesAllKeyComponents() {
+		this.cache.put(List.class, null, null, "plain");
+		this.cache.put(List.class, Map.class, null, "owner");
+		this.cache.put(List.class, Map.class, "source", "owner and source");
+		assertEquals("plain", this.cache.get(List.class, null, null));
+		assertEquals("owner", this.cache.get(List.class, Map.class, null));
+		assertEquals("owner and source", this.cache.get(List.class, Map.class, "source"));
+		assertNull(this.cache.get(List.class, Set.class, null));
+		assertNull(this.cache.get(Set.class, null, null));
+		assertEquals(3, this.cache.size());
+	}
+
+	@Test
+	public void putKeepsExistingValue() {
+		assertEquals("first", this.cache.put(List.class, null, null, "first"));
+		assertEquals("first", this.cache.put(List.class, null, null, "second"));
+		assertEquals(1, this.cache.size());
+	}
+
+	@Test
+	public void sizeIsBounded() {
+		for (int i = 0; i < 1000; i++) {
+			this.cache.put(new TestType(i), null, null, "value" + i);
+			assertTrue(this.cache.size() <= 64);
+		}
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertEquals(64, statistics.getMaximumSize());
+		assertEquals(this.cache.size(), statistics.getSize());
+		assertEquals(1000 - this.cache.size(), statistics.getEvictionCount());
+	}
+
+	@Test
+	public void recentlyUsedEntriesSurviveEviction() {
+		for (int i = 0; i < 8; i++) {
+			this.cache.put(new TestType(i), null, null, "hot" + i);
+		}
+		// A scan of one-hit wonders does not flush the entries in use
+		for (int i = 100; i < 1100; i++) {
+			if (i % 8 == 0) {
+				for (int j = 0; j < 8; j++) {
+					assertNotNull(this.cache.get(new TestType(j), null, null));
+				}
+			}
+			this.cache.put(new TestType(i), null, null, "cold" + i);
+		}
+		for (int i = 0; i < 8; i++) {
+			assertEquals("hot" + i, this.cache.get(new TestType(i), null, null));
+		}
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.put(List.class, null, null, "value");
+		this.cache.get(List.class, null, null);
+		this.cache.get(List.class, null, null);
+		this.cache.get(List.class, null, null);
+		this.cache.get(Set.class, null, null);
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertEquals(3, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(0.75, statistics.getHitRate(), 0.0);
+		assertEquals(0, statistics.getEvictionCount());
+		assertEquals(1, statistics.getSize());
+	}
+
+	@Test
+	public void clear() {
+		this.cache.put(List.class, null, null, "value");
+		this.cache.clear();
+		assertNull(this.cache.get(List.class, null, null));
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void clearClassLoader() throws Exception {
+		ClassLoader child = new OverridingClassLoader(getClass().getClassLoader());
+		Class<?> childFields = child.loadClass(Fields.class.getName());
+		assertNotSame(Fields.class, childFields);
+		this.cache.put(childFields, null, null, "class");
+		this.cache.put(childFields.getField("fieldsList").getGenericType(), null, null, "argument");
+		this.cache.put(new TestType(1), childFields, null, "owner");
+		this.cache.put(Fields.class, null, null, "parent");
+		this.cache.put(Fields.class.getField("fieldsList").getGenericType(), null, null, "parentArgument");
+		this.cache.clearClassLoader(child);
+		assertEquals(2, this.cache.size());
+		assertEquals("parent", this.cache.get(Fields.class, null, null));
+		assertEquals("parentArgument", this.cache.get(Fields.class.getField("fieldsList").getGenericType(), null, null));
+		assertNull(this.cache.get(childFields, null, null));
+		assertNull(this.cache.get(new TestType(1), childFields, null));
+	}
+
+	@Test
+	public void resolvableTypeCacheStatistics() throws Exception {
+		ResolvableType.clearCache();
+		long hits = ResolvableType.getCacheStatistics().getHitCount();
+		ResolvableType type = ResolvableType.forField(Fields.class.getField("stringList"));
+		assertEquals(String.class, type.getGeneric().resolve());
+		ResolvableType again = ResolvableType.forField(Fields.class.getField("stringList"));
+		assertEquals(type, again);
+		assertEquals(type.hashCode(), again.hashCode());
+		assertEquals(List.class, again.resolve());
+		assertTrue(ResolvableType.getCacheStatistics().getHitCount() > hits);
+		assertTrue(ResolvableType.getCacheStatistics().getSize() > 0);
+		assertTrue(ResolvableType.getTypeProxyCacheStatistics().getSize() > 0);
+	}
+
+
+	private static final class TestType implements Type {
+
+		private final int id;
+
+		TestType(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof TestType && ((TestType) other).id == this.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.id;
+		}
+	}
+
+
+	public static class Fields {
+
+		public List<String> stringList;
+
+		public List<Fields> fieldsList;
+	}
+
+}
@@ -450,6 +450,59 @@ public class AnnotatedElementUtilsTests {
 		assertTrue(isAnnotated(element, name));
 	}
 
+	@Test
+	public void getMergedAnnotationViewWithAliasedComposedAnnotation() {
+		Class<?> element = AliasedComposedContextConfigClass.class;
+		MergedAnnotationView<ContextConfig> view = getMergedAnnotationView(element, ContextConfig.class);
+
+		assertNotNull("Should find @ContextConfig on " + element.getSimpleName(), view);
+		assertEquals(ContextConfig.class, view.annotationType());
+		assertArrayEquals("value", asArray("test.xml"), view.getStringArray("value"));
+		assertArrayEquals("locations", asArray("test.xml"), view.getStringArray("locations"));
+		assertArrayEquals("classes", new Class<?>[0], view.getClassArray("classes"));
+		assertSame(view, getMergedAnnotationView(element, ContextConfig.class));
+	}
+
+	@Test
+	public void mergedAnnotationViewDoesNotExposeCachedState() {
+		Class<?> element = AliasedComposedContextConfigClass.class;
+		MergedAnnotationView<ContextConfig> view = getMergedAnnotationView(element, ContextConfig.class);
+		assertNotNull(view);
+		view.getStringArray("value")[0] = "other.xml";
+		((String[]) view.getValue("locations"))[0] = "other.xml";
+
+		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, ContextConfig.class);
+		assertNotNull(attributes);
+		attributes.getStringArray("value")[0] = "other.xml";
+		attributes.put("locations", asArray("other.xml"));
+
+		assertArrayEquals(asArray("test.xml"), view.getStringArray("value"));
+		assertArrayEquals(asArray("test.xml"), getMergedAnnotationAttributes(element, ContextConfig.class).getStringArray("locations"));
+		assertArrayEquals(asArray("test.xml"), getMergedAnnotation(element, ContextConfig.class).value());
+	}
+
+	@Test
+	public void mergedAnnotationViewsFollowGetAndFindSemantics() {
+		assertNull(getMergedAnnotationView(SubInheritedAnnotationInterface.class, Transactional.class));
+		MergedAnnotationView<Transactional> view = findMergedAnnotationView(SubInheritedAnnotationInterface.class, Transactional.class);
+		assertNotNull("Should find @Transactional on SubInheritedAnnotationInterface", view);
+		assertEquals(Transactional.class, view.synthesize().annotationType());
+		assertNull(findMergedAnnotationView(NonAnnotatedClass.class, Transactional.class));
+		assertNull(findMergedAnnotationView(Object.class, Transactional.class));
+	}
+
+	@Test
+	public void findMergedAnnotationReusesSynthesizedAnnotation() {
+		Class<?> element = AliasedComposedContextConfigClass.class;
+		ContextConfig contextConfig = findMergedAnnotation(element, ContextConfig.class);
+
+		assertTrue(contextConfig instanceof SynthesizedAnnotation);
+		assertSame(contextConfig, findMergedAnnotation(element, ContextConfig.class));
+		AnnotationUtils.clearCache();
+		assertNotSame(contextConfig, findMergedAnnotation(element, ContextConfig.class));
+		assertEquals(contextConfig, findMergedAnnotation(element, ContextConfig.class));
+	}
+
 	@Test
 	public void getMergedAnnotationAttributesWithInvalidConventionBasedComposedAnnotation() {
 		Class<?> element = InvalidConventionBasedComposedContextConfigClass.class;
@@ -79,6 +79,13 @@ public class ResourceRegionEncoderTests extends AbstractDataBufferAllocatingTest
 				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()));
 	}
 
+	@Test
+	public void shouldEncodeResourceRegionFileResourceWithMemoryMapping() throws Exception {
+		this.encoder.setUseMemoryMapping(true);
+		shouldEncodeResourceRegion(
+				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()));
+	}
+
 	@Test
 	public void shouldEncodeResourceRegionByteArrayResource() throws Exception {
 		String content = "Spring Framework test resource content.";
@@ -104,6 +111,13 @@ public class ResourceRegionEncoderTests extends AbstractDataBufferAllocatingTest
 				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()));
 	}
 
+	@Test
+	public void shouldEncodeMultipleResourceRegionsFileResourceWithMemoryMapping() throws Exception {
+		this.encoder.setUseMemoryMapping(true);
+		shouldEncodeMultipleResourceRegions(
+				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()));
+	}
+
 	@Test
 	public void shouldEncodeMultipleResourceRegionsByteArrayResource() throws Exception {
 		String content = "Spring Framework test resource content.";
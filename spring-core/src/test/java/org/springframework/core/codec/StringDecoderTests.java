@@ -18,6 +18,7 @@ package org.springframework.core.codec;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -148,6 +149,94 @@ public class StringDecoderTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void decodeDelimiterAcrossBuffers() {
+		Flux<DataBuffer> source = Flux.just(
+				stringBuffer("abc\r"),
+				stringBuffer("\ndef\r"),
+				stringBuffer("\n"),
+				stringBuffer("ghi")
+		);
+
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("abc")
+				.expectNext("def")
+				.expectNext("ghi")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeCustomDelimiters() {
+		decoder = StringDecoder.allMimeTypes(Arrays.asList("--", "::="), true);
+
+		Flux<DataBuffer> source = Flux.just(
+				stringBuffer("abc:"),
+				stringBuffer(":=def-"),
+				stringBuffer("-ghi::jkl--")
+		);
+
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("abc")
+				.expectNext("def")
+				.expectNext("ghi::jkl")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeDelimitersWithSharedPrefix() {
+		decoder = StringDecoder.allMimeTypes(Arrays.asList("\r\n", "\r", "\n"), true);
+
+		Flux<DataBuffer> source = Flux.just(
+				stringBuffer("a\r\nb\rc\nd\r"),
+				stringBuffer("\ne\r"),
+				stringBuffer("f\r")
+		);
+
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("a")
+				.expectNext("b")
+				.expectNext("c")
+				.expectNext("d")
+				.expectNext("e")
+				.expectNext("f")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeDelimitersWithSharedPrefixIncludeDelimiters() {
+		decoder = StringDecoder.allMimeTypes(Arrays.asList("\r", "\r\n"), false);
+
+		Flux<DataBuffer> source = Flux.just(
+				stringBuffer("a\r"),
+				stringBuffer("\nb\r"),
+				stringBuffer("\r"),
+				stringBuffer("c")
+		);
+
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("a\r\n")
+				.expectNext("b\r")
+				.expectNext("\r")
+				.expectNext("c")
+				.expectComplete()
+				.verify();
+	}
+
 	@Test
 	public void decodeEmptyFlux() {
 		Flux<DataBuffer> source = Flux.empty();
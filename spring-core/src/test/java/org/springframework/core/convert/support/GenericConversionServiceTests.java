@@ -375,6 +375,94 @@ public class GenericConversionServiceTests {
 		// System.out.println(watch.prettyPrint());
 	}
 
+	@Test
+	public void testPerformanceStringToInteger() {
+		Assume.group(TestGroup.PERFORMANCE);
+		DefaultConversionService.addDefaultConverters(conversionService);
+		StopWatch watch = new StopWatch("string -> integer conversionPerformance");
+		watch.start("convert 4,000,000 with raw classes");
+		for (int i = 0; i < 4000000; i++) {
+			conversionService.convert("1", Integer.class);
+		}
+		watch.stop();
+		TypeDescriptor sourceType = TypeDescriptor.valueOf(String.class);
+		TypeDescriptor targetType = TypeDescriptor.valueOf(Integer.class);
+		watch.start("convert 4,000,000 with type descriptors");
+		for (int i = 0; i < 4000000; i++) {
+			conversionService.convert("1", sourceType, targetType);
+		}
+		watch.stop();
+		watch.start("convert 4,000,000 manually");
+		for (int i = 0; i < 4000000; i++) {
+			Integer.valueOf("1");
+		}
+		watch.stop();
+		// System.out.println(watch.prettyPrint());
+	}
+
+	@Test
+	public void convertRawClassesWithConverterFactory() {
+		CountingConverterFactory factory = new CountingConverterFactory();
+		conversionService.addConverterFactory(factory);
+		assertTrue(conversionService.canConvert(String.class, Integer.class));
+		assertEquals(Integer.valueOf(1), conversionService.convert("1", Integer.class));
+		assertEquals(Long.valueOf(2), conversionService.convert("2", Long.class));
+		int lookups = factory.lookups;
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", Integer.class));
+		assertEquals(Long.valueOf(4), conversionService.convert("4", Long.class));
+		assertEquals(lookups, factory.lookups);
+		assertEquals(Integer.valueOf(5), conversionService.convert("5", int.class));
+	}
+
+	@Test
+	public void convertRawClassesAfterConverterRegistration() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertEquals(Integer.valueOf(1), conversionService.convert("1", Integer.class));
+		conversionService.addConverter(String.class, Integer.class, source -> 42);
+		assertEquals(Integer.valueOf(42), conversionService.convert("1", Integer.class));
+		conversionService.removeConvertible(String.class, Integer.class);
+		assertEquals(Integer.valueOf(1), conversionService.convert("1", Integer.class));
+	}
+
+	@Test
+	public void convertRawClassesWithFailure() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		try {
+			conversionService.convert("x", Integer.class);
+			fail("Should have thrown ConversionFailedException");
+		}
+		catch (ConversionFailedException ex) {
+			assertEquals(TypeDescriptor.valueOf(String.class), ex.getSourceType());
+			assertEquals(TypeDescriptor.valueOf(Integer.class), ex.getTargetType());
+			assertEquals("x", ex.getValue());
+			assertTrue(ex.getCause() instanceof NumberFormatException);
+		}
+	}
+
+	@Test
+	public void convertRawClassesWithoutConverter() {
+		assertSame(conversionService, conversionService.convert(conversionService, Object.class));
+		try {
+			conversionService.convert("1", Integer.class);
+			fail("Should have thrown ConverterNotFoundException");
+		}
+		catch (ConverterNotFoundException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void convertRawClassesWithOverriddenConversion() {
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			@Nullable
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return "overridden";
+			}
+		};
+		assertEquals("overridden", conversionService.convert("1", String.class));
+	}
+
 	@Test
 	public void emptyListToArray() {
 		conversionService.addConverter(new CollectionToArrayConverter(conversionService));
@@ -821,6 +909,19 @@ public class GenericConversionServiceTests {
 		}
 	}
 
+	private static class CountingConverterFactory implements ConverterFactory<String, Number> {
+
+		private final StringToNumberConverterFactory factory = new StringToNumberConverterFactory();
+
+		private int lookups;
+
+		@Override
+		public <T extends Number> Converter<String, T> getConverter(Class<T> targetType) {
+			this.lookups++;
+			return this.factory.getConverter(targetType);
+		}
+	}
+
 	private static interface MyEnumBaseInterface {
 		String getBaseCode();
 	}
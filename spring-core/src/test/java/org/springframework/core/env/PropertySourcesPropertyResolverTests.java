@@ -367,4 +367,134 @@ public class PropertySourcesPropertyResolverTests {
 		}
 	}
 
+	@Test
+	public void propertySnapshotServesRepeatedLookups() {
+		CountingPropertySource source = new CountingPropertySource("counting");
+		source.put("p1", "v1");
+		source.put("p2", "${p1}:${p3:def}");
+		MutablePropertySources sources = new MutablePropertySources();
+		sources.addLast(source);
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(sources);
+		pr.setUsePropertySnapshot(true);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(pr.getProperty("p2"), equalTo("v1:def"));
+			assertThat(pr.getProperty("p1", Object.class), equalTo("v1"));
+			assertThat(pr.getProperty("bogus"), nullValue());
+		}
+		// p2, p1, "p3:def", p3 and bogus, looked up once each
+		assertThat(source.lookups, equalTo(5));
+
+		pr.setUsePropertySnapshot(false);
+		pr.getProperty("p1");
+		pr.getProperty("p1");
+		assertThat(source.lookups, equalTo(7));
+	}
+
+	@Test
+	public void propertySnapshotIsDiscardedOnPropertySourceChanges() {
+		MutablePropertySources sources = new MutablePropertySources();
+		sources.addLast(new MockPropertySource("ps1").withProperty("pName", "ps1Value"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(sources);
+		pr.setUsePropertySnapshot(true);
+		assertThat(pr.getProperty("pName"), equalTo("ps1Value"));
+		assertThat(pr.containsProperty("other"), is(false));
+
+		sources.addFirst(new MockPropertySource("ps2").withProperty("pName", "ps2Value").withProperty("other", "o"));
+		assertThat(pr.getProperty("pName"), equalTo("ps2Value"));
+		assertThat(pr.containsProperty("other"), is(true));
+
+		sources.replace("ps2", new MockPropertySource("ps2").withProperty("pName", "ps3Value"));
+		assertThat(pr.getProperty("pName"), equalTo("ps3Value"));
+
+		sources.remove("ps2");
+		assertThat(pr.getProperty("pName"), equalTo("ps1Value"));
+		assertThat(pr.getProperty("other"), nullValue());
+	}
+
+	@Test
+	public void propertySnapshotIgnoresContentChangesUntilCleared() {
+		PropertySourcesPropertyResolver pr = (PropertySourcesPropertyResolver) propertyResolver;
+		pr.setUsePropertySnapshot(true);
+		assertThat(pr.getProperty("foo"), nullValue());
+		testProperties.put("foo", "bar");
+		assertThat(pr.getProperty("foo"), nullValue());
+		pr.clearPropertySnapshot();
+		assertThat(pr.getProperty("foo"), equalTo("bar"));
+	}
+
+	@Test
+	public void propertySnapshotWithRelaxedSystemEnvironmentNames() {
+		Map<String, Object> env = new HashMap<>();
+		env.put("A_KEY", "a_value");
+		MutablePropertySources sources = new MutablePropertySources();
+		sources.addLast(new SystemEnvironmentPropertySource("env", env));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(sources);
+		pr.setUsePropertySnapshot(true);
+		assertThat(pr.getProperty("a.key"), equalTo("a_value"));
+		assertThat(pr.getProperty("a-key"), equalTo("a_value"));
+		assertThat(pr.getProperty("a.key"), equalTo("a_value"));
+	}
+
+	@Test
+	public void propertySnapshotRespectsIgnoreUnresolvableNestedPlaceholders() {
+		MutablePropertySources sources = new MutablePropertySources();
+		sources.addLast(new MockPropertySource().withProperty("p1", "${bogus}"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(sources);
+		pr.setUsePropertySnapshot(true);
+		pr.setIgnoreUnresolvableNestedPlaceholders(true);
+		assertThat(pr.getProperty("p1"), equalTo("${bogus}"));
+		pr.setIgnoreUnresolvableNestedPlaceholders(false);
+		try {
+			pr.getProperty("p1");
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			assertThat(ex.getMessage(), containsString("Could not resolve placeholder 'bogus'"));
+		}
+	}
+
+	@Test
+	public void propertySnapshotIsDiscardedOnPlaceholderSettingChanges() {
+		CountingPropertySource source = new CountingPropertySource("counting");
+		source.put("p1", "v1");
+		MutablePropertySources sources = new MutablePropertySources();
+		sources.addLast(source);
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(sources);
+		pr.setUsePropertySnapshot(true);
+		pr.getProperty("p1");
+		pr.getProperty("p1");
+		assertThat(source.lookups, equalTo(1));
+
+		pr.setPlaceholderPrefix("#{");
+		pr.getProperty("p1");
+		pr.setPlaceholderSuffix("}");
+		pr.getProperty("p1");
+		pr.setValueSeparator("?");
+		pr.getProperty("p1");
+		pr.setIgnoreUnresolvableNestedPlaceholders(true);
+		pr.getProperty("p1");
+		assertThat(source.lookups, equalTo(5));
+	}
+
+
+	private static class CountingPropertySource extends MapPropertySource {
+
+		int lookups;
+
+		CountingPropertySource(String name) {
+			super(name, new HashMap<>());
+		}
+
+		void put(String key, Object value) {
+			this.source.put(key, value);
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			this.lookups++;
+			return super.getProperty(name);
+		}
+	}
+
 }
@@ -53,7 +53,9 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(false, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new DefaultDataBufferFactory(true)},
-				{new DefaultDataBufferFactory(false)}
+				{new DefaultDataBufferFactory(false)},
+				{new PooledDataBufferFactory(true)},
+				{new PooledDataBufferFactory(false)}
 
 		};
 	}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CompositeDataBuffer}.
+ *
+ * @since 5.1.1
+ */
+public class CompositeDataBufferTests {
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+	@Test
+	public void compositeJoinDoesNotCopy() {
+		this.bufferFactory.setCompositeJoin(true);
+		DefaultDataBuffer foo = stringBuffer("foo");
+		DataBuffer joined = this.bufferFactory.join(Arrays.asList(foo, stringBuffer("bar"), stringBuffer("baz")));
+		assertTrue(joined instanceof CompositeDataBuffer);
+		assertEquals(3, ((CompositeDataBuffer) joined).componentCount());
+		assertEquals(9, joined.readableByteCount());
+
+		foo.getNativeBuffer().put(0, (byte) 'F');
+		assertEquals("Foobarbaz", DataBufferTestUtils.dumpString(joined, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void readAcrossComponents() {
+		CompositeDataBuffer composite = composite("ab", "cde", "f");
+		assertEquals('a', composite.read());
+		byte[] bytes = new byte[4];
+		composite.read(bytes);
+		assertArrayEquals("bcde".getBytes(StandardCharsets.UTF_8), bytes);
+		assertEquals('f', composite.getByte(5));
+		assertEquals(1, composite.readableByteCount());
+		try {
+			composite.getByte(6);
+			fail("IndexOutOfBoundsException expected");
+		}
+		catch (IndexOutOfBoundsException ignored) {
+		}
+	}
+
+	@Test
+	public void indexOfAcrossComponents() {
+		CompositeDataBuffer composite = composite("ab", "c\n", "", "de\nf");
+		assertEquals(3, composite.indexOf(b -> b == '\n', 0));
+		assertEquals(6, composite.indexOf(b -> b == '\n', 4));
+		assertEquals(-1, composite.indexOf(b -> b == 'x', 0));
+		assertEquals(-1, composite.indexOf(b -> b == 'a', 8));
+		assertEquals(6, composite.lastIndexOf(b -> b == '\n', 7));
+		assertEquals(3, composite.lastIndexOf(b -> b == '\n', 5));
+		assertEquals(-1, composite.lastIndexOf(b -> b == 'f', 6));
+	}
+
+	@Test
+	public void writeAppendsComponents() {
+		CompositeDataBuffer composite = composite("foo");
+		composite.write((byte) '-');
+		composite.write("bar".getBytes(StandardCharsets.UTF_8));
+		composite.write(ByteBuffer.wrap("baz".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(2, composite.componentCount());
+		assertEquals("foo-barbaz", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+
+		byte[] large = new byte[1000];
+		Arrays.fill(large, (byte) 'x');
+		composite.write(large);
+		assertEquals(1000, composite.readableByteCount());
+		assertEquals(-1, composite.indexOf(b -> b != 'x', composite.readPosition()));
+	}
+
+	@Test
+	public void writeDataBuffersCopiesData() {
+		CompositeDataBuffer composite = composite("foo");
+		composite.write((byte) '-');
+		DefaultDataBuffer bar = stringBuffer("bar");
+		composite.write(bar, stringBuffer("baz"));
+		assertEquals(2, composite.componentCount());
+		assertEquals(3, bar.readableByteCount());
+
+		bar.getNativeBuffer().put(0, (byte) 'B');
+		assertEquals("foo-barbaz", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void slice() {
+		CompositeDataBuffer composite = composite("foo", "bar", "baz");
+		DataBuffer slice = composite.slice(2, 5);
+		assertEquals(5, slice.readableByteCount());
+		assertEquals("obarb", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+		assertEquals(0, composite.readPosition());
+		assertEquals("obarbaz", DataBufferTestUtils.dumpString(composite.slice(2, 7), StandardCharsets.UTF_8));
+		try {
+			slice.write((byte) 'x');
+			fail("UnsupportedOperationException expected");
+		}
+		catch (UnsupportedOperationException ignored) {
+		}
+	}
+
+	@Test
+	public void asByteBuffer() {
+		CompositeDataBuffer composite = composite("foo", "bar");
+		ByteBuffer single = composite.asByteBuffer(3, 3);
+		single.put(0, (byte) 'B');
+		assertEquals('B', composite.getByte(3));
+
+		ByteBuffer gathered = composite.asByteBuffer();
+		assertTrue(gathered.isReadOnly());
+		assertEquals(6, gathered.remaining());
+		assertEquals(ByteBuffer.wrap("fooBar".getBytes(StandardCharsets.UTF_8)), gathered);
+
+		composite.readPosition(2);
+		ByteBuffer[] byteBuffers = composite.asByteBuffers();
+		assertEquals(2, byteBuffers.length);
+		assertEquals(ByteBuffer.wrap("o".getBytes(StandardCharsets.UTF_8)), byteBuffers[0]);
+		assertEquals(ByteBuffer.wrap("Bar".getBytes(StandardCharsets.UTF_8)), byteBuffers[1]);
+	}
+
+	@Test
+	public void capacity() {
+		CompositeDataBuffer composite = composite("foo", "bar");
+		composite.capacity(10);
+		assertEquals(10, composite.capacity());
+		assertEquals(4, composite.writableByteCount());
+
+		composite.capacity(4);
+		assertEquals(4, composite.writePosition());
+		assertEquals(2, composite.componentCount());
+		assertEquals("foob", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+
+		composite.addComponent(stringBuffer("az"));
+		assertEquals(2, composite.readableByteCount());
+		composite.readPosition(2);
+		assertEquals("obaz", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void nestedComposite() {
+		CompositeDataBuffer composite = composite("foo");
+		composite.addComponent(composite("bar", "baz"));
+		assertEquals(3, composite.componentCount());
+		assertEquals("foobarbaz", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void streams() throws Exception {
+		CompositeDataBuffer composite = new CompositeDataBuffer(this.bufferFactory);
+		try (OutputStream outputStream = composite.asOutputStream()) {
+			outputStream.write("foo".getBytes(StandardCharsets.UTF_8));
+			outputStream.write('!');
+		}
+		composite.addComponent(stringBuffer("bar"));
+		byte[] bytes = new byte[7];
+		try (InputStream inputStream = composite.asInputStream()) {
+			assertEquals(7, inputStream.read(bytes, 0, 10));
+			assertEquals(-1, inputStream.read());
+		}
+		assertArrayEquals("foo!bar".getBytes(StandardCharsets.UTF_8), bytes);
+	}
+
+	@Test
+	public void releaseReleasesComponents() {
+		PooledDataBufferFactory pooledFactory = new PooledDataBufferFactory();
+		pooledFactory.setCompositeJoin(true);
+		PooledDataBuffer foo = (PooledDataBuffer) pooledFactory.allocateBuffer(3).write((byte) 'f');
+		PooledDataBuffer bar = (PooledDataBuffer) pooledFactory.allocateBuffer(3).write((byte) 'b');
+		PooledDataBuffer baz = (PooledDataBuffer) pooledFactory.allocateBuffer(3).write((byte) 'b');
+		CompositeDataBuffer composite = (CompositeDataBuffer) pooledFactory.join(Arrays.asList(foo, bar));
+		composite.write(baz);
+		assertTrue(baz.release());
+
+		DataBuffer slice = composite.slice(0, 2);
+		DataBufferUtils.retain(slice);
+		assertFalse(composite.release());
+		assertTrue(foo.isAllocated());
+		assertTrue(DataBufferUtils.release(slice));
+		assertFalse(composite.isAllocated());
+		assertFalse(foo.isAllocated());
+		assertFalse(bar.isAllocated());
+		assertFalse(baz.isAllocated());
+	}
+
+
+	private DefaultDataBuffer stringBuffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+	private CompositeDataBuffer composite(String... values) {
+		CompositeDataBuffer composite = new CompositeDataBuffer(this.bufferFactory);
+		for (String value : values) {
+			composite.addComponent(stringBuffer(value));
+		}
+		return composite;
+	}
+
+}
@@ -142,6 +142,34 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 				.verify(Duration.ofSeconds(5));
 	}
 
+	@Test
+	public void readMappedFileChannel() throws Exception {
+		URI uri = DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt").toURI();
+		Flux<DataBuffer> flux = DataBufferUtils.readMappedFileChannel(
+				() -> FileChannel.open(Paths.get(uri), StandardOpenOption.READ),
+				2, 8, this.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("oba"))
+				.consumeNextWith(stringConsumer("rba"))
+				.consumeNextWith(stringConsumer("zq"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void readMappedFileChannelBeyondEnd() throws Exception {
+		URI uri = DataBufferUtilsTests.class.getResource("DataBufferUtilsTests.txt").toURI();
+		Flux<DataBuffer> flux = DataBufferUtils.readMappedFileChannel(
+				() -> FileChannel.open(Paths.get(uri), StandardOpenOption.READ),
+				9, Long.MAX_VALUE, this.bufferFactory, 4);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
 	@Test
 	public void writeOutputStream() throws Exception {
 		DataBuffer foo = stringBuffer("foo");
@@ -537,4 +565,122 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void matcher() {
+		DataBuffer foo = stringBuffer("foo\r");
+		DataBuffer bar = stringBuffer("\nbar\nbaz");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\n".getBytes(StandardCharsets.UTF_8), "\r\n".getBytes(StandardCharsets.UTF_8));
+		assertFalse(matcher.match(foo));
+		assertTrue(matcher.match(bar));
+		assertEquals(0, matcher.end());
+		assertArrayEquals("\r\n".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		bar.readPosition(1);
+		assertTrue(matcher.match(bar));
+		assertEquals(4, matcher.end());
+		assertArrayEquals("\n".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		bar.readPosition(5);
+		assertFalse(matcher.match(bar));
+		assertFalse(matcher.finish());
+
+		release(foo, bar);
+	}
+
+	@Test
+	public void matcherOverlappingDelimiters() {
+		DataBuffer foo = stringBuffer("abaabab");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"aab".getBytes(StandardCharsets.UTF_8), "bab".getBytes(StandardCharsets.UTF_8));
+		assertTrue(matcher.match(foo));
+		assertEquals(4, matcher.end());
+		assertArrayEquals("aab".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		foo.readPosition(5);
+		assertFalse(matcher.match(foo));
+		matcher.reset();
+		foo.readPosition(3);
+		assertTrue(matcher.match(foo));
+		assertEquals(6, matcher.end());
+		assertArrayEquals("bab".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		release(foo);
+	}
+
+	@Test
+	public void matcherPrefersLongestDelimiterWithSharedPrefix() {
+		DataBuffer foo = stringBuffer("a\r\nb\rc");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\r".getBytes(StandardCharsets.UTF_8), "\r\n".getBytes(StandardCharsets.UTF_8),
+				"\n".getBytes(StandardCharsets.UTF_8));
+		assertTrue(matcher.match(foo));
+		assertEquals(2, matcher.end());
+		assertArrayEquals("\r\n".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		foo.readPosition(3);
+		assertTrue(matcher.match(foo));
+		assertEquals(4, matcher.end());
+		assertArrayEquals("\r".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		foo.readPosition(5);
+		assertFalse(matcher.match(foo));
+
+		release(foo);
+	}
+
+	@Test
+	public void matcherPrefersDelimiterThatStartsFirst() {
+		DataBuffer foo = stringBuffer("abcd");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"bc".getBytes(StandardCharsets.UTF_8), "abcd".getBytes(StandardCharsets.UTF_8));
+		assertTrue(matcher.match(foo));
+		assertEquals(3, matcher.end());
+		assertArrayEquals("abcd".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		release(foo);
+	}
+
+	@Test
+	public void matcherHoldsBackDelimiterAcrossBuffers() {
+		DataBuffer foo = stringBuffer("a\r");
+		DataBuffer bar = stringBuffer("\nb\r");
+		DataBuffer baz = stringBuffer("c");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\r".getBytes(StandardCharsets.UTF_8));
+		assertFalse(matcher.match(foo));
+		assertTrue(matcher.match(bar));
+		assertEquals(0, matcher.end());
+		assertArrayEquals("\r\n".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		bar.readPosition(1);
+		assertFalse(matcher.match(bar));
+		assertTrue(matcher.match(baz));
+		assertEquals(-1, matcher.end());
+		assertArrayEquals("\r".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+		assertFalse(matcher.match(baz));
+
+		release(foo, bar, baz);
+	}
+
+	@Test
+	public void matcherReportsHeldBackDelimiterAtEndOfStream() {
+		DataBuffer foo = stringBuffer("a\r");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\r".getBytes(StandardCharsets.UTF_8));
+		assertFalse(matcher.match(foo));
+		assertTrue(matcher.finish());
+		assertEquals(-1, matcher.end());
+		assertArrayEquals("\r".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+		assertFalse(matcher.finish());
+
+		release(foo);
+	}
+
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PooledDataBufferFactory}.
+ *
+ * @since 5.1.1
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(false, 256, 1024);
+
+
+	@Test
+	public void capacityMatchesRequest() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(100, buffer.capacity());
+		assertEquals(0, buffer.readableByteCount());
+		DataBufferUtils.release(buffer);
+
+		buffer = this.bufferFactory.allocateBuffer();
+		assertEquals(256, buffer.capacity());
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void memoryIsRecycled() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		byte[] memory = buffer.getNativeBuffer().array();
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		assertTrue(DataBufferUtils.release(buffer));
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(120);
+		assertSame(memory, other.getNativeBuffer().array());
+		assertEquals(0, other.readableByteCount());
+		assertEquals(120, other.capacity());
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void largeBuffersAreNotPooled() {
+		assertEquals(1024, this.bufferFactory.getMaxPooledCapacity());
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(1025);
+		assertFalse(buffer instanceof PooledDataBuffer);
+		assertFalse(DataBufferUtils.release(buffer));
+	}
+
+	@Test
+	public void capacityIncreaseKeepsContent() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		byte[] bytes = new byte[2000];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		buffer.write(bytes, 0, 100);
+		buffer.write(bytes, 100, 1900);
+		assertEquals(2000, buffer.readableByteCount());
+		byte[] result = new byte[2000];
+		buffer.read(result);
+		assertArrayEquals(bytes, result);
+		assertTrue(DataBufferUtils.release(buffer));
+	}
+
+	@Test
+	public void memoryReplacedByCapacityChangeIsNotRecycled() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		byte[] memory = buffer.getNativeBuffer().array();
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(0, 3);
+		buffer.write(new byte[200]);
+		assertNotSame(memory, buffer.getNativeBuffer().array());
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(100);
+		assertNotSame(memory, other.getNativeBuffer().array());
+		other.write("baz".getBytes(StandardCharsets.UTF_8));
+		slice.writePosition(0).write("bar".getBytes(StandardCharsets.UTF_8));
+		assertEquals("baz", DataBufferTestUtils.dumpString(other, StandardCharsets.UTF_8));
+		assertTrue(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(other));
+	}
+
+	@Test
+	public void retainAndRelease() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.bufferFactory.allocateBuffer(1);
+		buffer.retain();
+		assertFalse(buffer.release());
+		assertTrue(buffer.isAllocated());
+		assertTrue(buffer.release());
+		assertFalse(buffer.isAllocated());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void tooManyReleases() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.bufferFactory.allocateBuffer(1);
+		buffer.release();
+		buffer.release();
+	}
+
+	@Test
+	public void slicesShareReferenceCount() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(3, 3);
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(slice));
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+	}
+
+	@Test
+	public void slicesOfSlicesShareReferenceCount() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(1, 5).slice(2, 3);
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(slice));
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+	}
+
+	@Test
+	public void inputStreamReleasesOnClose() throws Exception {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		try (InputStream inputStream = buffer.asInputStream(true)) {
+			assertEquals('f', inputStream.read());
+		}
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+	}
+
+	@Test
+	public void joinReleasesPooledBuffers() {
+		DataBuffer foo = this.bufferFactory.allocateBuffer(3).write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = this.bufferFactory.allocateBuffer(3).write("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer result = this.bufferFactory.join(Arrays.asList(foo, bar));
+		assertEquals("foobar", DataBufferTestUtils.dumpString(result, StandardCharsets.UTF_8));
+		assertFalse(((PooledDataBuffer) foo).isAllocated());
+		assertFalse(((PooledDataBuffer) bar).isAllocated());
+		assertTrue(DataBufferUtils.release(result));
+	}
+
+	@Test
+	public void compositeJoinReleasesBuffersWithResult() {
+		this.bufferFactory.setCompositeJoin(true);
+		DataBuffer foo = this.bufferFactory.allocateBuffer(3).write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = this.bufferFactory.allocateBuffer(3).write("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer result = this.bufferFactory.join(Arrays.asList(foo, bar));
+		assertEquals("foobar", DataBufferTestUtils.dumpString(result, StandardCharsets.UTF_8));
+		assertTrue(((PooledDataBuffer) foo).isAllocated());
+		assertTrue(DataBufferUtils.release(result));
+		assertFalse(((PooledDataBuffer) foo).isAllocated());
+		assertFalse(((PooledDataBuffer) bar).isAllocated());
+	}
+
+}
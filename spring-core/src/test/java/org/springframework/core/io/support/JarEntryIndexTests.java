@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link JarEntryIndex}.
+ *
+ * @since 5.1.1
+ */
+public class JarEntryIndexTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@After
+	public void clearCache() {
+		JarEntryIndex.clearCache();
+	}
+
+
+	@Test
+	public void entryNamesBelowPathInJarOrder() throws IOException {
+		File file = createJar("z/", "z/b.xml", "a/", "a/c.xml", "z/a.xml", "z/sub/c.xml", "zz.xml");
+		try (JarFile jarFile = new JarFile(file)) {
+			JarEntryIndex index = JarEntryIndex.forJarFile(jarFile);
+			assertEquals(Arrays.asList("z/", "z/b.xml", "z/a.xml", "z/sub/c.xml"), index.getEntryNames("z/"));
+			assertEquals(Collections.singletonList("z/sub/c.xml"), index.getEntryNames("z/sub/"));
+			assertEquals(Collections.emptyList(), index.getEntryNames("b/"));
+			assertEquals(7, index.getEntryNames("").size());
+		}
+	}
+
+	@Test
+	public void indexIsCachedPerJarFile() throws IOException {
+		File file = createJar("a/b.xml");
+		try (JarFile jarFile = new JarFile(file)) {
+			assertSame(JarEntryIndex.forJarFile(jarFile), JarEntryIndex.forJarFile(jarFile));
+		}
+	}
+
+	@Test
+	public void indexIsRebuiltAfterJarFileChange() throws IOException {
+		File file = createJar("a/b.xml");
+		try (JarFile jarFile = new JarFile(file)) {
+			assertEquals(Collections.singletonList("a/b.xml"), JarEntryIndex.forJarFile(jarFile).getEntryNames("a/"));
+		}
+		writeJar(file, "a/b.xml", "a/c.xml", "a/d.xml");
+		try (JarFile jarFile = new JarFile(file)) {
+			assertEquals(Arrays.asList("a/b.xml", "a/c.xml", "a/d.xml"),
+					JarEntryIndex.forJarFile(jarFile).getEntryNames("a/"));
+		}
+	}
+
+	@Test
+	public void resolverFindsSameResourcesWithAndWithoutIndex() throws IOException {
+		File file = createJar("META-INF/", "META-INF/mappers/", "META-INF/mappers/b.xml",
+				"META-INF/mappers/a.xml", "META-INF/mappers/a.txt", "META-INF/other.xml");
+		String pattern = "jar:" + file.toURI() + "!/META-INF/mappers/*.xml";
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		Resource[] indexed = resolver.getResources(pattern);
+		resolver.setUseJarEntryIndex(false);
+		Resource[] enumerated = resolver.getResources(pattern);
+		assertArrayEquals(enumerated, indexed);
+		assertEquals(2, indexed.length);
+		assertEquals(new UrlResource("jar:" + file.toURI() + "!/META-INF/mappers/b.xml"), indexed[0]);
+	}
+
+
+	private File createJar(String... entryNames) throws IOException {
+		File file = this.temporaryFolder.newFile("test.jar");
+		writeJar(file, entryNames);
+		return file;
+	}
+
+	private void writeJar(File file, String... entryNames) throws IOException {
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+			for (String entryName : entryNames) {
+				out.putNextEntry(new JarEntry(entryName));
+				out.closeEntry();
+			}
+		}
+	}
+
+}
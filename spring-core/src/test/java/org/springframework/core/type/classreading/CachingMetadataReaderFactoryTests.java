@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CachingMetadataReaderFactory}.
+ */
+public class CachingMetadataReaderFactoryTests {
+
+	@Test
+	public void cachesMetadataReader() throws Exception {
+		CachingMetadataReaderFactory mrf = new CachingMetadataReaderFactory();
+		Resource resource = getClassResource(CachingMetadataReaderFactory.class);
+		MetadataReader reader = mrf.getMetadataReader(resource);
+		assertEquals(CachingMetadataReaderFactory.class.getName(), reader.getClassMetadata().getClassName());
+		assertSame(reader, mrf.getMetadataReader(resource));
+
+		mrf.clearCache();
+		assertNotSame(reader, mrf.getMetadataReader(resource));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedEntriesBeyondCacheLimit() throws Exception {
+		CachingMetadataReaderFactory mrf = new CachingMetadataReaderFactory();
+		mrf.setCacheLimit(2);
+		assertEquals(2, mrf.getCacheLimit());
+		Resource first = getClassResource(CachingMetadataReaderFactory.class);
+		Resource second = getClassResource(SimpleMetadataReaderFactory.class);
+		MetadataReader firstReader = mrf.getMetadataReader(first);
+		MetadataReader secondReader = mrf.getMetadataReader(second);
+		assertSame(firstReader, mrf.getMetadataReader(first));
+
+		mrf.getMetadataReader(getClassResource(MetadataReader.class));
+		assertSame(firstReader, mrf.getMetadataReader(first));
+		assertNotSame(secondReader, mrf.getMetadataReader(second));
+	}
+
+	@Test
+	public void noCacheWithZeroLimit() throws Exception {
+		CachingMetadataReaderFactory mrf = new CachingMetadataReaderFactory();
+		mrf.setCacheLimit(0);
+		assertEquals(0, mrf.getCacheLimit());
+		Resource resource = getClassResource(CachingMetadataReaderFactory.class);
+		assertNotSame(mrf.getMetadataReader(resource), mrf.getMetadataReader(resource));
+	}
+
+	@Test
+	public void concurrentReadsShareMetadataReader() throws Exception {
+		CachingMetadataReaderFactory mrf = new CachingMetadataReaderFactory();
+		Class<?>[] types = {CachingMetadataReaderFactory.class, SimpleMetadataReaderFactory.class,
+				MetadataReader.class, MetadataReaderFactory.class, ClassMetadataReadingVisitor.class,
+				AnnotationMetadataReadingVisitor.class};
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<MetadataReader>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				Class<?> type = types[i % types.length];
+				futures.add(executor.submit(() -> mrf.getMetadataReader(getClassResource(type))));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				MetadataReader reader = futures.get(i).get();
+				assertEquals(types[i % types.length].getName(), reader.getClassMetadata().getClassName());
+				assertSame(reader, mrf.getMetadataReader(getClassResource(types[i % types.length])));
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+
+	private static Resource getClassResource(Class<?> type) {
+		return new ClassPathResource(type.getName().replace('.', '/') + ".class");
+	}
+
+}
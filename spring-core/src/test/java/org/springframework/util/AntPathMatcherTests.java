@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -674,6 +674,89 @@ public class AntPathMatcherTests {
 		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
 	}
 
+	@Test
+	public void compiledPatterns() throws Exception {
+		pathMatcher.setCompilePatterns(true);
+		match();
+		withMatchStart();
+		extractPathWithinPattern();
+		extractUriTemplateVariables();
+		extractUriTemplateVariablesRegex();
+		extractUriTemplateVarsRegexQualifiers();
+		combine();
+		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		assertTrue(pathMatcher.compiledPatternCache.size() > 20);
+	}
+
+	@Test
+	public void compiledPatternsWithUniqueDeliminator() {
+		pathMatcher.setCompilePatterns(true);
+		uniqueDeliminator();
+	}
+
+	@Test
+	public void compiledPatternsCaseInsensitive() {
+		pathMatcher.setCompilePatterns(true);
+		caseInsensitive();
+		assertTrue(pathMatcher.match("/Group/*.HTML", "/group/index.html"));
+		assertTrue(pathMatcher.match("/gr?up/**/*s", "/GROUP/a/b/MEMBERS"));
+		assertFalse(pathMatcher.match("/group/*.html", "/group/index.htm"));
+	}
+
+	@Test
+	public void compiledPatternsMatchLikeRegularPatterns() {
+		AntPathMatcher compiledMatcher = new AntPathMatcher();
+		compiledMatcher.setCompilePatterns(true);
+		String[] patterns = {"", "/", "*", "/*", "**", "/**", "/**/", "/*/", "/a/**", "/a/*", "/a/**/b",
+				"/**/b/**", "/a/**/b/**/c", "/a/*/b/**/c/*", "/**/**/c", "a/**/?", "/a*b/**/c?d/*",
+				"/a/{x}/b", "/**/{x}.c", "*.c", "/*.c", "/a//b", "/a/b/"};
+		String[] paths = {"", "/", "a", "/a", "/a/", "/a/b", "/a/b/", "/a//b", "/a/x/b", "/a/x/y/b",
+				"/a/b/c", "/a/b/b/c", "/a/x/b/y/c/z", "/x/c", "/x/y.c", "y.c", "a/b/c", "/axb/q/cxd/e",
+				"/ab/cd/e", "/a/x\ny/b", "/b/b/b/c"};
+		for (String pattern : patterns) {
+			for (String path : paths) {
+				assertEquals(pattern + " vs " + path,
+						pathMatcher.match(pattern, path), compiledMatcher.match(pattern, path));
+				assertEquals(pattern + " vs " + path + " (start)",
+						pathMatcher.matchStart(pattern, path), compiledMatcher.matchStart(pattern, path));
+			}
+		}
+	}
+
+	@Test
+	public void compiledPatternCacheEvictsUnusedPatternsAtLimit() {
+		pathMatcher.setCompilePatterns(true);
+		pathMatcher.setCompiledPatternCacheLimit(64);
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(pathMatcher.match("/test/*", "/test/" + i));
+			assertTrue(pathMatcher.match("/test" + i + "/*", "/test" + i + "/test"));
+		}
+		// Bounded, keeping the recurring pattern and the most recent ones
+		assertEquals(64, pathMatcher.compiledPatternCache.size());
+		assertTrue(pathMatcher.compiledPatternCache.containsKey("/test/*"));
+		assertTrue(pathMatcher.compiledPatternCache.containsKey("/test999/*"));
+		assertFalse(pathMatcher.compiledPatternCache.containsKey("/test0/*"));
+	}
+
+	@Test
+	public void compiledPatternCacheWithCachePatternsSetToTrueIsUnbounded() {
+		pathMatcher.setCompilePatterns(true);
+		pathMatcher.setCachePatterns(true);
+		pathMatcher.setCompiledPatternCacheLimit(64);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(pathMatcher.match("/test" + i + "/*", "/test" + i + "/test"));
+		}
+		assertEquals(100, pathMatcher.compiledPatternCache.size());
+	}
+
+	@Test
+	public void compiledPatternsWithCachePatternsSetToFalse() {
+		pathMatcher.setCompilePatterns(true);
+		pathMatcher.setCachePatterns(false);
+		match();
+		assertEquals(0, pathMatcher.compiledPatternCache.size());
+	}
+
 	@Test
 	public void extensionMappingWithDotPathSeparator() {
 		pathMatcher.setPathSeparator(".");
@@ -28,6 +28,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -255,6 +257,41 @@ public class ConcurrentReferenceHashMapTests {
 		assertThat(this.map.get(5), is("5"));
 	}
 
+	@Test
+	public void shouldNotBlockGetWhileSegmentIsLocked() throws InterruptedException {
+		this.map = new TestWeakConcurrentCache<>(1, 0.75f, 1);
+		for (int i = 1; i <= 5; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		this.map.getMockReference(1, Restructure.NEVER).queueForPurge();
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread lockHolder = new Thread(() -> {
+			this.map.getSegment(0).lock();
+			try {
+				locked.countDown();
+				release.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.map.getSegment(0).unlock();
+			}
+		});
+		lockHolder.start();
+		locked.await();
+		// The purge is deferred while the segment is locked
+		assertThat(this.map.get(1), is("1"));
+		assertThat(this.map.get(2), is("2"));
+		assertThat(this.map.getSegment(0).getCount(), is(5));
+		release.countDown();
+		lockHolder.join();
+		assertThat(this.map.get(2), is("2"));
+		assertThat(this.map.getReference(1, Restructure.NEVER), is(nullValue()));
+		assertThat(this.map.getSegment(0).getCount(), is(4));
+	}
+
 	@Test
 	public void shouldPutIfAbsent() {
 		assertThat(this.map.putIfAbsent(123, "123"), is(nullValue()));
@@ -506,6 +543,16 @@ public class ConcurrentReferenceHashMapTests {
 		assertThat(cacheTime.getTotalTimeSeconds(), is(lessThan(mapTime.getTotalTimeSeconds() / 4.0)));
 	}
 
+	@Test
+	@Ignore("Intended for use during development only")
+	public void shouldCompareWithConcurrentHashMapUnderMixedWorkload() throws InterruptedException {
+		StopWatch mapTime = timeMixedWorkload("ConcurrentHashMap", new ConcurrentHashMap<>());
+		System.out.println(mapTime.prettyPrint());
+		StopWatch cacheTime = timeMixedWorkload("ConcurrentReferenceHashMap",
+				new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK));
+		System.out.println(cacheTime.prettyPrint());
+	}
+
 	@Test
 	public void shouldSupportNullReference() {
 		// GC could happen during restructure so we must be able to create a reference for a null entry
@@ -551,6 +598,63 @@ public class ConcurrentReferenceHashMapTests {
 	}
 
 
+	/**
+	 * Time a multi-threaded mix of reads and writes, with garbage collection
+	 * being triggered concurrently.
+	 * @return the timing stopwatch
+	 */
+	private StopWatch timeMixedWorkload(String id, final Map<Integer, String> map) throws InterruptedException {
+		StopWatch stopWatch = new StopWatch(id);
+		for (int i = 0; i < 1000; i++) {
+			map.put(i, String.valueOf(i));
+		}
+		Thread[] threads = new Thread[8];
+		stopWatch.start("Running threads");
+		for (int threadIndex = 0; threadIndex < threads.length; threadIndex++) {
+			final int seed = threadIndex;
+			threads[threadIndex] = new Thread("Cache access thread " + threadIndex) {
+				@Override
+				public void run() {
+					for (int j = 0; j < 1000000; j++) {
+						int key = (j * 31 + seed) % 1000;
+						if (j % 10 == 0) {
+							map.put(key, String.valueOf(j));
+						}
+						else {
+							map.get(key);
+						}
+					}
+				}
+			};
+		}
+		Thread collector = new Thread("Garbage collector thread") {
+			@Override
+			public void run() {
+				while (!isInterrupted()) {
+					System.gc();
+					try {
+						Thread.sleep(10);
+					}
+					catch (InterruptedException ex) {
+						return;
+					}
+				}
+			}
+		};
+		collector.start();
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		stopWatch.stop();
+		collector.interrupt();
+		collector.join();
+		return stopWatch;
+	}
+
+
 	private interface ValueFactory<V> {
 
 		V newValue(int k);
@@ -114,4 +114,77 @@ public class PropertyPlaceholderHelperTests {
 		assertEquals("foo=bar,bar=${bar}", helper.replacePlaceholders(text, props));
 	}
 
+	@Test
+	public void testCircularReference() {
+		Properties props = new Properties();
+		props.setProperty("foo", "${bar}");
+		props.setProperty("bar", "x${foo}");
+		try {
+			this.helper.replacePlaceholders("${foo}", props);
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			assertEquals("Circular placeholder reference 'foo' in property definitions", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void testSamePlaceholderRepeatedIsNotCircular() {
+		Properties props = new Properties();
+		props.setProperty("foo", "${bar}-${bar}");
+		props.setProperty("bar", "baz");
+
+		assertEquals("baz-baz,baz-baz", this.helper.replacePlaceholders("${foo},${foo}", props));
+	}
+
+	@Test
+	public void testDefaultValues() {
+		PropertyPlaceholderHelper helper = new PropertyPlaceholderHelper("${", "}", ":", false);
+		Properties props = new Properties();
+		props.setProperty("inner", "ar");
+		props.setProperty("fallback", "fb");
+
+		assertEquals("def", helper.replacePlaceholders("${foo:def}", props));
+		assertEquals("fb", helper.replacePlaceholders("${foo:${fallback}}", props));
+		assertEquals("x", helper.replacePlaceholders("${b${inner}:x}", props));
+		props.setProperty("bar", "bar");
+		assertEquals("bar", helper.replacePlaceholders("${b${inner}:x}", props));
+	}
+
+	@Test
+	public void testTemplateReuseResolvesCurrentValues() {
+		String text = "foo=${foo}";
+		Properties props = new Properties();
+		props.setProperty("foo", "bar");
+		assertEquals("foo=bar", this.helper.replacePlaceholders(text, props));
+		props.setProperty("foo", "baz");
+		assertEquals("foo=baz", this.helper.replacePlaceholders(text, props));
+		props.remove("foo");
+		assertEquals("foo=${foo}", this.helper.replacePlaceholders(text, props));
+	}
+
+	@Test
+	public void testUnresolvedNestedPlaceholderIsIgnored() {
+		Properties props = new Properties();
+		props.setProperty("inner", "ar");
+		props.setProperty("foo", "bar");
+
+		assertEquals("${b${inner}}-bar-${unclosed",
+				this.helper.replacePlaceholders("${b${inner}}-${foo}-${unclosed", props));
+	}
+
+	@Test
+	public void testUnresolvedPlaceholderInResolvedValueAsError() {
+		PropertyPlaceholderHelper helper = new PropertyPlaceholderHelper("${", "}", null, false);
+		Properties props = new Properties();
+		props.setProperty("foo", "a${bar}");
+		try {
+			helper.replacePlaceholders("${foo}", props);
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			assertEquals("Could not resolve placeholder 'bar' in value \"a${bar}\"", ex.getMessage());
+		}
+	}
+
 }
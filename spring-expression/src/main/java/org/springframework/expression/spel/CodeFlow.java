@@ -85,9 +85,17 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * The variable that {@link #loadTarget} loads from: the target passed to
+	 * the compiled expression by default, or the current element while code
+	 * is generated for a collection selection or projection.
+	 */
+	private int targetVariableId = 1;
 
 
 	/**
@@ -109,7 +117,22 @@ public class CodeFlow implements Opcodes {
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, this.targetVariableId);
+	}
+
+	/**
+	 * Change the variable that {@link #loadTarget} loads from, e.g. to the local
+	 * variable holding the current element while generating the code for the
+	 * criteria of a collection selection.
+	 * @param variableId the id of the new target variable
+	 * @return the id of the previous target variable, to be restored once the
+	 * nested code has been generated
+	 * @since 5.1.1
+	 */
+	public int setTargetVariable(int variableId) {
+		int previous = this.targetVariableId;
+		this.targetVariableId = variableId;
+		return previous;
 	}
 
 	/**
@@ -439,7 +439,7 @@ public class ConstructorReference extends SpelNodeImpl {
 		}
 
 		ReflectiveConstructorExecutor executor = (ReflectiveConstructorExecutor) this.cachedExecutor;
-		if (executor == null) {
+		if (executor == null || executor.didArgumentConversionOccur()) {
 			return false;
 		}
 		Constructor<?> constructor = executor.getConstructor();
@@ -89,6 +89,10 @@ public class Indexer extends SpelNodeImpl {
 	@Nullable
 	private IndexedType indexedType;
 
+	// Whether the last map lookup converted the key to the key type of the map,
+	// which compiled code does not do
+	private boolean mapKeyConverted;
+
 
 	public Indexer(int pos, SpelNodeImpl expr) {
 		super(pos, expr);
@@ -153,6 +157,7 @@ public class Indexer extends SpelNodeImpl {
 				key = state.convertValue(key, targetDescriptor.getMapKeyTypeDescriptor());
 			}
 			this.indexedType = IndexedType.MAP;
+			this.mapKeyConverted = (key != index);
 			return new MapIndexingValueRef(state.getTypeConverter(), (Map<?, ?>) target, key, targetDescriptor);
 		}
 
@@ -194,13 +199,14 @@ public class Indexer extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		if (this.indexedType == IndexedType.ARRAY) {
-			return (this.exitTypeDescriptor != null);
+			return (this.exitTypeDescriptor != null && isCompilableIntIndex(this.children[0]));
 		}
 		else if (this.indexedType == IndexedType.LIST) {
-			return this.children[0].isCompilable();
+			return isCompilableIntIndex(this.children[0]);
 		}
 		else if (this.indexedType == IndexedType.MAP) {
-			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
+			return (!this.mapKeyConverted &&
+					(this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable()));
 		}
 		else if (this.indexedType == IndexedType.OBJECT) {
 			// If the string name is changing the accessor is clearly going to change (so no compilation possible)
@@ -255,18 +261,13 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, this.children[0], true);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, this.children[0], true);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
@@ -280,9 +281,7 @@ public class Indexer extends SpelNodeImpl {
 				mv.visitLdcInsn(mapKeyName);
 			}
 			else {
-				cf.enterCompilationScope();
-				this.children[0].generateCode(mv, cf);
-				cf.exitCompilationScope();
+				generateIndexCode(mv, cf, this.children[0], false);
 			}
 			mv.visitMethodInsn(
 					INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
@@ -318,6 +317,37 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * An int index can be compiled if it is known to evaluate to an int or an
+	 * {@code Integer}, i.e. if no conversion was needed in {@link #getValueRef}.
+	 */
+	private static boolean isCompilableIntIndex(SpelNodeImpl index) {
+		String descriptor = index.getExitDescriptor();
+		return (index.isCompilable() && ("I".equals(descriptor) || "Ljava/lang/Integer".equals(descriptor)));
+	}
+
+	/**
+	 * Generate the code for the index, which (as in {@link #getValueRef}) is
+	 * evaluated against the root object, followed by the unboxing to an int
+	 * index or the boxing of a primitive map key.
+	 */
+	private void generateIndexCode(MethodVisitor mv, CodeFlow cf, SpelNodeImpl index, boolean intIndex) {
+		int previousTarget = cf.setTargetVariable(1);
+		cf.enterCompilationScope();
+		index.generateCode(mv, cf);
+		String indexDescriptor = cf.lastDescriptor();
+		cf.exitCompilationScope();
+		cf.setTargetVariable(previousTarget);
+		if (intIndex) {
+			if (!"I".equals(indexDescriptor)) {
+				CodeFlow.insertUnboxInsns(mv, 'I', indexDescriptor);
+			}
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, indexDescriptor);
+		}
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder("[");
@@ -180,6 +180,15 @@ public class InlineList extends SpelNodeImpl {
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
 			mv.visitInsn(POP);
 		}
+		// Constant lists are unmodifiable, as for interpreted evaluation
+		if (!nested) {
+			mv.visitFieldInsn(GETSTATIC, clazzname, constantFieldName, "Ljava/util/List;");
+		}
+		mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableList",
+				"(Ljava/util/List;)Ljava/util/List;", false);
+		if (!nested) {
+			mv.visitFieldInsn(PUTSTATIC, clazzname, constantFieldName, "Ljava/util/List;");
+		}
 	}
 
 }
@@ -20,8 +20,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelNode;
 import org.springframework.lang.Nullable;
@@ -164,4 +166,110 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object,Object>) this.constant.getValue();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		if (isConstant()) {
+			return true;
+		}
+		for (int c = 0; c < this.children.length; c++) {
+			SpelNodeImpl child = this.children[c];
+			if (!((c % 2) == 0 && child instanceof PropertyOrFieldReference) && !child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		if (isConstant()) {
+			final String constantFieldName = "inlineMap$" + codeflow.nextFieldId();
+			final String className = codeflow.getClassName();
+
+			codeflow.registerNewField((cw, cflow) ->
+					cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null));
+
+			codeflow.registerNewClinit((mVisitor, cflow) -> {
+				generateClinitCode(className, mVisitor, cflow);
+				mVisitor.visitFieldInsn(PUTSTATIC, className, constantFieldName, "Ljava/util/Map;");
+			});
+
+			mv.visitFieldInsn(GETSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		}
+		else {
+			mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+			for (int c = 0; c < this.children.length; c += 2) {
+				mv.visitInsn(DUP);
+				generateEntryCode(mv, codeflow, this.children[c], this.children[c + 1]);
+				mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+						"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+				mv.visitInsn(POP);
+			}
+		}
+		codeflow.pushDescriptor("Ljava/util/Map");
+	}
+
+	/**
+	 * Build the unmodifiable constant map in the static initializer, leaving it on
+	 * the stack. Nested constant lists and maps are built directly, rather than
+	 * through their own generateCode() which would register further clinit adders.
+	 */
+	void generateClinitCode(String className, MethodVisitor mv, CodeFlow codeflow) {
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		for (int c = 0; c < this.children.length; c += 2) {
+			mv.visitInsn(DUP);
+			SpelNodeImpl valueChild = this.children[c + 1];
+			if (valueChild instanceof InlineList) {
+				generateKeyCode(mv, codeflow, this.children[c]);
+				((InlineList) valueChild).generateClinitCode(className, "", mv, codeflow, true);
+			}
+			else if (valueChild instanceof InlineMap) {
+				generateKeyCode(mv, codeflow, this.children[c]);
+				((InlineMap) valueChild).generateClinitCode(className, mv, codeflow);
+			}
+			else {
+				generateEntryCode(mv, codeflow, this.children[c], valueChild);
+			}
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+		mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+				"(Ljava/util/Map;)Ljava/util/Map;", false);
+	}
+
+	private static void generateEntryCode(
+			MethodVisitor mv, CodeFlow codeflow, SpelNodeImpl keyChild, SpelNodeImpl valueChild) {
+
+		generateKeyCode(mv, codeflow, keyChild);
+		generateValueCode(mv, codeflow, valueChild);
+	}
+
+	private static void generateKeyCode(MethodVisitor mv, CodeFlow codeflow, SpelNodeImpl keyChild) {
+		// An unquoted key is parsed as a property/field reference but used as a string (see getValueInternal)
+		if (keyChild instanceof PropertyOrFieldReference) {
+			mv.visitLdcInsn(((PropertyOrFieldReference) keyChild).getName());
+		}
+		else {
+			generateValueCode(mv, codeflow, keyChild);
+		}
+	}
+
+	private static void generateValueCode(MethodVisitor mv, CodeFlow codeflow, SpelNodeImpl child) {
+		codeflow.enterCompilationScope();
+		child.generateCode(mv, codeflow);
+		String lastDesc = codeflow.lastDescriptor();
+		codeflow.exitCompilationScope();
+		if ("V".equals(lastDesc)) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+		}
+	}
+
 }
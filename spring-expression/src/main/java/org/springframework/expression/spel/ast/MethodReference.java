@@ -42,7 +42,6 @@ import org.springframework.expression.spel.support.ReflectiveMethodExecutor;
 import org.springframework.expression.spel.support.ReflectiveMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.ObjectUtils;
 
 /**
  * Expression language AST node that represents a method reference.
@@ -53,6 +52,13 @@ import org.springframework.util.ObjectUtils;
  */
 public class MethodReference extends SpelNodeImpl {
 
+	/**
+	 * The maximum number of executors cached for different receiver and
+	 * argument types; beyond that, the oldest entry is evicted.
+	 */
+	private static final int MAX_CACHED_EXECUTORS = 4;
+
+
 	private final String name;
 
 	private final boolean nullSafe;
@@ -60,9 +66,12 @@ public class MethodReference extends SpelNodeImpl {
 	@Nullable
 	private String originalPrimitiveExitTypeDescriptor;
 
+	// The most recently used executor, as considered for compilation
 	@Nullable
 	private volatile CachedMethodExecutor cachedExecutor;
 
+	private volatile CachedMethodExecutor[] cachedExecutors = new CachedMethodExecutor[0];
+
 
 	public MethodReference(boolean nullSafe, String methodName, int pos, SpelNodeImpl... arguments) {
 		super(pos, arguments);
@@ -99,13 +108,12 @@ public class MethodReference extends SpelNodeImpl {
 	private TypedValue getValueInternal(EvaluationContext evaluationContext,
 			@Nullable Object value, @Nullable TypeDescriptor targetType, Object[] arguments) {
 
-		List<TypeDescriptor> argumentTypes = getArgumentTypes(arguments);
 		if (value == null) {
-			throwIfNotNullSafe(argumentTypes);
+			throwIfNotNullSafe(getArgumentTypes(arguments));
 			return TypedValue.NULL;
 		}
 
-		MethodExecutor executorToUse = getCachedExecutor(evaluationContext, value, targetType, argumentTypes);
+		MethodExecutor executorToUse = getCachedExecutor(evaluationContext, value, arguments);
 		if (executorToUse != null) {
 			try {
 				return executorToUse.execute(evaluationContext, value, arguments);
@@ -127,13 +135,14 @@ public class MethodReference extends SpelNodeImpl {
 				// At this point we know it wasn't a user problem so worth a retry if a
 				// better candidate can be found.
 				this.cachedExecutor = null;
+				this.cachedExecutors = new CachedMethodExecutor[0];
 			}
 		}
 
 		// either there was no accessor or it no longer existed
+		List<TypeDescriptor> argumentTypes = getArgumentTypes(arguments);
 		executorToUse = findAccessorForMethod(argumentTypes, value, evaluationContext);
-		this.cachedExecutor = new CachedMethodExecutor(
-				executorToUse, (value instanceof Class ? (Class<?>) value : null), targetType, argumentTypes);
+		cacheExecutor(new CachedMethodExecutor(executorToUse, value, targetType, argumentTypes));
 		try {
 			return executorToUse.execute(evaluationContext, value, arguments);
 		}
@@ -178,23 +187,36 @@ public class MethodReference extends SpelNodeImpl {
 	}
 
 	@Nullable
-	private MethodExecutor getCachedExecutor(EvaluationContext evaluationContext, Object value,
-			@Nullable TypeDescriptor target, List<TypeDescriptor> argumentTypes) {
-
+	private MethodExecutor getCachedExecutor(EvaluationContext evaluationContext, Object value, Object[] arguments) {
 		List<MethodResolver> methodResolvers = evaluationContext.getMethodResolvers();
 		if (methodResolvers.size() != 1 || !(methodResolvers.get(0) instanceof ReflectiveMethodResolver)) {
 			// Not a default ReflectiveMethodResolver - don't know whether caching is valid
 			return null;
 		}
 
-		CachedMethodExecutor executorToCheck = this.cachedExecutor;
-		if (executorToCheck != null && executorToCheck.isSuitable(value, target, argumentTypes)) {
-			return executorToCheck.get();
+		// Polymorphic inline cache: a resolved executor per receiver and argument types
+		for (CachedMethodExecutor executorToCheck : this.cachedExecutors) {
+			if (executorToCheck.isSuitable(value, arguments)) {
+				if (this.cachedExecutor != executorToCheck) {
+					this.cachedExecutor = executorToCheck;
+				}
+				return executorToCheck.get();
+			}
 		}
 		this.cachedExecutor = null;
 		return null;
 	}
 
+	private void cacheExecutor(CachedMethodExecutor executor) {
+		CachedMethodExecutor[] executors = this.cachedExecutors;
+		int length = Math.min(executors.length + 1, MAX_CACHED_EXECUTORS);
+		CachedMethodExecutor[] newExecutors = new CachedMethodExecutor[length];
+		newExecutors[0] = executor;
+		System.arraycopy(executors, 0, newExecutors, 1, length - 1);
+		this.cachedExecutors = newExecutors;
+		this.cachedExecutor = executor;
+	}
+
 	private MethodExecutor findAccessorForMethod(List<TypeDescriptor> argumentTypes, Object targetObject,
 			EvaluationContext evaluationContext) throws SpelEvaluationException {
 
@@ -415,20 +437,44 @@ public class MethodReference extends SpelNodeImpl {
 		@Nullable
 		private final TypeDescriptor target;
 
-		private final List<TypeDescriptor> argumentTypes;
+		private final Class<?> targetClass;
 
-		public CachedMethodExecutor(MethodExecutor methodExecutor, @Nullable Class<?> staticClass,
+		// The argument classes, with null for a null argument
+		private final Class<?>[] argumentClasses;
+
+		public CachedMethodExecutor(MethodExecutor methodExecutor, Object value,
 				@Nullable TypeDescriptor target, List<TypeDescriptor> argumentTypes) {
 
 			this.methodExecutor = methodExecutor;
-			this.staticClass = staticClass;
+			this.staticClass = (value instanceof Class ? (Class<?>) value : null);
 			this.target = target;
-			this.argumentTypes = argumentTypes;
+			this.targetClass = value.getClass();
+			this.argumentClasses = new Class<?>[argumentTypes.size()];
+			for (int i = 0; i < this.argumentClasses.length; i++) {
+				TypeDescriptor argumentType = argumentTypes.get(i);
+				this.argumentClasses[i] = (argumentType != null ? argumentType.getType() : null);
+			}
 		}
 
-		public boolean isSuitable(Object value, @Nullable TypeDescriptor target, List<TypeDescriptor> argumentTypes) {
-			return ((this.staticClass == null || this.staticClass == value) &&
-					ObjectUtils.nullSafeEquals(this.target, target) && this.argumentTypes.equals(argumentTypes));
+		/**
+		 * Check whether this executor was resolved for the given receiver and the
+		 * runtime types of the given arguments. Method resolution only depends on
+		 * the classes involved, so no type descriptors are needed for this check.
+		 */
+		public boolean isSuitable(Object value, Object[] arguments) {
+			if (this.staticClass != null ? this.staticClass != value : this.targetClass != value.getClass()) {
+				return false;
+			}
+			if (arguments.length != this.argumentClasses.length) {
+				return false;
+			}
+			for (int i = 0; i < arguments.length; i++) {
+				Object argument = arguments[i];
+				if (this.argumentClasses[i] != (argument != null ? argument.getClass() : null)) {
+					return false;
+				}
+			}
+			return true;
 		}
 
 		public boolean hasProxyTarget() {
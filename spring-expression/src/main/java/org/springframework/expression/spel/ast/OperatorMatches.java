@@ -22,11 +22,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
 import org.springframework.expression.spel.support.BooleanTypedValue;
+import org.springframework.lang.Nullable;
 
 /**
  * Implements the matches operator. Matches takes two operands:
@@ -47,6 +50,7 @@ public class OperatorMatches extends Operator {
 
 	public OperatorMatches(int pos, SpelNodeImpl... operands) {
 		super("matches", pos, operands);
+		this.exitTypeDescriptor = "Z";
 	}
 
 
@@ -94,6 +98,63 @@ public class OperatorMatches extends Operator {
 		}
 	}
 
+	/**
+	 * A matches operator is compilable if the regex is a string literal, which is
+	 * compiled once in the generated class, and the input is known to be a String.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl left = getLeftOperand();
+		return (getRightOperand() instanceof StringLiteral && left.isCompilable() &&
+				"Ljava/lang/String".equals(left.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String regex = (String) ((StringLiteral) getRightOperand()).getLiteralValue().getValue();
+		String patternFieldName = "pattern$" + cf.nextFieldId();
+		String className = cf.getClassName();
+
+		cf.registerNewField((cw, cflow) ->
+				cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, patternFieldName, "Ljava/util/regex/Pattern;", null, null));
+		cf.registerNewClinit((mVisitor, cflow) -> {
+			mVisitor.visitLdcInsn(regex);
+			mVisitor.visitMethodInsn(INVOKESTATIC, "java/util/regex/Pattern", "compile",
+					"(Ljava/lang/String;)Ljava/util/regex/Pattern;", false);
+			mVisitor.visitFieldInsn(PUTSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+		});
+
+		mv.visitFieldInsn(GETSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		String operatorClassName = OperatorMatches.class.getName().replace('.', '/');
+		mv.visitMethodInsn(INVOKESTATIC, operatorClassName, "matches",
+				"(Ljava/util/regex/Pattern;Ljava/lang/String;)Z", false);
+		cf.pushDescriptor("Z");
+	}
+
+	/**
+	 * Check whether the given input matches the given pattern, applying the same
+	 * access threshold as the interpreted evaluation of the operator.
+	 * <p>This method is used from compiled expression code, which is why it needs
+	 * to be declared as {@code public static} here.
+	 * @param pattern the compiled regex
+	 * @param input the input to match
+	 * @since 5.1.1
+	 */
+	public static boolean matches(Pattern pattern, @Nullable String input) {
+		if (input == null) {
+			throw new SpelEvaluationException(SpelMessage.INVALID_FIRST_OPERAND_FOR_MATCHES_OPERATOR, (Object) null);
+		}
+		try {
+			return pattern.matcher(new MatcherInput(input, new AccessCount())).matches();
+		}
+		catch (IllegalStateException ex) {
+			throw new SpelEvaluationException(ex, SpelMessage.FLAWED_PATTERN, pattern.pattern());
+		}
+	}
+
 
 	private static class AccessCount {
 
@@ -22,8 +22,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -63,6 +66,8 @@ public class Projection extends SpelNodeImpl {
 
 		Object operand = op.getValue();
 		boolean operandIsArray = ObjectUtils.isArray(operand);
+		// Only projection of an Iterable is compilable
+		this.exitTypeDescriptor = (operand instanceof Iterable ? "Ljava/util/List" : null);
 		// TypeDescriptor operandTypeDescriptor = op.getTypeDescriptor();
 
 		// When the input is a map, we push a special context object on the stack
@@ -134,6 +139,76 @@ public class Projection extends SpelNodeImpl {
 				operand.getClass().getName());
 	}
 
+	/**
+	 * A projection is compilable if it was last evaluated over an {@code Iterable}
+	 * and its operation is compilable.
+	 */
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null && this.children[0].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		Label endOfProjection = new Label();
+		if (this.nullSafe) {
+			// A null operand is left on the stack as the result
+			Label notNull = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, notNull);
+			mv.visitJumpInsn(GOTO, endOfProjection);
+			mv.visitLabel(notNull);
+		}
+
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label nextElement = new Label();
+		Label endOfElements = new Label();
+		mv.visitLabel(nextElement);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfElements);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+		mv.visitVarInsn(ALOAD, resultVariable);
+
+		// The operation is evaluated against the current element
+		int previousTarget = cf.setTargetVariable(elementVariable);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		String lastDesc = cf.lastDescriptor();
+		cf.exitCompilationScope();
+		cf.setTargetVariable(previousTarget);
+		if ("V".equals(lastDesc)) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+		}
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+		mv.visitInsn(POP);
+		mv.visitJumpInsn(GOTO, nextElement);
+
+		mv.visitLabel(endOfElements);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		mv.visitLabel(endOfProjection);
+		mv.visitTypeInsn(CHECKCAST, "java/util/List");
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	@Override
 	public String toStringAST() {
 		return "![" + getChild(0).toStringAST() + "]";
@@ -50,6 +50,13 @@ import org.springframework.util.ReflectionUtils;
  */
 public class PropertyOrFieldReference extends SpelNodeImpl {
 
+	/**
+	 * The maximum number of receiver types for which a reflective read accessor
+	 * is cached; beyond that, the oldest entry is evicted.
+	 */
+	private static final int MAX_CACHED_READ_ACCESSORS = 4;
+
+
 	private final boolean nullSafe;
 
 	private final String name;
@@ -63,6 +70,9 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 	@Nullable
 	private volatile PropertyAccessor cachedWriteAccessor;
 
+	@Nullable
+	private volatile ReadAccessorCache readAccessorCache;
+
 
 	public PropertyOrFieldReference(boolean nullSafe, String propertyOrFieldName, int pos) {
 		super(pos);
@@ -174,6 +184,23 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			return TypedValue.NULL;
 		}
 
+		ReadAccessorCache readAccessorCache = this.readAccessorCache;
+		if (readAccessorCache != null && targetObject != null) {
+			PropertyAccessor cachedAccessor = readAccessorCache.get(evalContext.getPropertyAccessors(), targetObject);
+			if (cachedAccessor != null) {
+				if (this.cachedReadAccessor != cachedAccessor) {
+					this.cachedReadAccessor = cachedAccessor;
+				}
+				try {
+					return cachedAccessor.read(evalContext, targetObject, name);
+				}
+				catch (Exception ex) {
+					// Resolved for this exact type, so not stale: the getter itself failed
+					throw new SpelEvaluationException(ex, SpelMessage.EXCEPTION_DURING_PROPERTY_READ, name, ex.getMessage());
+				}
+			}
+		}
+
 		PropertyAccessor accessorToUse = this.cachedReadAccessor;
 		if (accessorToUse != null) {
 			if (evalContext.getPropertyAccessors().contains(accessorToUse)) {
@@ -197,8 +224,14 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			for (PropertyAccessor accessor : accessorsToTry) {
 				if (accessor.canRead(evalContext, contextObject.getValue(), name)) {
 					if (accessor instanceof ReflectivePropertyAccessor) {
-						accessor = ((ReflectivePropertyAccessor) accessor).createOptimalAccessor(
+						PropertyAccessor optimalAccessor = ((ReflectivePropertyAccessor) accessor).createOptimalAccessor(
 								evalContext, contextObject.getValue(), name);
+						// Only cache per type if no other accessor gets asked first,
+						// since those may decide per instance
+						if (optimalAccessor != accessor && accessorsToTry.get(0) == accessor) {
+							cacheReadAccessor(evalContext.getPropertyAccessors(), targetObject, optimalAccessor);
+						}
+						accessor = optimalAccessor;
 					}
 					this.cachedReadAccessor = accessor;
 					return accessor.read(evalContext, contextObject.getValue(), name);
@@ -218,6 +251,14 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 		}
 	}
 
+	private void cacheReadAccessor(List<PropertyAccessor> propertyAccessors, Object target, PropertyAccessor accessor) {
+		ReadAccessorCache readAccessorCache = this.readAccessorCache;
+		if (readAccessorCache == null || !readAccessorCache.isValidFor(propertyAccessors)) {
+			readAccessorCache = new ReadAccessorCache(propertyAccessors);
+		}
+		this.readAccessorCache = readAccessorCache.with(target, accessor);
+	}
+
 	private void writeProperty(
 			TypedValue contextObject, EvaluationContext evalContext, String name, @Nullable Object newValue)
 			throws EvaluationException {
@@ -422,4 +463,64 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 		}
 	}
 
+
+	/**
+	 * Immutable polymorphic inline cache of the reflective read accessors
+	 * resolved for the receiver types seen so far. It is only valid for the
+	 * property accessors it has been populated for.
+	 */
+	private static class ReadAccessorCache {
+
+		private final PropertyAccessor[] propertyAccessors;
+
+		private final Class<?>[] types;
+
+		private final PropertyAccessor[] accessors;
+
+		public ReadAccessorCache(List<PropertyAccessor> propertyAccessors) {
+			this(propertyAccessors.toArray(new PropertyAccessor[0]), new Class<?>[0], new PropertyAccessor[0]);
+		}
+
+		private ReadAccessorCache(PropertyAccessor[] propertyAccessors, Class<?>[] types, PropertyAccessor[] accessors) {
+			this.propertyAccessors = propertyAccessors;
+			this.types = types;
+			this.accessors = accessors;
+		}
+
+		public boolean isValidFor(List<PropertyAccessor> propertyAccessors) {
+			if (propertyAccessors.size() != this.propertyAccessors.length) {
+				return false;
+			}
+			for (int i = 0; i < this.propertyAccessors.length; i++) {
+				if (propertyAccessors.get(i) != this.propertyAccessors[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Nullable
+		public PropertyAccessor get(List<PropertyAccessor> propertyAccessors, Object target) {
+			// For static access, the class itself is the key (the receiver type is always Class)
+			Object type = (target instanceof Class ? target : target.getClass());
+			for (int i = 0; i < this.types.length; i++) {
+				if (this.types[i] == type) {
+					return (isValidFor(propertyAccessors) ? this.accessors[i] : null);
+				}
+			}
+			return null;
+		}
+
+		public ReadAccessorCache with(Object target, PropertyAccessor accessor) {
+			int length = Math.min(this.types.length + 1, MAX_CACHED_READ_ACCESSORS);
+			Class<?>[] newTypes = new Class<?>[length];
+			PropertyAccessor[] newAccessors = new PropertyAccessor[length];
+			newTypes[0] = (target instanceof Class ? (Class<?>) target : target.getClass());
+			newAccessors[0] = accessor;
+			System.arraycopy(this.types, 0, newTypes, 1, length - 1);
+			System.arraycopy(this.accessors, 0, newAccessors, 1, length - 1);
+			return new ReadAccessorCache(this.propertyAccessors, newTypes, newAccessors);
+		}
+	}
+
 }
@@ -23,9 +23,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -86,6 +89,8 @@ public class Selection extends SpelNodeImpl {
 		TypedValue op = state.getActiveContextObject();
 		Object operand = op.getValue();
 		SpelNodeImpl selectionCriteria = this.children[0];
+		// Only selection over an Iterable is compilable
+		this.exitTypeDescriptor = null;
 
 		if (operand instanceof Map) {
 			Map<?, ?> mapdata = (Map<?, ?>) operand;
@@ -137,6 +142,9 @@ public class Selection extends SpelNodeImpl {
 		if (operand instanceof Iterable || ObjectUtils.isArray(operand)) {
 			Iterable<?> data = (operand instanceof Iterable ?
 					(Iterable<?>) operand : Arrays.asList(ObjectUtils.toObjectArray(operand)));
+			if (operand instanceof Iterable) {
+				this.exitTypeDescriptor = (this.variant == ALL ? "Ljava/util/List" : "Ljava/lang/Object");
+			}
 
 			List<Object> result = new ArrayList<>();
 			int index = 0;
@@ -203,6 +211,90 @@ public class Selection extends SpelNodeImpl {
 				operand.getClass().getName());
 	}
 
+	/**
+	 * A selection is compilable if it was last evaluated over an {@code Iterable}
+	 * and its criteria are compilable to a boolean result.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl selectionCriteria = this.children[0];
+		String criteriaDescriptor = selectionCriteria.exitTypeDescriptor;
+		return (this.exitTypeDescriptor != null && selectionCriteria.isCompilable() &&
+				("Z".equals(criteriaDescriptor) || "Ljava/lang/Boolean".equals(criteriaDescriptor)));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		Label endOfSelection = new Label();
+		if (this.nullSafe) {
+			// A null operand is left on the stack as the result
+			Label notNull = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, notNull);
+			mv.visitJumpInsn(GOTO, endOfSelection);
+			mv.visitLabel(notNull);
+		}
+
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+		if (this.variant == ALL) {
+			mv.visitTypeInsn(NEW, "java/util/ArrayList");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		}
+		else {
+			mv.visitInsn(ACONST_NULL);
+		}
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label nextElement = new Label();
+		Label endOfElements = new Label();
+		mv.visitLabel(nextElement);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfElements);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		// The criteria are evaluated against the current element
+		int previousTarget = cf.setTargetVariable(elementVariable);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		cf.unboxBooleanIfNecessary(mv);
+		cf.exitCompilationScope();
+		cf.setTargetVariable(previousTarget);
+		mv.visitJumpInsn(IFEQ, nextElement);
+
+		if (this.variant == ALL) {
+			mv.visitVarInsn(ALOAD, resultVariable);
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			mv.visitInsn(POP);
+			mv.visitJumpInsn(GOTO, nextElement);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitVarInsn(ASTORE, resultVariable);
+			mv.visitJumpInsn(GOTO, (this.variant == FIRST ? endOfElements : nextElement));
+		}
+
+		mv.visitLabel(endOfElements);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		mv.visitLabel(endOfSelection);
+		if (this.variant == ALL) {
+			mv.visitTypeInsn(CHECKCAST, "java/util/List");
+		}
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder();
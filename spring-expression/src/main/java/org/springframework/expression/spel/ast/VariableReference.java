@@ -66,7 +66,11 @@ public class VariableReference extends SpelNodeImpl {
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
 		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
+			TypedValue result = state.getActiveContextObject();
+			Object value = result.getValue();
+			this.exitTypeDescriptor = (value != null && Modifier.isPublic(value.getClass().getModifiers()) ?
+					CodeFlow.toDescriptorFromObject(value) : "Ljava/lang/Object");
+			return result;
 		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
@@ -114,6 +118,19 @@ public class VariableReference extends SpelNodeImpl {
 		if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
+		else if (this.name.equals(THIS)) {
+			String descriptor = cf.lastDescriptor();
+			if (descriptor == null) {
+				// The active context object: the root object, or the current element
+				// within a compiled selection or projection
+				cf.loadTarget(mv);
+			}
+			else {
+				// Within a compound expression, the value of the previous step
+				// is the active context object and already on the stack
+				CodeFlow.insertBoxIfNecessary(mv, descriptor);
+			}
+		}
 		else {
 			mv.visitVarInsn(ALOAD, 2);
 			mv.visitLdcInsn(this.name);
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.util.Assert;
+
+/**
+ * Size-bounded cache of parsed expressions, for callers that repeatedly
+ * evaluate the same expression strings. Instances are thread-safe.
+ *
+ * <p>Once the maximum size is exceeded, the least frequently used entries are
+ * evicted, down to 7/8 of the maximum size, so that the cost of an eviction
+ * is spread over the following insertions. The entry added last is never
+ * evicted, so that a new expression gets a chance to be used again. Each
+ * eviction also halves the use counts of the remaining entries, so that
+ * expressions which were used heavily in the past but no longer are do not
+ * stay in the cache forever.
+ *
+ * <p>If the parser is configured for {@link SpelCompilerMode#MIXED} compilation,
+ * an expression is compiled once it has been looked up the given number of
+ * times, rather than only after the interpreted evaluation threshold of
+ * {@link SpelExpression} itself. As in mixed mode in general, a compiled
+ * expression falls back to interpretation if it fails.
+ *
+ * @since 5.1.1
+ * @see SpelExpressionParser
+ */
+public class SpelExpressionCache {
+
+	/**
+	 * The default maximum number of cached expressions.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+	/**
+	 * The default number of lookups after which an expression is compiled.
+	 */
+	public static final int DEFAULT_COMPILE_THRESHOLD = 10;
+
+
+	private final SpelExpressionParser parser;
+
+	private final int maximumSize;
+
+	private final int compileThreshold;
+
+	private final Map<Object, CachedExpression> cache;
+
+	// Guarded by this cache: breaks ties between equally used entries, oldest first
+	private long sequence;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder compilationCount = new LongAdder();
+
+
+	/**
+	 * Create a new cache with a default parser and default settings.
+	 */
+	public SpelExpressionCache() {
+		this(new SpelExpressionParser());
+	}
+
+	/**
+	 * Create a new cache for the given parser, with default settings.
+	 * @param parser the parser to use for expressions not in the cache
+	 */
+	public SpelExpressionCache(SpelExpressionParser parser) {
+		this(parser, DEFAULT_MAXIMUM_SIZE, DEFAULT_COMPILE_THRESHOLD);
+	}
+
+	/**
+	 * Create a new cache for the given parser.
+	 * @param parser the parser to use for expressions not in the cache
+	 * @param maximumSize the maximum number of cached expressions
+	 * @param compileThreshold the number of lookups after which an expression
+	 * is compiled, if the parser is configured for mixed mode compilation
+	 * ({@code 0} to leave compilation to the expression itself)
+	 */
+	public SpelExpressionCache(SpelExpressionParser parser, int maximumSize, int compileThreshold) {
+		Assert.notNull(parser, "SpelExpressionParser must not be null");
+		Assert.isTrue(maximumSize > 0, "Maximum size must be positive");
+		Assert.isTrue(compileThreshold >= 0, "Compile threshold must not be negative");
+		this.parser = parser;
+		this.maximumSize = maximumSize;
+		this.compileThreshold =
+				(parser.getConfiguration().getCompilerMode() == SpelCompilerMode.MIXED ? compileThreshold : 0);
+		this.cache = new ConcurrentHashMap<>(Math.min(maximumSize, 64));
+	}
+
+
+	/**
+	 * Return the parsed expression for the given expression string.
+	 * <p>Parse the expression if it is not in the cache.
+	 * @param expressionString the raw expression string to parse
+	 * @return the parsed expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression parseExpression(String expressionString) throws ParseException {
+		return getExpression(expressionString, expressionString);
+	}
+
+	/**
+	 * Return the parsed expression cached under the given key.
+	 * <p>Parse the given expression string if there is none.
+	 * @param key the key of the expression, which must identify the expression
+	 * string (e.g. the expression string itself, combined with the element it
+	 * is declared on)
+	 * @param expressionString the raw expression string to parse
+	 * @return the parsed expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression getExpression(Object key, String expressionString) throws ParseException {
+		CachedExpression cached = this.cache.get(key);
+		if (cached != null) {
+			this.hitCount.increment();
+		}
+		else {
+			this.missCount.increment();
+			cached = put(key, this.parser.parseExpression(expressionString));
+		}
+		int uses = cached.recordUse();
+		if (this.compileThreshold > 0 && uses >= this.compileThreshold && cached.markCompileAttempted() &&
+				cached.expression instanceof SpelExpression) {
+			compile((SpelExpression) cached.expression);
+		}
+		return cached.expression;
+	}
+
+	private void compile(SpelExpression expression) {
+		try {
+			if (expression.compileExpression()) {
+				this.compilationCount.increment();
+			}
+		}
+		catch (IllegalStateException ex) {
+			// The generated class could not be loaded: keep interpreting
+		}
+	}
+
+	private synchronized CachedExpression put(Object key, Expression expression) {
+		CachedExpression cached = this.cache.get(key);
+		if (cached != null) {
+			// Parsed concurrently
+			return cached;
+		}
+		cached = new CachedExpression(expression, this.sequence++);
+		this.cache.put(key, cached);
+		if (this.cache.size() > this.maximumSize) {
+			evict(key);
+		}
+		return cached;
+	}
+
+	private void evict(Object keyToKeep) {
+		Object[] keys = this.cache.keySet().toArray();
+		int evictions = keys.length - (this.maximumSize - (this.maximumSize >> 3));
+		// Snapshot the ordering criteria, since the use counts change concurrently
+		int[] uses = new int[keys.length];
+		long[] sequences = new long[keys.length];
+		Integer[] positions = new Integer[keys.length];
+		int candidates = 0;
+		for (int i = 0; i < keys.length; i++) {
+			CachedExpression cached = this.cache.get(keys[i]);
+			if (cached != null && !keys[i].equals(keyToKeep)) {
+				uses[i] = cached.uses.get();
+				sequences[i] = cached.sequence;
+				positions[candidates++] = i;
+			}
+		}
+		Integer[] victims = Arrays.copyOf(positions, candidates);
+		Arrays.sort(victims, Comparator.<Integer>comparingInt(i -> uses[i]).thenComparingLong(i -> sequences[i]));
+		evictions = Math.min(evictions, victims.length);
+		for (int i = 0; i < evictions; i++) {
+			this.cache.remove(keys[victims[i]]);
+		}
+		this.evictionCount.add(evictions);
+		for (CachedExpression cached : this.cache.values()) {
+			cached.age();
+		}
+	}
+
+	/**
+	 * Remove all entries from the cache. The statistics are retained.
+	 */
+	public void clear() {
+		this.cache.clear();
+	}
+
+	/**
+	 * Return the number of cached expressions.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the parser used for expressions not in the cache.
+	 */
+	public SpelExpressionParser getParser() {
+		return this.parser;
+	}
+
+	/**
+	 * Return the maximum number of cached expressions.
+	 */
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Return the number of lookups that found a cached expression.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that required parsing.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of expressions evicted from the cache.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Return the number of expressions successfully compiled on reaching the
+	 * compile threshold.
+	 */
+	public long getCompilationCount() {
+		return this.compilationCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "SpelExpressionCache [size = " + size() + ", maximumSize = " + this.maximumSize +
+				", hits = " + getHitCount() + ", misses = " + getMissCount() +
+				", evictions = " + getEvictionCount() + ", compilations = " + getCompilationCount() + "]";
+	}
+
+
+	private static class CachedExpression {
+
+		final Expression expression;
+
+		final long sequence;
+
+		final AtomicInteger uses = new AtomicInteger();
+
+		private volatile boolean compileAttempted;
+
+		CachedExpression(Expression expression, long sequence) {
+			this.expression = expression;
+			this.sequence = sequence;
+		}
+
+		int recordUse() {
+			int uses;
+			do {
+				uses = this.uses.get();
+				if (uses == Integer.MAX_VALUE) {
+					return uses;
+				}
+			}
+			while (!this.uses.compareAndSet(uses, uses + 1));
+			return uses + 1;
+		}
+
+		void age() {
+			this.uses.updateAndGet(uses -> uses >> 1);
+		}
+
+		boolean markCompileAttempted() {
+			if (this.compileAttempted) {
+				return false;
+			}
+			synchronized (this) {
+				if (this.compileAttempted) {
+					return false;
+				}
+				this.compileAttempted = true;
+				return true;
+			}
+		}
+	}
+
+}
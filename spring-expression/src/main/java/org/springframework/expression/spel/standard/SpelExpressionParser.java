@@ -52,6 +52,13 @@ public class SpelExpressionParser extends TemplateAwareExpressionParser {
 	}
 
 
+	/**
+	 * Return the configuration that parsed expressions are created with.
+	 */
+	SpelParserConfiguration getConfiguration() {
+		return this.configuration;
+	}
+
 	public SpelExpression parseRaw(String expressionString) throws ParseException {
 		return doParseExpression(expressionString, null);
 	}
@@ -40,6 +40,8 @@ public class ReflectiveConstructorExecutor implements ConstructorExecutor {
 	@Nullable
 	private final Integer varargsPosition;
 
+	private boolean argumentConversionOccurred = false;
+
 
 	public ReflectiveConstructorExecutor(Constructor<?> ctor) {
 		this.ctor = ctor;
@@ -55,7 +57,7 @@ public class ReflectiveConstructorExecutor implements ConstructorExecutor {
 	@Override
 	public TypedValue execute(EvaluationContext context, Object... arguments) throws AccessException {
 		try {
-			ReflectionHelper.convertArguments(
+			this.argumentConversionOccurred = ReflectionHelper.convertArguments(
 					context.getTypeConverter(), arguments, this.ctor, this.varargsPosition);
 			if (this.ctor.isVarArgs()) {
 				arguments = ReflectionHelper.setupArgumentsForVarargsInvocation(
@@ -73,4 +75,12 @@ public class ReflectiveConstructorExecutor implements ConstructorExecutor {
 		return this.ctor;
 	}
 
+	/**
+	 * Return whether the arguments of the last invocation required conversion.
+	 * @since 5.1.1
+	 */
+	public boolean didArgumentConversionOccur() {
+		return this.argumentConversionOccurred;
+	}
+
 }
@@ -23,6 +23,7 @@ import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.standard.SpelCompiler;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
@@ -64,6 +65,7 @@ public abstract class AbstractExpressionTests {
 		}
 
 		Object value = expr.getValue(context);
+		assertCompiledValue(expression, expr, null, value);
 
 		// Check the return value
 		if (value == null) {
@@ -96,6 +98,7 @@ public abstract class AbstractExpressionTests {
 		}
 
 		Object value = expr.getValue(context, expectedResultType);
+		assertCompiledValue(expression, expr, expectedResultType, value);
 		if (value == null) {
 			if (expectedValue == null) {
 				return;  // no point doing other checks
@@ -128,6 +131,7 @@ public abstract class AbstractExpressionTests {
 			SpelUtilities.printAbstractSyntaxTree(System.out, expr);
 		}
 		Object value = expr.getValue(context);
+		assertCompiledValue(expression, expr, null, value);
 		if (value == null) {
 			if (expectedValue == null) {
 				return;  // no point doing other checks
@@ -154,6 +158,30 @@ public abstract class AbstractExpressionTests {
 		}
 	}
 
+	/**
+	 * If the expression can be compiled after its interpreted evaluation, check that
+	 * the compiled form produces the same result as the interpreted one.
+	 * @param expression the expression text
+	 * @param expr the parsed expression, already evaluated once
+	 * @param requiredResultType the requested result type (or {@code null})
+	 * @param interpretedValue the result of the interpreted evaluation
+	 */
+	private void assertCompiledValue(String expression, Expression expr, Class<?> requiredResultType,
+			Object interpretedValue) {
+
+		if (!SpelCompiler.compile(expr)) {
+			return;
+		}
+		Object compiledValue = (requiredResultType != null ?
+				expr.getValue(context, requiredResultType) : expr.getValue(context));
+		assertEquals("Compiled result differs for expression '" + expression + "'.",
+				stringValueOf(interpretedValue), stringValueOf(compiledValue));
+		if (interpretedValue != null) {
+			assertEquals("Compiled result type differs for expression '" + expression + "'.",
+					interpretedValue.getClass(), compiledValue.getClass());
+		}
+	}
+
 	/**
 	 * Evaluate the specified expression and ensure the expected message comes out.
 	 * The message may have inserts and they will be checked if otherProperties is specified.
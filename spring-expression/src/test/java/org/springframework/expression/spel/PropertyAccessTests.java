@@ -32,6 +32,7 @@ import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.testresources.Person;
@@ -285,6 +286,33 @@ public class PropertyAccessTests extends AbstractExpressionTests {
 		assertSame(Object.class, context.getRootObject().getTypeDescriptor().getType());
 	}
 
+	@Test
+	public void reflectiveReadAccessorCachedPerReceiverType() {
+		CountingPropertyAccessor accessor = new CountingPropertyAccessor();
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setPropertyAccessors(Collections.singletonList(accessor));
+		Expression expression = parser.parseExpression("name");
+		Person person = new Person("p1");
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals("p1", expression.getValue(context, person));
+			assertEquals("java.lang.String", expression.getValue(context, (Object) String.class));
+		}
+		assertEquals(2, accessor.canReadCount);
+	}
+
+	@Test
+	public void reflectiveReadAccessorCacheHonorsAddedAccessors() {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		Expression expression = parser.parseExpression("name");
+		Person person = new Person("p1");
+		assertEquals("p1", expression.getValue(context, person));
+		assertEquals("p1", expression.getValue(context, person));
+
+		context.addPropertyAccessor(new ConfigurablePropertyAccessor(Collections.singletonMap("name", "Ollie")));
+		assertEquals("Ollie", expression.getValue(context, person));
+	}
+
 
 	// This can resolve the property 'flibbles' on any String (very useful...)
 	private static class StringyPropertyAccessor implements PropertyAccessor {
@@ -336,6 +364,18 @@ public class PropertyAccessTests extends AbstractExpressionTests {
 	}
 
 
+	private static class CountingPropertyAccessor extends ReflectivePropertyAccessor {
+
+		int canReadCount;
+
+		@Override
+		public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
+			this.canReadCount++;
+			return super.canRead(context, target, name);
+		}
+	}
+
+
 	private static class ConfigurablePropertyAccessor implements PropertyAccessor {
 
 		private final Map<String, Object> values;
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -5038,6 +5039,180 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertTrue(classloadersUsed.size() > 1);
 	}
 
+	@Test
+	public void selection() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext(2);
+		context.setVariable("list", Arrays.asList(1, 2, 3, 4));
+
+		expression = parser.parseExpression("#list.?[#this > 2]");
+		assertEquals("[3, 4]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[3, 4]", expression.getValue(context).toString());
+
+		expression = parser.parseExpression("#list.^[#this > 1]");
+		assertEquals(2, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(context));
+
+		expression = parser.parseExpression("#list.$[#this < 4]");
+		assertEquals(3, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(context));
+
+		expression = parser.parseExpression("#list.^[#this > 5]");
+		assertNull(expression.getValue(context));
+		assertCanCompile(expression);
+		assertNull(expression.getValue(context));
+
+		// #root still refers to the root object within the criteria
+		expression = parser.parseExpression("#list.?[#this > #root].size()");
+		assertEquals(2, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(context));
+
+		expression = parser.parseExpression("#list?.?[#this > 2]");
+		assertEquals("[3, 4]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		context.setVariable("list", null);
+		assertNull(expression.getValue(context));
+
+		// Selection over an array is not compiled
+		context.setVariable("ints", new int[] {1, 2, 3});
+		expression = parser.parseExpression("#ints.?[#this > 1]");
+		assertEquals("2 3", stringify(expression.getValue(context)));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void variableReferenceThisInCompoundExpression() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext("abc");
+
+		// #this refers to the value of the previous step, not to the root object
+		expression = parser.parseExpression("length().#this.toString()");
+		assertEquals("3", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("3", expression.getValue(context));
+
+		expression = parser.parseExpression("toUpperCase().#this.concat('d')");
+		assertEquals("ABCd", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("ABCd", expression.getValue(context));
+
+		expression = parser.parseExpression("#this.toUpperCase()");
+		assertEquals("ABC", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("ABC", expression.getValue(context));
+	}
+
+	@Test
+	public void projection() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("words", Arrays.asList("a", "bb", "ccc"));
+
+		expression = parser.parseExpression("#words.![length()]");
+		assertEquals("[1, 2, 3]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[1, 2, 3]", expression.getValue(context).toString());
+
+		expression = parser.parseExpression("#words.![#this.toUpperCase()].?[length() > 1]");
+		assertEquals("[BB, CCC]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[BB, CCC]", expression.getValue(context).toString());
+
+		// Varargs invocation without argument conversion
+		expression = parser.parseExpression("#words.![T(String).format('%s!', #this)]");
+		assertEquals("[a!, bb!, ccc!]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[a!, bb!, ccc!]", expression.getValue(context).toString());
+	}
+
+	@Test
+	public void operatorMatches() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("s", "123");
+		context.setVariable("pattern", "[0-9]+");
+
+		expression = parser.parseExpression("#s matches '[0-9]+'");
+		assertTrue(expression.getValue(context, Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(context, Boolean.class));
+		context.setVariable("s", "12a");
+		assertFalse(expression.getValue(context, Boolean.class));
+
+		expression = parser.parseExpression("'abc' matches 'a.c' and !('abc' matches 'b.*')");
+		assertTrue(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(Boolean.class));
+
+		expression = parser.parseExpression("#s matches #pattern");
+		assertFalse(expression.getValue(context, Boolean.class));
+		assertCantCompile(expression);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void inlineMap() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("x", 5);
+
+		expression = parser.parseExpression("{a:1, b:'x', c:{1,2}, d:{e:true}}");
+		assertEquals("{a=1, b=x, c=[1, 2], d={e=true}}", expression.getValue().toString());
+		assertCanCompile(expression);
+		Map map = (Map) expression.getValue();
+		assertEquals("{a=1, b=x, c=[1, 2], d={e=true}}", map.toString());
+		try {
+			map.clear();
+			fail("Inline constant map should not be modifiable");
+		}
+		catch (UnsupportedOperationException ex) {
+			// expected
+		}
+
+		expression = parser.parseExpression("{a:#x, 'b':#x * 2}");
+		assertEquals("{a=5, b=10}", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("{a=5, b=10}", expression.getValue(context).toString());
+		context.setVariable("x", 6);
+		assertEquals("{a=6, b=12}", expression.getValue(context).toString());
+
+		expression = parser.parseExpression("{a:1, b:2}['b']");
+		assertEquals(2, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue());
+	}
+
+	@Test
+	public void indexerWithVariableKeys() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		Map<String, Integer> map = new HashMap<>();
+		map.put("b", 2);
+		context.setVariable("map", map);
+		context.setVariable("key", "b");
+		context.setVariable("list", Arrays.asList("a", "b", "c"));
+		context.setVariable("i", 2);
+
+		expression = parser.parseExpression("#map[#key]");
+		assertEquals(2, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(context));
+
+		expression = parser.parseExpression("#list[#i]");
+		assertEquals("c", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("c", expression.getValue(context));
+
+		expression = parser.parseExpression("#list[#i - 1]");
+		assertEquals("b", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("b", expression.getValue(context));
+
+		// The index is evaluated against the root object, not the indexed collection
+		expression = parser.parseExpression("#list[#root.length()]");
+		assertEquals("b", expression.getValue(context, "x"));
+		assertCanCompile(expression);
+		assertEquals("b", expression.getValue(context, "x"));
+	}
+
 
 	// helper methods
 
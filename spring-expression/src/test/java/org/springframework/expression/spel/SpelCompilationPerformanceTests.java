@@ -16,11 +16,17 @@
 
 package org.springframework.expression.spel;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Ignore;
 import org.junit.Test;
 
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelCompiler;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import static org.junit.Assert.*;
 
@@ -615,6 +621,95 @@ public class SpelCompilationPerformanceTests extends AbstractExpressionTests {
 	}
 
 
+	@Test
+	public void compilingSelection() throws Exception {
+		timeInterpretedAndCompiled("selection", "#list.?[#this > 2]", createCollectionContext());
+	}
+
+	@Test
+	public void compilingProjection() throws Exception {
+		timeInterpretedAndCompiled("projection", "#words.![length()]", createCollectionContext());
+	}
+
+	@Test
+	public void compilingOperatorMatches() throws Exception {
+		timeInterpretedAndCompiled("matches", "#s matches '[0-9]+'", createCollectionContext());
+	}
+
+	@Test
+	public void compilingInlineMap() throws Exception {
+		timeInterpretedAndCompiled("inline map", "{a:#s, b:#key}", createCollectionContext());
+	}
+
+	@Test
+	public void compilingIndexerWithVariableKeys() throws Exception {
+		timeInterpretedAndCompiled("indexer (variable key)", "#map[#key] + #list[#list.size() - 1]",
+				createCollectionContext());
+	}
+
+	@Test
+	public void compilingVarargsMethodReference() throws Exception {
+		timeInterpretedAndCompiled("varargs method reference", "T(String).format('%s-%s', #s, #key)",
+				createCollectionContext());
+	}
+
+	private StandardEvaluationContext createCollectionContext() {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		Map<String, Integer> map = new HashMap<>();
+		map.put("b", 2);
+		context.setVariable("map", map);
+		context.setVariable("key", "b");
+		context.setVariable("list", Arrays.asList(1, 2, 3, 4));
+		context.setVariable("words", Arrays.asList("a", "bb", "ccc"));
+		context.setVariable("s", "123");
+		return context;
+	}
+
+	private void timeInterpretedAndCompiled(String title, String expressionString, EvaluationContext context) {
+		long interpretedTotal = 0, compiledTotal = 0, stime, etime;
+		Object interpretedResult = null, compiledResult = null;
+
+		Expression expression = parser.parseExpression(expressionString);
+
+		// warmup
+		for (int i = 0; i < count; i++) {
+			expression.getValue(context);
+		}
+
+		log("timing interpreted: ");
+		for (int i = 0; i < iterations; i++) {
+			stime = System.currentTimeMillis();
+			for (int j = 0; j < count; j++) {
+				interpretedResult = expression.getValue(context);
+			}
+			etime = System.currentTimeMillis();
+			long interpretedSpeed = (etime - stime);
+			interpretedTotal += interpretedSpeed;
+			log(interpretedSpeed + "ms ");
+		}
+		logln();
+
+		compile(expression);
+
+		log("timing compiled: ");
+		expression.getValue(context);
+		for (int i = 0; i < iterations; i++) {
+			stime = System.currentTimeMillis();
+			for (int j = 0; j < count; j++) {
+				compiledResult = expression.getValue(context);
+			}
+			etime = System.currentTimeMillis();
+			long compiledSpeed = (etime - stime);
+			compiledTotal += compiledSpeed;
+			log(compiledSpeed + "ms ");
+		}
+		logln();
+
+		assertEquals(interpretedResult, compiledResult);
+		reportPerformance(title, interpretedTotal, compiledTotal);
+	}
+
+
 	private void reportPerformance(String title, long interpretedTotal, long compiledTotal) {
 		double averageInterpreted = interpretedTotal / iterations;
 		double averageCompiled = compiledTotal / iterations;
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SpelExpressionCache}.
+ *
+ * @since 5.1.1
+ */
+public class SpelExpressionCacheTests {
+
+	@Test
+	public void parsedExpressionIsCached() {
+		SpelExpressionCache cache = new SpelExpressionCache();
+		Expression expression = cache.parseExpression("1 + 2");
+		assertEquals(3, expression.getValue());
+		assertSame(expression, cache.parseExpression("1 + 2"));
+		assertSame(expression, cache.getExpression("1 + 2", "1 + 2"));
+		assertNotSame(expression, cache.getExpression("other key", "1 + 2"));
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void leastFrequentlyUsedExpressionsAreEvicted() {
+		SpelExpressionCache cache = new SpelExpressionCache(new SpelExpressionParser(), 8, 0);
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j <= i; j++) {
+				cache.parseExpression(Integer.toString(i));
+			}
+		}
+		assertEquals(8, cache.size());
+		assertEquals(0, cache.getEvictionCount());
+
+		Expression expression = cache.parseExpression("8");
+		assertEquals(7, cache.size());
+		assertEquals(2, cache.getEvictionCount());
+		assertSame(expression, cache.parseExpression("8"));
+
+		long misses = cache.getMissCount();
+		cache.parseExpression("2");
+		assertEquals(misses, cache.getMissCount());
+		cache.parseExpression("0");
+		assertEquals(misses + 1, cache.getMissCount());
+	}
+
+	@Test
+	public void formerlyFrequentlyUsedExpressionIsEventuallyEvicted() {
+		SpelExpressionCache cache = new SpelExpressionCache(new SpelExpressionParser(), 8, 0);
+		for (int i = 0; i < 100; i++) {
+			cache.parseExpression("'old'");
+		}
+		for (int i = 0; i < 64; i++) {
+			cache.parseExpression(Integer.toString(i));
+			cache.parseExpression(Integer.toString(i));
+		}
+		long misses = cache.getMissCount();
+		cache.parseExpression("'old'");
+		assertEquals(misses + 1, cache.getMissCount());
+	}
+
+	@Test
+	public void hotExpressionIsCompiledInMixedMode() {
+		SpelParserConfiguration configuration = new SpelParserConfiguration(SpelCompilerMode.MIXED, null);
+		SpelExpressionCache cache = new SpelExpressionCache(new SpelExpressionParser(configuration), 16, 3);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(3, cache.parseExpression("'abc'.length()").getValue());
+		}
+		assertEquals(1, cache.getCompilationCount());
+	}
+
+	@Test
+	public void expressionIsNotCompiledWithCompilerOff() {
+		SpelParserConfiguration configuration = new SpelParserConfiguration(SpelCompilerMode.OFF, null);
+		SpelExpressionCache cache = new SpelExpressionCache(new SpelExpressionParser(configuration), 16, 3);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(3, cache.parseExpression("'abc'.length()").getValue());
+		}
+		assertEquals(0, cache.getCompilationCount());
+	}
+
+	@Test
+	public void clearRetainsStatistics() {
+		SpelExpressionCache cache = new SpelExpressionCache();
+		cache.parseExpression("true");
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.getMissCount());
+		cache.parseExpression("true");
+		assertEquals(2, cache.getMissCount());
+	}
+
+}
@@ -21,6 +21,7 @@ import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 
 import org.springframework.beans.CachedIntrospectionResults;
+import org.springframework.core.ResolvableType;
 
 /**
  * Listener that flushes the JDK's {@link java.beans.Introspector JavaBeans Introspector}
@@ -46,7 +47,8 @@ import org.springframework.beans.CachedIntrospectionResults;
  * <b>Although Spring itself does not create JDK Introspector leaks, note that this
  * listener should nevertheless be used in scenarios where the Spring framework classes
  * themselves reside in a 'common' ClassLoader (such as the system ClassLoader).</b>
- * In such a scenario, this listener will properly clean up Spring's introspection cache.
+ * In such a scenario, this listener will properly clean up Spring's introspection cache
+ * as well as the {@link org.springframework.core.ResolvableType} cache.
  *
  * <p>Application classes hardly ever need to use the JavaBeans Introspector
  * directly, so are normally not the cause of Introspector resource leaks.
@@ -77,7 +79,9 @@ public class IntrospectorCleanupListener implements ServletContextListener {
 
 	@Override
 	public void contextDestroyed(ServletContextEvent event) {
-		CachedIntrospectionResults.clearClassLoader(Thread.currentThread().getContextClassLoader());
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		CachedIntrospectionResults.clearClassLoader(classLoader);
+		ResolvableType.clearCache(classLoader);
 		Introspector.flushCaches();
 	}
 